@@ -42,3 +42,23 @@ dependencies {
 tasks.withType<Test> {
 	useJUnitPlatform()
 }
+
+tasks.named<Test>("test") {
+	useJUnitPlatform {
+		excludeTags("benchmark")
+	}
+}
+
+// Throughput benchmarks against the in-memory H2 profile: ./gradlew benchmark
+tasks.register<Test>("benchmark") {
+	description = "Runs @Tag(\"benchmark\") tests."
+	group = "verification"
+	testClassesDirs = sourceSets["test"].output.classesDirs
+	classpath = sourceSets["test"].runtimeClasspath
+	useJUnitPlatform {
+		includeTags("benchmark")
+	}
+	testLogging {
+		showStandardStreams = true
+	}
+}
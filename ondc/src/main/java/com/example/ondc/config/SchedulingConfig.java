@@ -0,0 +1,38 @@
+package com.example.ondc.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Two schedulers. The journal's group fsync and the ledger's write-back run
+ * on their own small pool, so a long archive batch, forecast or index rebuild
+ * on the shared pool never holds up durability. Every other @Scheduled task
+ * shares taskScheduler, sized by spring.task.scheduling.pool.size.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String INVENTORY_WRITE_SCHEDULER = "inventoryWriteScheduler";
+
+    /**
+     * Declared here because defining any scheduler bean switches off Boot's default one.
+     */
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Bean(INVENTORY_WRITE_SCHEDULER)
+    public ThreadPoolTaskScheduler inventoryWriteScheduler(
+            @Value("${ondc.inventory.write-scheduler.pool-size:2}") int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix("inventory-write-");
+        return scheduler;
+    }
+}
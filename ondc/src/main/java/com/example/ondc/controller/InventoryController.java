@@ -1,12 +1,25 @@
 package com.example.ondc.controller;
 
+import com.example.ondc.dto.AvailabilityRequest;
+import com.example.ondc.dto.AvailabilityResponse;
+import com.example.ondc.dto.CacheStats;
+import com.example.ondc.dto.InventoryImportResponse;
 import com.example.ondc.dto.InventoryRequest;
 import com.example.ondc.dto.InventoryResponse;
+import com.example.ondc.dto.InventorySyncResponse;
+import com.example.ondc.service.AvailabilityCache;
+import com.example.ondc.service.InventoryImportService;
 import com.example.ondc.service.InventoryService;
+import com.example.ondc.service.LowStockAlertPublisher;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +30,9 @@ import java.util.Map;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final LowStockAlertPublisher lowStockAlertPublisher;
+    private final InventoryImportService inventoryImportService;
+    private final AvailabilityCache availabilityCache;
 
     @GetMapping("/outlet/{outletId}")
     public ResponseEntity<List<InventoryResponse>> getInventoryByOutlet(@PathVariable Long outletId) {
@@ -40,6 +56,12 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.createOrUpdateInventory(request));
     }
 
+    @PostMapping("/availability")
+    public ResponseEntity<AvailabilityResponse> checkAvailability(
+            @Valid @RequestBody AvailabilityRequest request) {
+        return ResponseEntity.ok(inventoryService.checkAvailability(request));
+    }
+
     @PostMapping("/reserve")
     public ResponseEntity<Map<String, String>> reserveStock(
             @RequestParam Long productId, @RequestParam Long outletId, @RequestParam int quantity) {
@@ -54,6 +76,11 @@ public class InventoryController {
         return ResponseEntity.ok(Map.of("message", "Reservation released successfully"));
     }
 
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStats> getCacheStats() {
+        return ResponseEntity.ok(availabilityCache.stats());
+    }
+
     @GetMapping("/low-stock")
     public ResponseEntity<List<InventoryResponse>> getLowStockAlerts() {
         return ResponseEntity.ok(inventoryService.getLowStockAlerts());
@@ -64,8 +91,29 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.getLowStockByVendor(vendorId));
     }
 
+    @GetMapping(path = "/low-stock/stream/{vendorId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStockAlerts(@PathVariable Long vendorId) {
+        return lowStockAlertPublisher.subscribe(vendorId);
+    }
+
     @PostMapping("/sync/{vendorId}")
     public ResponseEntity<List<InventoryResponse>> syncInventory(@PathVariable Long vendorId) {
         return ResponseEntity.ok(inventoryService.syncInventory(vendorId));
     }
+
+    @PostMapping("/sync/{vendorId}/seller-app/{sellerAppId}")
+    public ResponseEntity<InventorySyncResponse> syncInventoryDelta(
+            @PathVariable Long vendorId, @PathVariable Long sellerAppId) {
+        return ResponseEntity.ok(inventoryService.syncInventoryDelta(vendorId, sellerAppId));
+    }
+
+    @PostMapping(path = "/import/{vendorId}",
+            consumes = {"text/csv", "application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+    public ResponseEntity<InventoryImportResponse> importInventory(
+            @PathVariable Long vendorId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) throws IOException {
+        boolean ndjson = contentType.startsWith("application/x-ndjson");
+        return ResponseEntity.ok(inventoryImportService.importStock(vendorId, body, ndjson));
+    }
 }
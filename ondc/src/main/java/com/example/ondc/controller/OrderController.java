@@ -2,12 +2,22 @@ package com.example.ondc.controller;
 
 import com.example.ondc.dto.*;
 import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.service.DecisionEngine;
+import com.example.ondc.service.OrderEventLog;
+import com.example.ondc.service.OrderIngestionService;
+import com.example.ondc.service.OrderReadModels;
+import com.example.ondc.service.OrderSearchIndex;
 import com.example.ondc.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
@@ -18,10 +28,43 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIngestionService orderIngestionService;
+    private final DecisionEngine decisionEngine;
+    private final ObjectMapper objectMapper;
+    private final OrderEventLog orderEventLog;
+    private final OrderReadModels orderReadModels;
+    private final OrderSearchIndex orderSearchIndex;
 
     @GetMapping
-    public ResponseEntity<List<OrderResponse>> getAllOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<OrderPage> getAllOrders(
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(orderService.getOrders(cursor, size));
+    }
+
+    /**
+     * Every matching order as NDJSON, newest first, written as it is read.
+     */
+    @GetMapping(path = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamOrders(
+            @RequestParam(required = false) Long vendorId, @RequestParam(required = false) OrderStatus status) {
+        StreamingResponseBody body = out -> orderService.streamOrders(vendorId, status, order -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(order));
+                out.write('\n');
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    /**
+     * Open and recent orders by customerPhone, deliveryPincode, ondcOrderId
+     * and/or customerName prefix, newest first.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<OrderSearchHit>> searchOrders(OrderSearchRequest request) {
+        return ResponseEntity.ok(orderSearchIndex.search(request));
     }
 
     @GetMapping("/{id}")
@@ -29,20 +72,39 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrderById(id));
     }
 
+    @GetMapping("/{id}/events")
+    public ResponseEntity<List<OrderEventResponse>> getOrderEvents(@PathVariable Long id) {
+        return ResponseEntity.ok(orderEventLog.history(id));
+    }
+
+    @GetMapping("/vendor/{vendorId}/counts")
+    public ResponseEntity<Map<OrderStatus, Long>> getStatusCounts(@PathVariable Long vendorId) {
+        return ResponseEntity.ok(orderReadModels.statusCounts(vendorId));
+    }
+
+    @GetMapping("/outlet/{outletId}/queue")
+    public ResponseEntity<OutletQueueResponse> getOutletQueue(@PathVariable Long outletId) {
+        return ResponseEntity.ok(orderReadModels.outletQueue(outletId));
+    }
+
     @GetMapping("/vendor/{vendorId}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByVendor(@PathVariable Long vendorId) {
-        return ResponseEntity.ok(orderService.getOrdersByVendor(vendorId));
+    public ResponseEntity<OrderPage> getOrdersByVendor(
+            @PathVariable Long vendorId,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(orderService.getOrdersByVendor(vendorId, cursor, size));
     }
 
     @GetMapping("/vendor/{vendorId}/prioritized")
-    public ResponseEntity<List<OrderResponse>> getPrioritizedOrders(@PathVariable Long vendorId) {
-        return ResponseEntity.ok(orderService.getPrioritizedOrders(vendorId));
+    public ResponseEntity<List<OrderResponse>> getPrioritizedOrders(
+            @PathVariable Long vendorId, @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(orderService.getPrioritizedOrders(vendorId, limit));
     }
 
     @GetMapping("/vendor/{vendorId}/status/{status}")
-    public ResponseEntity<List<OrderResponse>> getOrdersByStatus(
-            @PathVariable Long vendorId, @PathVariable OrderStatus status) {
-        return ResponseEntity.ok(orderService.getOrdersByStatus(vendorId, status));
+    public ResponseEntity<OrderPage> getOrdersByStatus(
+            @PathVariable Long vendorId, @PathVariable OrderStatus status,
+            @RequestParam(required = false) String cursor, @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(orderService.getOrdersByStatus(vendorId, status, cursor, size));
     }
 
     @PostMapping
@@ -50,6 +112,24 @@ public class OrderController {
         return ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrder(request));
     }
 
+    /**
+     * Queue an order for asynchronous persistence — answers 202 as soon as it is buffered.
+     */
+    @PostMapping("/ingest")
+    public ResponseEntity<OrderIngestionStatus> ingestOrder(@Valid @RequestBody OrderRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(orderIngestionService.submit(request));
+    }
+
+    @GetMapping("/ingest/{ondcOrderId}")
+    public ResponseEntity<OrderIngestionStatus> getIngestionStatus(@PathVariable String ondcOrderId) {
+        return ResponseEntity.ok(orderIngestionService.getStatus(ondcOrderId));
+    }
+
+    @GetMapping("/decision-engine/stats")
+    public ResponseEntity<DecisionEngineStats> getDecisionEngineStats() {
+        return ResponseEntity.ok(decisionEngine.stats());
+    }
+
     @PutMapping("/{id}/accept")
     public ResponseEntity<OrderResponse> acceptOrder(@PathVariable Long id) {
         return ResponseEntity.ok(orderService.acceptOrder(id));
@@ -62,6 +142,31 @@ public class OrderController {
         return ResponseEntity.ok(orderService.rejectOrder(id, reason));
     }
 
+    @PostMapping("/batch-decision")
+    public ResponseEntity<BatchDecisionResponse> decideBatch(@Valid @RequestBody BatchDecisionRequest request) {
+        return ResponseEntity.ok(orderService.decideBatch(request));
+    }
+
+    @PutMapping("/{id}/cancel")
+    public ResponseEntity<OrderResponse> cancelOrder(
+            @PathVariable Long id, @RequestBody Map<String, String> body) {
+        String reason = body.getOrDefault("reason", "No reason provided");
+        return ResponseEntity.ok(orderService.cancelOrder(id, reason));
+    }
+
+    @PostMapping("/cancel")
+    public ResponseEntity<BatchCancellationResponse> cancelOrders(@Valid @RequestBody CancellationRequest request) {
+        return ResponseEntity.ok(orderService.cancelOrders(request));
+    }
+
+    /**
+     * Fulfill every accepted order waiting at an outlet.
+     */
+    @PostMapping("/outlet/{outletId}/dispatch")
+    public ResponseEntity<DispatchResponse> dispatchOutlet(@PathVariable Long outletId) {
+        return ResponseEntity.ok(orderService.dispatchOutlet(outletId));
+    }
+
     @PutMapping("/{id}/partial-fulfill")
     public ResponseEntity<OrderResponse> partialFulfill(
             @PathVariable Long id, @Valid @RequestBody PartialFulfillmentRequest request) {
@@ -1,5 +1,6 @@
 package com.example.ondc.controller;
 
+import com.example.ondc.dto.CacheStats;
 import com.example.ondc.dto.ProductRequest;
 import com.example.ondc.dto.ProductResponse;
 import com.example.ondc.service.ProductService;
@@ -28,6 +29,16 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductById(id));
     }
 
+    @GetMapping("/sku/{sku}")
+    public ResponseEntity<ProductResponse> getProductBySku(@PathVariable String sku) {
+        return ResponseEntity.ok(productService.getProductBySku(sku));
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<CacheStats> getCacheStats() {
+        return ResponseEntity.ok(productService.getCacheStats());
+    }
+
     @GetMapping("/vendor/{vendorId}")
     public ResponseEntity<List<ProductResponse>> getProductsByVendor(@PathVariable Long vendorId) {
         return ResponseEntity.ok(productService.getProductsByVendor(vendorId));
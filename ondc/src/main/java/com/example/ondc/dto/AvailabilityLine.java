@@ -0,0 +1,20 @@
+package com.example.ondc.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class AvailabilityLine {
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    /** Omit when the request gives a pincode — any outlet serving it may answer. */
+    private Long outletId;
+
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+}
@@ -0,0 +1,21 @@
+package com.example.ondc.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class AvailabilityRequest {
+    @NotEmpty(message = "At least one line is required")
+    @Valid
+    private List<AvailabilityLine> lines;
+
+    /** Check lines without an outlet against every active outlet in this pincode. */
+    private String pincode;
+
+    /** Optional — narrows pincode outlets to one vendor. */
+    private Long vendorId;
+}
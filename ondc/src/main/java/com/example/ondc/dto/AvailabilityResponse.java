@@ -0,0 +1,12 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class AvailabilityResponse {
+    private Boolean allAvailable;
+    private List<AvailabilityResult> lines;
+}
@@ -0,0 +1,15 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class AvailabilityResult {
+    private Long productId;
+    /** The outlet checked, or for pincode lines the outlet with the most stock. */
+    private Long outletId;
+    private Integer requested;
+    private Integer available;
+    private Boolean ok;
+}
@@ -0,0 +1,15 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+import java.util.List;
+
+/**
+ * One order's reservation lines, reserved all-or-nothing as part of a larger batch.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BasketReservation {
+    private Long sellerAppId;
+    private List<ReservationLine> lines;
+}
@@ -0,0 +1,13 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BatchCancellationResponse {
+    private Integer cancelled;
+    private Integer failed;
+    private List<OrderDecisionResult> results;
+}
@@ -0,0 +1,15 @@
+package com.example.ondc.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BatchDecisionRequest {
+    @NotEmpty(message = "At least one decision is required")
+    @Valid
+    private List<OrderDecision> decisions;
+}
@@ -0,0 +1,14 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class BatchDecisionResponse {
+    private Integer accepted;
+    private Integer rejected;
+    private Integer failed;
+    private List<OrderDecisionResult> results;
+}
@@ -0,0 +1,20 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CacheStats {
+    private Boolean enabled;
+    private Long size;
+    private Long maxSize;
+    private Long hits;
+    private Long misses;
+    private Double hitRate;
+    private Long loads;
+    /** Misses that waited on another caller's load instead of querying. */
+    private Long coalescedLoads;
+    private Long invalidations;
+    private Long evictions;
+}
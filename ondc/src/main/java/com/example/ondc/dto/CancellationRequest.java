@@ -0,0 +1,14 @@
+package com.example.ondc.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CancellationRequest {
+    @NotEmpty(message = "At least one order ID is required")
+    private List<Long> orderIds;
+    private String reason;
+}
@@ -0,0 +1,21 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class DecisionEngineStats {
+    private Boolean enabled;
+    private Long decisions;
+    private Long accepted;
+    private Long rejected;
+    private Long partial;
+    /** Orders the engine left PENDING for a human. */
+    private Long manual;
+    private Double p50Micros;
+    private Double p99Micros;
+    private Double maxMicros;
+    /** Decisions over the p99 budget. */
+    private Long overBudget;
+}
@@ -0,0 +1,16 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class DispatchResponse {
+    private Long outletId;
+    private Integer fulfilled;
+    private List<Long> orderIds;
+    /** Ready orders left alone because their reservation holds have lapsed. */
+    private Integer skipped;
+    private List<Long> skippedOrderIds;
+}
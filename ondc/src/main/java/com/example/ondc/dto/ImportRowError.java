@@ -0,0 +1,11 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ImportRowError {
+    private Long line;
+    private String message;
+}
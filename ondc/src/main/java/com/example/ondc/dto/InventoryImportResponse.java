@@ -0,0 +1,20 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class InventoryImportResponse {
+    private Long vendorId;
+    private Long rowsRead;
+    private Long inserted;
+    private Long updated;
+    private Long failed;
+    private Long durationMs;
+    private Double rowsPerSecond;
+    private List<ImportRowError> errors;
+    /** true when more rows failed than are listed in errors. */
+    private Boolean errorsTruncated;
+}
@@ -18,5 +18,9 @@ public class InventoryRequest {
     @PositiveOrZero(message = "Total stock cannot be negative")
     private Integer totalStock;
 
+    /** Pins the row's reorder level: the demand forecaster no longer changes it. */
     private Integer reorderLevel;
+
+    /** true hands the reorder level back to the demand forecaster, false pins the current one. */
+    private Boolean forecastReorderLevel;
 }
@@ -17,6 +17,12 @@ public class InventoryResponse {
     private Integer reservedStock;
     private Integer availableStock;
     private Integer reorderLevel;
+    /** The reorder level was set by hand and is left alone by the demand forecaster. */
+    private Boolean reorderLevelManual;
     private Boolean isLowStock;
     private LocalDateTime lastSyncedAt;
+    /** Forecast demand (units/day) — null until the row has seen orders or forecasting is off. */
+    private Double demandPerDay;
+    /** Days the available stock lasts at the forecast rate. */
+    private Double daysOfCover;
 }
@@ -0,0 +1,18 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class InventorySyncResponse {
+    private Long vendorId;
+    private Long sellerAppId;
+    private Long fromSeq;
+    private Long toSeq;
+    private Boolean changed;
+    private List<InventoryResponse> items;
+    private LocalDateTime syncedAt;
+}
@@ -0,0 +1,19 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class LowStockAlert {
+    private Long inventoryId;
+    private Long vendorId;
+    private Long productId;
+    private Long outletId;
+    private Integer availableStock;
+    private Integer reorderLevel;
+    /** true when the row dropped to its reorder level, false when it recovered. */
+    private Boolean lowStock;
+    private LocalDateTime raisedAt;
+}
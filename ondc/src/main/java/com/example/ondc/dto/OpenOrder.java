@@ -0,0 +1,21 @@
+package com.example.ondc.dto;
+
+import com.example.ondc.enums.OrderPriority;
+import com.example.ondc.enums.OrderStatus;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Scheduling fields of one open order, read without loading the entity graph.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OpenOrder {
+    private Long orderId;
+    private Long vendorId;
+    private Long outletId;
+    private OrderPriority priority;
+    private OrderStatus status;
+    private LocalDateTime createdAt;
+}
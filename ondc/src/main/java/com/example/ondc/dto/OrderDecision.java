@@ -0,0 +1,19 @@
+package com.example.ondc.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderDecision {
+    @NotNull(message = "Order ID is required")
+    private Long orderId;
+
+    /** true to accept, false to reject. */
+    @NotNull(message = "Accept flag is required")
+    private Boolean accept;
+
+    /** Rejection reason — ignored when accepting. */
+    private String reason;
+}
@@ -0,0 +1,15 @@
+package com.example.ondc.dto;
+
+import com.example.ondc.enums.OrderStatus;
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderDecisionResult {
+    private Long orderId;
+    private Boolean success;
+    /** The order's status after the batch (unchanged on failure). */
+    private OrderStatus status;
+    private String message;
+}
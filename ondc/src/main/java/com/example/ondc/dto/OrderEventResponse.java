@@ -0,0 +1,20 @@
+package com.example.ondc.dto;
+
+import com.example.ondc.enums.OrderEventType;
+import com.example.ondc.enums.OrderStatus;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderEventResponse {
+    private Long id;
+    private Long orderId;
+    private OrderEventType type;
+    private OrderStatus fromStatus;
+    private OrderStatus toStatus;
+    private Long outletId;
+    private String reason;
+    private LocalDateTime occurredAt;
+}
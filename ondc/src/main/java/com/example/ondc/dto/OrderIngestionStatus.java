@@ -0,0 +1,16 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderIngestionStatus {
+    private String ondcOrderId;
+    /** QUEUED, PERSISTED or FAILED. */
+    private String state;
+    /** Set once the order is persisted. */
+    private Long orderId;
+    private String message;
+    private Integer queueDepth;
+}
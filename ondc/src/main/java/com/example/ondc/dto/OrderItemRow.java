@@ -0,0 +1,20 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+
+/**
+ * One order item with its product's display fields, read without loading the entity graph.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderItemRow {
+    private Long orderId;
+    private Long id;
+    private Long productId;
+    private String productName;
+    private String productSku;
+    private Integer requestedQty;
+    private Integer fulfilledQty;
+    private Double unitPrice;
+}
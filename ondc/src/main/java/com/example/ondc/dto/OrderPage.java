@@ -0,0 +1,13 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderPage {
+    private List<OrderResponse> items;
+    /** Pass back as ?cursor= for the next page; absent on the last page. */
+    private String nextCursor;
+}
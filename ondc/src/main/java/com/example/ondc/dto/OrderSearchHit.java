@@ -0,0 +1,22 @@
+package com.example.ondc.dto;
+
+import com.example.ondc.enums.OrderStatus;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Searchable fields of one order, as indexed and as returned by order search.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderSearchHit {
+    private Long orderId;
+    private Long vendorId;
+    private String ondcOrderId;
+    private String customerName;
+    private String customerPhone;
+    private String deliveryPincode;
+    private OrderStatus status;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.example.ondc.dto;
+
+import com.example.ondc.enums.OrderStatus;
+import lombok.*;
+
+/**
+ * Order search parameters. Text fields match by prefix (customerName per
+ * word) and all given fields must match; vendorId and status narrow further.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderSearchRequest {
+    private String customerPhone;
+    private String deliveryPincode;
+    private String ondcOrderId;
+    private String customerName;
+    private Long vendorId;
+    private OrderStatus status;
+    @Builder.Default
+    private Integer limit = 20;
+}
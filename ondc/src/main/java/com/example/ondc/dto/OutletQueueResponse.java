@@ -0,0 +1,14 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OutletQueueResponse {
+    private Long outletId;
+    /** Accepted orders waiting for dispatch. */
+    private Integer size;
+    private List<Long> orderIds;
+}
@@ -0,0 +1,15 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+
+/**
+ * One (product, outlet, quantity) line of a multi-item reservation.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ReservationLine {
+    private Long productId;
+    private Long outletId;
+    private Integer quantity;
+}
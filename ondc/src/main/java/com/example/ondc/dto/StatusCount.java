@@ -0,0 +1,16 @@
+package com.example.ondc.dto;
+
+import com.example.ondc.enums.OrderStatus;
+import lombok.*;
+
+/**
+ * Number of a vendor's orders in one status.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class StatusCount {
+    private Long vendorId;
+    private OrderStatus status;
+    private Long count;
+}
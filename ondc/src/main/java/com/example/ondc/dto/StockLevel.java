@@ -0,0 +1,20 @@
+package com.example.ondc.dto;
+
+import lombok.*;
+
+/**
+ * Flat stock figures of one inventory row, read without loading the entity graph.
+ */
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class StockLevel {
+    private Long inventoryId;
+    private Long productId;
+    private Long outletId;
+    private Long vendorId;
+    private Integer totalStock;
+    private Integer reservedStock;
+    private Integer reorderLevel;
+    private Long changeSeq;
+}
@@ -22,4 +22,9 @@ public class VendorRequest {
     private String businessName;
 
     private String address;
+
+    private Boolean autoDecisionEnabled;
+    private Double autoAcceptMaxLoad;
+    private Double autoRejectMinLoad;
+    private Double minPartialFillRatio;
 }
@@ -18,5 +18,9 @@ public class VendorResponse {
     private Integer successfulOrders;
     private Integer cancelledOrders;
     private Boolean isActive;
+    private Boolean autoDecisionEnabled;
+    private Double autoAcceptMaxLoad;
+    private Double autoRejectMinLoad;
+    private Double minPartialFillRatio;
     private LocalDateTime createdAt;
 }
@@ -0,0 +1,68 @@
+package com.example.ondc.entity;
+
+import com.example.ondc.enums.FulfillmentType;
+import com.example.ondc.enums.OrderPriority;
+import com.example.ondc.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A terminal order moved out of the hot orders table. Keeps the original id
+ * and ondcOrderId; vendor, outlet and seller app names are copied in, so an
+ * archived order reads without joins and survives later renames.
+ */
+@Entity
+@Table(name = "orders_archive",
+       indexes = @Index(name = "idx_orders_archive_vendor_created", columnList = "vendor_id, created_at, id"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String ondcOrderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderPriority priority;
+
+    @Enumerated(EnumType.STRING)
+    private FulfillmentType fulfillmentType;
+
+    @Column(nullable = false)
+    private Double totalAmount;
+
+    private String customerName;
+    private String customerPhone;
+    private String deliveryAddress;
+    private String deliveryPincode;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+
+    private String vendorName;
+
+    private Long outletId;
+    private String outletName;
+
+    private Long sellerAppId;
+    private String sellerAppName;
+
+    private String rejectionReason;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime fulfilledAt;
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
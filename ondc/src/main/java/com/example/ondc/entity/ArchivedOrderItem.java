@@ -0,0 +1,37 @@
+package com.example.ondc.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * An item of an {@link ArchivedOrder}, with the product's name and sku as
+ * they were when the order was archived.
+ */
+@Entity
+@Table(name = "order_items_archive",
+       indexes = @Index(name = "idx_order_items_archive_order", columnList = "order_id"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ArchivedOrderItem {
+
+    @Id
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    private String productName;
+    private String productSku;
+
+    @Column(nullable = false)
+    private Integer requestedQty;
+
+    private Integer fulfilledQty;
+
+    @Column(nullable = false)
+    private Double unitPrice;
+}
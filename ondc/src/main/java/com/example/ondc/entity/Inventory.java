@@ -2,11 +2,14 @@ package com.example.ondc.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "inventory",
-       uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "outlet_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "outlet_id"}),
+       indexes = @Index(name = "idx_inventory_change_seq", columnList = "change_seq"))
+@EntityListeners(InventoryChangeListener.class)
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -35,6 +38,14 @@ public class Inventory {
     @Builder.Default
     private Integer reorderLevel = 10;
 
+    /**
+     * Set when the reorder level was given by hand — the demand forecaster then leaves it alone.
+     */
+    @Column(name = "reorder_level_manual")
+    @ColumnDefault("false")
+    @Builder.Default
+    private Boolean reorderLevelManual = false;
+
     @Builder.Default
     private LocalDateTime lastSyncedAt = LocalDateTime.now();
 
@@ -43,6 +54,22 @@ public class Inventory {
 
     private LocalDateTime updatedAt;
 
+    /**
+     * Optimistic lock for read-modify-write paths.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long version = 0L;
+
+    /**
+     * Global change sequence stamped on every write — the watermark for delta sync.
+     */
+    @Column(name = "change_seq")
+    @ColumnDefault("0")
+    @Builder.Default
+    private Long changeSeq = 0L;
+
     /**
      * Available stock = total - reserved.
      * This is the inventory authority — single source of truth.
@@ -0,0 +1,28 @@
+package com.example.ondc.entity;
+
+import com.example.ondc.service.InventoryChangeSequence;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stamps every inserted or updated inventory row with the next change sequence.
+ * Bulk JPQL updates bypass this and stamp the sequence themselves.
+ */
+@Component
+public class InventoryChangeListener {
+
+    // Resolved lazily — the listener is created while the EntityManagerFactory is still being built
+    private final ObjectProvider<InventoryChangeSequence> changeSequence;
+
+    public InventoryChangeListener(ObjectProvider<InventoryChangeSequence> changeSequence) {
+        this.changeSequence = changeSequence;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void stamp(Inventory inventory) {
+        inventory.setChangeSeq(changeSequence.getObject().next());
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.ondc.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * Highest inventory change sequence a seller app has received for a vendor.
+ */
+@Entity
+@Table(name = "inventory_sync_watermarks",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"seller_app_id", "vendor_id"}))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class InventorySyncWatermark {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "seller_app_id", nullable = false)
+    private Long sellerAppId;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Long lastChangeSeq = 0L;
+
+    private LocalDateTime lastSyncedAt;
+}
@@ -5,12 +5,19 @@ import com.example.ondc.enums.OrderPriority;
 import com.example.ondc.enums.OrderStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@DynamicUpdate
+@Table(name = "orders",
+       indexes = {
+           @Index(name = "idx_orders_created", columnList = "created_at, id"),
+           @Index(name = "idx_orders_vendor_created", columnList = "vendor_id, created_at, id"),
+           @Index(name = "idx_orders_vendor_status_created", columnList = "vendor_id, status, created_at, id")
+       })
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
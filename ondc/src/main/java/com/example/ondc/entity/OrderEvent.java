@@ -0,0 +1,51 @@
+package com.example.ondc.entity;
+
+import com.example.ondc.enums.OrderEventType;
+import com.example.ondc.enums.OrderStatus;
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * One entry of the append-only order lifecycle log. Rows are only ever
+ * inserted; plain id columns keep the log independent of the order graph.
+ */
+@Entity
+@Table(name = "order_events",
+       indexes = {
+           @Index(name = "idx_order_event_order", columnList = "order_id, id"),
+           @Index(name = "idx_order_event_vendor", columnList = "vendor_id, id")
+       })
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OrderEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "vendor_id", nullable = false)
+    private Long vendorId;
+
+    private Long outletId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderEventType type;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus fromStatus;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus toStatus;
+
+    private String reason;
+
+    @Column(nullable = false)
+    private LocalDateTime occurredAt;
+}
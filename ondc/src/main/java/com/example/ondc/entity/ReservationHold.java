@@ -0,0 +1,42 @@
+package com.example.ondc.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A time-bounded hold on reserved stock for one order item.
+ * Plain id columns keep expiry a single-table operation.
+ */
+@Entity
+@Table(name = "reservation_holds",
+       indexes = @Index(name = "idx_hold_order", columnList = "order_id"))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ReservationHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    private Long orderItemId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long outletId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
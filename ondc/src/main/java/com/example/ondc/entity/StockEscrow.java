@@ -0,0 +1,40 @@
+package com.example.ondc.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A seller app's private quota of one inventory row's stock.
+ * The quota is already counted in the row's reservedStock, so apps draw on it
+ * without touching the shared row.
+ */
+@Entity
+@Table(name = "stock_escrow",
+       uniqueConstraints = @UniqueConstraint(name = "uk_escrow_row_app",
+               columnNames = {"product_id", "outlet_id", "seller_app_id"}))
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class StockEscrow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "outlet_id", nullable = false)
+    private Long outletId;
+
+    @Column(name = "seller_app_id", nullable = false)
+    private Long sellerAppId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer quota = 0;
+
+    @Builder.Default
+    private LocalDateTime lastUsedAt = LocalDateTime.now();
+}
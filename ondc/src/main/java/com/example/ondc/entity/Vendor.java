@@ -2,6 +2,7 @@ package com.example.ondc.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -47,6 +48,24 @@ public class Vendor {
     @Builder.Default
     private Boolean isActive = true;
 
+    // Auto-decision thresholds (see DecisionEngine); null on old rows means the defaults
+
+    @ColumnDefault("false")
+    @Builder.Default
+    private Boolean autoDecisionEnabled = false;
+
+    /** Auto-accept only while the outlet's load ratio is below this. */
+    @Builder.Default
+    private Double autoAcceptMaxLoad = 0.8;
+
+    /** Auto-reject non-critical orders once the outlet's load ratio reaches this. */
+    @Builder.Default
+    private Double autoRejectMinLoad = 1.0;
+
+    /** Auto-partially-fulfill when at least this share of the units is in stock. */
+    @Builder.Default
+    private Double minPartialFillRatio = 0.5;
+
     @Builder.Default
     private LocalDateTime createdAt = LocalDateTime.now();
 
@@ -0,0 +1,10 @@
+package com.example.ondc.enums;
+
+public enum OrderEventType {
+    CREATED,
+    ACCEPTED,
+    PARTIALLY_FULFILLED,
+    REJECTED,
+    FULFILLED,
+    CANCELLED
+}
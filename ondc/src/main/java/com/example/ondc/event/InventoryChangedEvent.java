@@ -0,0 +1,40 @@
+package com.example.ondc.event;
+
+/**
+ * Published whenever an inventory row's stock or reorder level changes.
+ * Listeners receive it after the change commits (or immediately outside a transaction).
+ *
+ * Most writers know the row's new absolute state; the single-statement atomic
+ * reserve only knows what it added, so it reports a reservedDelta instead.
+ * Demand-driven reorder level updates carry only the new level.
+ *
+ * changeSeq is the change sequence the write stamped on the row, so listeners
+ * can tell a late event from the row's current state. Ledger changes never
+ * reach the row directly and carry 0.
+ */
+public record InventoryChangedEvent(Long productId, Long outletId,
+                                    Integer totalStock, Integer reservedStock,
+                                    Integer reorderLevel, int reservedDelta, long changeSeq) {
+
+    public static InventoryChangedEvent of(Long productId, Long outletId, int totalStock, int reservedStock) {
+        return new InventoryChangedEvent(productId, outletId, totalStock, reservedStock, null, 0, 0);
+    }
+
+    public static InventoryChangedEvent of(Long productId, Long outletId, int totalStock, int reservedStock,
+                                           Integer reorderLevel, long changeSeq) {
+        return new InventoryChangedEvent(productId, outletId, totalStock, reservedStock, reorderLevel, 0, changeSeq);
+    }
+
+    public static InventoryChangedEvent reserved(Long productId, Long outletId, int quantity, long changeSeq) {
+        return new InventoryChangedEvent(productId, outletId, null, null, null, quantity, changeSeq);
+    }
+
+    public static InventoryChangedEvent reorderLevelChanged(Long productId, Long outletId, int reorderLevel,
+                                                            long changeSeq) {
+        return new InventoryChangedEvent(productId, outletId, null, null, reorderLevel, 0, changeSeq);
+    }
+
+    public boolean isAbsolute() {
+        return totalStock != null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.ondc.event;
+
+/**
+ * Published after a bulk write that bypassed per-row events (e.g. a stock import).
+ * Listeners holding derived inventory state should rebuild it.
+ */
+public record InventoryReloadedEvent(Long vendorId) {
+}
@@ -0,0 +1,13 @@
+package com.example.ondc.event;
+
+import com.example.ondc.dto.ReservationLine;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when an order is accepted (fully or partially) with the stock it reserved.
+ * Listeners receive it after the acceptance commits.
+ */
+public record OrderAcceptedEvent(Long orderId, Long vendorId, Long outletId,
+                                 List<ReservationLine> lines, LocalDateTime acceptedAt) {
+}
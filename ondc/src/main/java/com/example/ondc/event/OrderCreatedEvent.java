@@ -0,0 +1,10 @@
+package com.example.ondc.event;
+
+import com.example.ondc.dto.OrderSearchHit;
+
+/**
+ * Published when an order is inserted, carrying its searchable fields.
+ * Listeners receive it after the insert commits.
+ */
+public record OrderCreatedEvent(OrderSearchHit order) {
+}
@@ -0,0 +1,15 @@
+package com.example.ondc.event;
+
+import com.example.ondc.enums.OrderPriority;
+import com.example.ondc.enums.OrderStatus;
+import java.time.LocalDateTime;
+
+/**
+ * Published when an order is created (previousStatus null) or moves to a new
+ * status. Published inside the writing transaction; most listeners receive it
+ * after the change commits.
+ */
+public record OrderStatusChangedEvent(Long orderId, Long vendorId, Long outletId, OrderPriority priority,
+                                      OrderStatus previousStatus, OrderStatus status, String reason,
+                                      LocalDateTime createdAt, LocalDateTime occurredAt) {
+}
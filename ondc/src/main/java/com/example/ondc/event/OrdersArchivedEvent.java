@@ -0,0 +1,11 @@
+package com.example.ondc.event;
+
+import com.example.ondc.dto.OpenOrder;
+import java.util.List;
+
+/**
+ * Published when a batch of terminal orders has been moved to the archive
+ * tables. Listeners receive it after the batch commits.
+ */
+public record OrdersArchivedEvent(List<OpenOrder> orders) {
+}
@@ -0,0 +1,8 @@
+package com.example.ondc.event;
+
+/**
+ * Published when a product's catalog fields (price, sku, name, ...) change.
+ * Listeners receive it after the change commits (or immediately outside a transaction).
+ */
+public record ProductChangedEvent(Long productId) {
+}
@@ -0,0 +1,12 @@
+package com.example.ondc.event;
+
+import java.util.List;
+
+/**
+ * Published inside the expiry transaction once the holds of the given
+ * (ACCEPTED or PARTIALLY_FULFILLED) orders have lapsed and their stock has
+ * been released. The orders are already locked; listeners move them out of
+ * the ready states so nothing dispatches or releases that stock again.
+ */
+public record ReservationHoldsExpiredEvent(List<Long> orderIds) {
+}
@@ -0,0 +1,24 @@
+package com.example.ondc.repository;
+
+import com.example.ondc.dto.StatusCount;
+import com.example.ondc.entity.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+    @Query("SELECT a.id FROM ArchivedOrder a WHERE a.ondcOrderId = :ondcOrderId")
+    Optional<Long> findIdByOndcOrderId(@Param("ondcOrderId") String ondcOrderId);
+
+    @Query("SELECT new com.example.ondc.dto.StatusCount(a.vendorId, a.status, COUNT(a)) " +
+           "FROM ArchivedOrder a GROUP BY a.vendorId, a.status")
+    List<StatusCount> countByVendorAndStatus();
+
+    @Query("SELECT new com.example.ondc.dto.StatusCount(a.vendorId, a.status, COUNT(a)) " +
+           "FROM ArchivedOrder a WHERE a.vendorId = :vendorId GROUP BY a.vendorId, a.status")
+    List<StatusCount> countByStatus(@Param("vendorId") Long vendorId);
+}
@@ -1,10 +1,18 @@
 package com.example.ondc.repository;
 
+import com.example.ondc.dto.StockLevel;
 import com.example.ondc.entity.Inventory;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -21,4 +29,69 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<Inventory> findLowStockByVendorId(@Param("vendorId") Long vendorId);
 
     List<Inventory> findByOutletVendorId(Long vendorId);
+
+    @Query("SELECT COALESCE(MAX(i.changeSeq), 0) FROM Inventory i")
+    long findMaxChangeSeq();
+
+    /**
+     * Rows of a vendor changed after a sync watermark and up to the last committed sequence,
+     * with product and outlet fetched in the same query.
+     */
+    @EntityGraph(attributePaths = {"product", "outlet"})
+    @Query("SELECT i FROM Inventory i WHERE i.changeSeq > :afterSeq AND i.changeSeq <= :upToSeq " +
+           "AND i.outlet.vendor.id = :vendorId ORDER BY i.changeSeq")
+    List<Inventory> findChangedBetween(@Param("vendorId") Long vendorId, @Param("afterSeq") long afterSeq,
+                                       @Param("upToSeq") long upToSeq);
+
+    @Query("SELECT new com.example.ondc.dto.StockLevel(i.id, i.product.id, i.outlet.id, i.outlet.vendor.id, " +
+           "i.totalStock, i.reservedStock, i.reorderLevel, i.changeSeq) FROM Inventory i")
+    List<StockLevel> findAllStockLevels();
+
+    @Query("SELECT new com.example.ondc.dto.StockLevel(i.id, i.product.id, i.outlet.id, i.outlet.vendor.id, " +
+           "i.totalStock, i.reservedStock, i.reorderLevel, i.changeSeq) FROM Inventory i " +
+           "WHERE i.product.id = :productId AND i.outlet.id = :outletId")
+    Optional<StockLevel> findStockLevel(@Param("productId") Long productId, @Param("outletId") Long outletId);
+
+    @Query("SELECT new com.example.ondc.dto.StockLevel(i.id, i.product.id, i.outlet.id, i.outlet.vendor.id, " +
+           "i.totalStock, i.reservedStock, i.reorderLevel, i.changeSeq) FROM Inventory i " +
+           "WHERE i.product.id IN :productIds AND i.outlet.id IN :outletIds")
+    List<StockLevel> findStockLevels(@Param("productIds") Collection<Long> productIds,
+                                     @Param("outletIds") Collection<Long> outletIds);
+
+    @EntityGraph(attributePaths = {"product", "outlet"})
+    List<Inventory> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Lock every row of a basket in one query, always in id order so two
+     * overlapping baskets can never deadlock on each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.product.id IN :productIds AND i.outlet.id IN :outletIds ORDER BY i.id")
+    List<Inventory> findAllForUpdate(@Param("productIds") Collection<Long> productIds,
+                                     @Param("outletIds") Collection<Long> outletIds);
+
+    /**
+     * Reserve in one conditional statement — returns 0 if the row is missing or short of stock.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.reservedStock = i.reservedStock + :quantity, " +
+           "i.version = i.version + 1, i.changeSeq = :changeSeq, i.updatedAt = :now " +
+           "WHERE i.product.id = :productId AND i.outlet.id = :outletId " +
+           "AND (i.totalStock - i.reservedStock) >= :quantity")
+    int reserveIfAvailable(@Param("productId") Long productId, @Param("outletId") Long outletId,
+                           @Param("quantity") int quantity, @Param("changeSeq") long changeSeq,
+                           @Param("now") LocalDateTime now);
+
+    /**
+     * Blind write-back used by the in-memory ledger — no read, one statement per row.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Inventory i SET i.totalStock = :totalStock, i.reservedStock = :reservedStock, " +
+           "i.version = i.version + 1, i.changeSeq = :changeSeq, i.updatedAt = :now " +
+           "WHERE i.product.id = :productId AND i.outlet.id = :outletId")
+    int writeBackStock(@Param("productId") Long productId, @Param("outletId") Long outletId,
+                       @Param("totalStock") int totalStock, @Param("reservedStock") int reservedStock,
+                       @Param("changeSeq") long changeSeq, @Param("now") LocalDateTime now);
 }
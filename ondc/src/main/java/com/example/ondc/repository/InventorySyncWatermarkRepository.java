@@ -0,0 +1,20 @@
+package com.example.ondc.repository;
+
+import com.example.ondc.entity.InventorySyncWatermark;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface InventorySyncWatermarkRepository extends JpaRepository<InventorySyncWatermark, Long> {
+    Optional<InventorySyncWatermark> findBySellerAppIdAndVendorId(Long sellerAppId, Long vendorId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT w FROM InventorySyncWatermark w WHERE w.sellerAppId = :sellerAppId AND w.vendorId = :vendorId")
+    Optional<InventorySyncWatermark> findForUpdate(@Param("sellerAppId") Long sellerAppId,
+                                                  @Param("vendorId") Long vendorId);
+}
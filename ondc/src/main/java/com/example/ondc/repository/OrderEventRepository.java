@@ -0,0 +1,11 @@
+package com.example.ondc.repository;
+
+import com.example.ondc.entity.OrderEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface OrderEventRepository extends JpaRepository<OrderEvent, Long> {
+    List<OrderEvent> findByOrderIdOrderByIdAsc(Long orderId);
+}
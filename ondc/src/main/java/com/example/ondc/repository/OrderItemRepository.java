@@ -1,11 +1,20 @@
 package com.example.ondc.repository;
 
+import com.example.ondc.dto.OrderItemRow;
 import com.example.ondc.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     List<OrderItem> findByOrderId(Long orderId);
+
+    @Query("SELECT new com.example.ondc.dto.OrderItemRow(i.order.id, i.id, p.id, p.name, p.sku, " +
+           "i.requestedQty, i.fulfilledQty, i.unitPrice) " +
+           "FROM OrderItem i JOIN i.product p WHERE i.order.id IN :orderIds ORDER BY i.id")
+    List<OrderItemRow> findRowsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
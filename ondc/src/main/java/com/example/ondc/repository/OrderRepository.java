@@ -1,26 +1,135 @@
 package com.example.ondc.repository;
 
+import com.example.ondc.dto.OpenOrder;
+import com.example.ondc.dto.OrderSearchHit;
+import com.example.ondc.dto.StatusCount;
 import com.example.ondc.entity.Order;
 import com.example.ondc.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     Optional<Order> findByOndcOrderId(String ondcOrderId);
+
+    @EntityGraph(attributePaths = {"items", "items.product", "outlet", "vendor", "sellerApp"})
+    @Query("SELECT DISTINCT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pages, newest first: ids strictly before (createdAt, id)
+
+    @Query("SELECT o.id FROM Order o WHERE o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findPageIds(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable page);
+
+    @Query("SELECT o.id FROM Order o WHERE o.vendor.id = :vendorId " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findPageIdsByVendor(@Param("vendorId") Long vendorId, @Param("createdAt") LocalDateTime createdAt,
+                                   @Param("id") Long id, Pageable page);
+
+    @Query("SELECT o.id FROM Order o WHERE o.vendor.id = :vendorId AND o.status = :status " +
+           "AND (o.createdAt < :createdAt OR (o.createdAt = :createdAt AND o.id < :id)) " +
+           "ORDER BY o.createdAt DESC, o.id DESC")
+    List<Long> findPageIdsByVendorAndStatus(@Param("vendorId") Long vendorId, @Param("status") OrderStatus status,
+                                            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                            Pageable page);
+
+    @EntityGraph(attributePaths = {"outlet", "vendor", "sellerApp"})
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findAllWithReferencesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT o.id FROM Order o WHERE o.ondcOrderId = :ondcOrderId")
+    Optional<Long> findIdByOndcOrderId(@Param("ondcOrderId") String ondcOrderId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Order> findAllForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.outlet.id = :outletId AND o.status IN :statuses AND o.id > :afterId " +
+           "ORDER BY o.id")
+    List<Order> findByOutletForUpdate(@Param("outletId") Long outletId,
+                                      @Param("statuses") Collection<OrderStatus> statuses,
+                                      @Param("afterId") Long afterId, Pageable page);
+
     List<Order> findByVendorId(Long vendorId);
     List<Order> findByVendorIdAndStatus(Long vendorId, OrderStatus status);
     List<Order> findByOutletId(Long outletId);
     List<Order> findBySellerAppId(Long sellerAppId);
 
-    @Query("SELECT o FROM Order o WHERE o.vendor.id = :vendorId ORDER BY " +
+    @Query("SELECT o.id FROM Order o WHERE o.vendor.id = :vendorId AND o.status IN :statuses ORDER BY " +
            "CASE o.priority WHEN 'CRITICAL' THEN 0 WHEN 'HIGH' THEN 1 WHEN 'MEDIUM' THEN 2 ELSE 3 END, " +
            "o.createdAt ASC")
-    List<Order> findByVendorIdOrderByPriority(@Param("vendorId") Long vendorId);
+    List<Long> findIdsByVendorIdOrderByPriority(@Param("vendorId") Long vendorId,
+                                                @Param("statuses") Collection<OrderStatus> statuses, Pageable page);
+
+    @Query("SELECT new com.example.ondc.dto.OpenOrder(o.id, o.vendor.id, o.outlet.id, o.priority, o.status, o.createdAt) " +
+           "FROM Order o WHERE o.status IN :statuses")
+    List<OpenOrder> findOpenOrders(@Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("SELECT new com.example.ondc.dto.OpenOrder(o.id, o.vendor.id, o.outlet.id, o.priority, o.status, o.createdAt) " +
+           "FROM Order o WHERE o.id IN :ids")
+    List<OpenOrder> findSchedulingFieldsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Orders in the given (terminal) statuses untouched since the cutoff, oldest id first.
+     */
+    @Query("SELECT new com.example.ondc.dto.OpenOrder(o.id, o.vendor.id, o.outlet.id, o.priority, o.status, o.createdAt) " +
+           "FROM Order o WHERE o.status IN :statuses AND COALESCE(o.updatedAt, o.createdAt) < :cutoff ORDER BY o.id")
+    List<OpenOrder> findArchivable(@Param("statuses") Collection<OrderStatus> statuses,
+                                   @Param("cutoff") LocalDateTime cutoff, Pageable page);
+
+    /**
+     * Orders not in the given (terminal) statuses, plus any created since the cutoff.
+     */
+    @Query("SELECT new com.example.ondc.dto.OrderSearchHit(o.id, o.vendor.id, o.ondcOrderId, o.customerName, " +
+           "o.customerPhone, o.deliveryPincode, o.status, o.createdAt) " +
+           "FROM Order o WHERE o.status NOT IN :terminal OR o.createdAt >= :cutoff")
+    List<OrderSearchHit> findSearchable(@Param("terminal") Collection<OrderStatus> terminal,
+                                        @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Prefix search over the orders table; a null parameter matches everything.
+     * Patterns are passed with their trailing '%'.
+     */
+    @Query("SELECT new com.example.ondc.dto.OrderSearchHit(o.id, o.vendor.id, o.ondcOrderId, o.customerName, " +
+           "o.customerPhone, o.deliveryPincode, o.status, o.createdAt) " +
+           "FROM Order o WHERE (:phone IS NULL OR o.customerPhone LIKE :phone) " +
+           "AND (:pincode IS NULL OR o.deliveryPincode LIKE :pincode) " +
+           "AND (:ondcOrderId IS NULL OR LOWER(o.ondcOrderId) LIKE :ondcOrderId) " +
+           "AND (:name IS NULL OR LOWER(o.customerName) LIKE :name OR LOWER(o.customerName) LIKE CONCAT('% ', :name)) " +
+           "AND (:vendorId IS NULL OR o.vendor.id = :vendorId) " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "ORDER BY o.id DESC")
+    List<OrderSearchHit> search(@Param("phone") String phone, @Param("pincode") String pincode,
+                                @Param("ondcOrderId") String ondcOrderId, @Param("name") String name,
+                                @Param("vendorId") Long vendorId, @Param("status") OrderStatus status,
+                                Pageable page);
+
+    @Query("SELECT o.id FROM Order o WHERE o.outlet.id = :outletId AND o.status IN :statuses ORDER BY o.id")
+    List<Long> findIdsByOutletAndStatusIn(@Param("outletId") Long outletId,
+                                          @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query("SELECT new com.example.ondc.dto.StatusCount(o.vendor.id, o.status, COUNT(o)) " +
+           "FROM Order o GROUP BY o.vendor.id, o.status")
+    List<StatusCount> countByVendorAndStatus();
+
+    @Query("SELECT new com.example.ondc.dto.StatusCount(o.vendor.id, o.status, COUNT(o)) " +
+           "FROM Order o WHERE o.vendor.id = :vendorId GROUP BY o.vendor.id, o.status")
+    List<StatusCount> countByStatus(@Param("vendorId") Long vendorId);
+
+    long countByVendorId(Long vendorId);
 
     @Query("SELECT COUNT(o) FROM Order o WHERE o.vendor.id = :vendorId AND o.status = :status")
     Long countByVendorIdAndStatus(@Param("vendorId") Long vendorId, @Param("status") OrderStatus status);
@@ -12,4 +12,5 @@ public interface OutletRepository extends JpaRepository<Outlet, Long> {
     List<Outlet> findByVendorIdAndIsActiveTrue(Long vendorId);
     List<Outlet> findByVendorIdAndType(Long vendorId, OutletType type);
     List<Outlet> findByPincode(String pincode);
+    List<Outlet> findByPincodeAndIsActiveTrue(String pincode);
 }
@@ -0,0 +1,24 @@
+package com.example.ondc.repository;
+
+import com.example.ondc.entity.ReservationHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReservationHoldRepository extends JpaRepository<ReservationHold, Long> {
+    List<ReservationHold> findByOrderId(Long orderId);
+    List<ReservationHold> findByOrderIdIn(Collection<Long> orderIds);
+
+    /**
+     * Locking read: sees holds consumed or expired by a transaction that committed meanwhile.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM ReservationHold h WHERE h.orderId IN :orderIds ORDER BY h.id")
+    List<ReservationHold> findByOrderIdInForUpdate(@Param("orderIds") Collection<Long> orderIds);
+}
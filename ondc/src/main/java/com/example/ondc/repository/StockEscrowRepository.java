@@ -0,0 +1,48 @@
+package com.example.ondc.repository;
+
+import com.example.ondc.entity.StockEscrow;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockEscrowRepository extends JpaRepository<StockEscrow, Long> {
+
+    /**
+     * Draw on an app's quota in one conditional statement — returns 0 if it is missing or too small.
+     */
+    @Modifying
+    @Query("UPDATE StockEscrow e SET e.quota = e.quota - :quantity, e.lastUsedAt = :now " +
+           "WHERE e.productId = :productId AND e.outletId = :outletId AND e.sellerAppId = :sellerAppId " +
+           "AND e.quota >= :quantity")
+    int consume(@Param("productId") Long productId, @Param("outletId") Long outletId,
+                @Param("sellerAppId") Long sellerAppId, @Param("quantity") int quantity,
+                @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE StockEscrow e SET e.quota = e.quota + :quantity, e.lastUsedAt = :now " +
+           "WHERE e.productId = :productId AND e.outletId = :outletId AND e.sellerAppId = :sellerAppId")
+    int credit(@Param("productId") Long productId, @Param("outletId") Long outletId,
+               @Param("sellerAppId") Long sellerAppId, @Param("quantity") int quantity,
+               @Param("now") LocalDateTime now);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM StockEscrow e WHERE e.productId = :productId AND e.outletId = :outletId " +
+           "ORDER BY e.id")
+    List<StockEscrow> findAllForUpdate(@Param("productId") Long productId, @Param("outletId") Long outletId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM StockEscrow e WHERE e.productId IN :productIds AND e.outletId IN :outletIds " +
+           "AND e.quota > 0 ORDER BY e.id")
+    List<StockEscrow> findHeldForUpdate(@Param("productIds") Collection<Long> productIds,
+                                        @Param("outletIds") Collection<Long> outletIds);
+
+    List<StockEscrow> findByQuotaGreaterThanAndLastUsedAtBefore(int quota, LocalDateTime cutoff);
+}
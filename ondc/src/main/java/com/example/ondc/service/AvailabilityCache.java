@@ -0,0 +1,194 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.CacheStats;
+import com.example.ondc.dto.InventoryResponse;
+import com.example.ondc.event.InventoryChangedEvent;
+import com.example.ondc.event.InventoryReloadedEvent;
+import com.example.ondc.util.SampledEviction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of inventory lookups keyed by (productId, outletId).
+ *
+ * Entries are dropped when the row's change commits ({@link InventoryChangedEvent})
+ * and all at once on a bulk reload. A missing row is cached too, so probes for
+ * unstocked products do not reach the database either.
+ *
+ * Concurrent misses on one key share a single load, so invalidating a hot key
+ * costs one query rather than one per waiting caller. A load that overlaps an
+ * invalidation of its key is returned but not stored, so a stale read can
+ * never outlive the change that made it stale. The cache is bounded: past
+ * max-size the oldest of a random sample of entries is evicted (see
+ * {@link SampledEviction}), and ttl-ms caps how long a row
+ * changed outside the application can be served stale.
+ */
+@Component
+public class AvailabilityCache {
+
+    private static final int EPOCH_STRIPES = 1024;
+
+    @Value("${ondc.inventory.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ondc.inventory.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${ondc.inventory.cache.ttl-ms:30000}")
+    private long ttlMillis;
+
+    private final Map<RowKey, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<RowKey, CompletableFuture<InventoryResponse>> loading = new ConcurrentHashMap<>();
+    /** Bumped on every invalidation of a key hashing to the stripe. */
+    private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Cached row for (productId, outletId), or null if there is no such row.
+     * The loader returns null for a missing row.
+     */
+    public InventoryResponse get(Long productId, Long outletId, Supplier<InventoryResponse> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        RowKey key = new RowKey(productId, outletId);
+        Entry entry = entries.get(key);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt < ttlMillis) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+
+        CompletableFuture<InventoryResponse> mine = new CompletableFuture<>();
+        CompletableFuture<InventoryResponse> inFlight = loading.putIfAbsent(key, mine);
+        if (inFlight != null) {
+            coalescedLoads.increment();
+            try {
+                return inFlight.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+
+        try {
+            long epoch = epochs.get(stripe(key));
+            InventoryResponse value = loader.get();
+            loads.increment();
+            if (epochs.get(stripe(key)) == epoch) {
+                Entry stored = new Entry(value, System.currentTimeMillis());
+                entries.put(key, stored);
+                // An invalidation between the check and the put bumped the epoch before removing — undo the put
+                if (epochs.get(stripe(key)) != epoch) {
+                    entries.remove(key, stored);
+                } else {
+                    evictIfFull(key);
+                }
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    /**
+     * Available stock from the cache alone — 0 for a cached missing row, null
+     * when the key is not cached (the caller batches those into one query).
+     */
+    public Integer cachedAvailable(Long productId, Long outletId) {
+        if (!enabled) {
+            return null;
+        }
+        Entry entry = entries.get(new RowKey(productId, outletId));
+        if (entry == null || System.currentTimeMillis() - entry.loadedAt >= ttlMillis) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value != null ? entry.value.getAvailableStock() : 0;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (enabled) {
+            invalidate(new RowKey(event.productId(), event.outletId()));
+        }
+    }
+
+    @EventListener
+    public void onInventoryReloaded(InventoryReloadedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < EPOCH_STRIPES; i++) {
+            epochs.incrementAndGet(i);
+        }
+        invalidations.add(entries.size());
+        entries.clear();
+    }
+
+    public CacheStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return CacheStats.builder()
+                .enabled(enabled)
+                .size((long) entries.size())
+                .maxSize((long) maxSize)
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRate(lookups == 0 ? 0.0 : Math.round(hitCount * 10000.0 / lookups) / 10000.0)
+                .loads(loads.sum())
+                .coalescedLoads(coalescedLoads.sum())
+                .invalidations(invalidations.sum())
+                .evictions(evictions.sum())
+                .build();
+    }
+
+    private void invalidate(RowKey key) {
+        epochs.incrementAndGet(stripe(key));
+        if (entries.remove(key) != null) {
+            invalidations.increment();
+        }
+    }
+
+    private void evictIfFull(RowKey stored) {
+        if (entries.size() > maxSize) {
+            evictions.add(SampledEviction.evict(entries, maxSize, stored, Entry::loadedAt));
+        }
+    }
+
+    private static int stripe(RowKey key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h & (EPOCH_STRIPES - 1);
+    }
+
+    private record RowKey(Long productId, Long outletId) {
+    }
+
+    private record Entry(InventoryResponse value, long loadedAt) {
+    }
+}
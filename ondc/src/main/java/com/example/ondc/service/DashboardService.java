@@ -8,13 +8,14 @@ import com.example.ondc.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
 
     private final VendorService vendorService;
-    private final OrderRepository orderRepository;
+    private final OrderReadModels orderReadModels;
     private final InventoryService inventoryService;
     private final OutletRepository outletRepository;
     private final SellerAppRepository sellerAppRepository;
@@ -23,11 +24,13 @@ public class DashboardService {
     public DashboardResponse getVendorDashboard(Long vendorId) {
         var vendor = vendorService.findVendorById(vendorId);
 
-        Long totalOrders = (long) orderRepository.findByVendorId(vendorId).size();
-        Long pendingOrders = orderRepository.countByVendorIdAndStatus(vendorId, OrderStatus.PENDING);
-        Long acceptedOrders = orderRepository.countByVendorIdAndStatus(vendorId, OrderStatus.ACCEPTED);
-        Long fulfilledOrders = orderRepository.countByVendorIdAndStatus(vendorId, OrderStatus.FULFILLED);
-        Long cancelledOrders = orderRepository.countByVendorIdAndStatus(vendorId, OrderStatus.CANCELLED);
+        // Lifetime totals: orders the archiver moved out still count
+        Map<OrderStatus, Long> counts = orderReadModels.lifetimeStatusCounts(vendorId);
+        Long totalOrders = counts.values().stream().mapToLong(Long::longValue).sum();
+        Long pendingOrders = counts.get(OrderStatus.PENDING);
+        Long acceptedOrders = counts.get(OrderStatus.ACCEPTED);
+        Long fulfilledOrders = counts.get(OrderStatus.FULFILLED);
+        Long cancelledOrders = counts.get(OrderStatus.CANCELLED);
 
         List<InventoryResponse> lowStockAlerts = inventoryService.getLowStockByVendor(vendorId);
 
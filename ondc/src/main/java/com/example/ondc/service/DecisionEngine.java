@@ -0,0 +1,181 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.DecisionEngineStats;
+import com.example.ondc.entity.Order;
+import com.example.ondc.entity.Outlet;
+import com.example.ondc.entity.Vendor;
+import com.example.ondc.enums.OrderPriority;
+import com.example.ondc.util.LatencyRecorder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rule-based accept / reject / partial-fulfill decision for a new order.
+ *
+ * Runs entirely in memory on the order as it was just built: stock comes from
+ * the inventory ledger, the outlet stock index or the availability cache,
+ * outlet load and vendor thresholds from the entities already loaded. When
+ * the stock of any item is not known in memory the order is left to the
+ * vendor (MANUAL) rather than queried, so the decision never waits on the
+ * database.
+ *
+ * Rules, in order:
+ * <ul>
+ *   <li>vendor has not opted in, or no outlet assigned → MANUAL</li>
+ *   <li>outlet load ratio at or above autoRejectMinLoad → REJECT (CRITICAL orders excepted)</li>
+ *   <li>every item fully in stock → ACCEPT while load is below autoAcceptMaxLoad
+ *       (always for HIGH / CRITICAL), otherwise MANUAL</li>
+ *   <li>in-stock share of the units at least minPartialFillRatio → PARTIAL, under
+ *       the same load rule</li>
+ *   <li>otherwise → REJECT</li>
+ * </ul>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DecisionEngine {
+
+    private static final double DEFAULT_ACCEPT_MAX_LOAD = 0.8;
+    private static final double DEFAULT_REJECT_MIN_LOAD = 1.0;
+    private static final double DEFAULT_MIN_PARTIAL_FILL = 0.5;
+
+    private final InventoryLedger inventoryLedger;
+    private final OutletStockIndex outletStockIndex;
+    private final AvailabilityCache availabilityCache;
+
+    @Value("${ondc.orders.auto-decision.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ondc.orders.auto-decision.p99-budget-ms:5}")
+    private double budgetMillis;
+
+    private final LatencyRecorder latency = new LatencyRecorder(4096);
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder partial = new LongAdder();
+    private final LongAdder manual = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+
+    public enum Outcome { ACCEPT, REJECT, PARTIAL, MANUAL }
+
+    /**
+     * @param quantities productId -> quantity to fulfill, for PARTIAL only
+     */
+    public record Decision(Outcome outcome, Map<Long, Integer> quantities, String reason) {
+
+        static final Decision MANUAL = new Decision(Outcome.MANUAL, Map.of(), null);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Decision decide(Order order) {
+        if (!enabled) {
+            return Decision.MANUAL;
+        }
+        long start = System.nanoTime();
+        Decision decision = evaluate(order);
+        long elapsed = System.nanoTime() - start;
+        latency.record(elapsed);
+        if (elapsed > budgetMillis * 1_000_000) {
+            overBudget.increment();
+            log.warn("Auto-decision for order {} took {} µs", order.getOndcOrderId(), elapsed / 1000);
+        }
+        switch (decision.outcome()) {
+            case ACCEPT -> accepted.increment();
+            case REJECT -> rejected.increment();
+            case PARTIAL -> partial.increment();
+            case MANUAL -> manual.increment();
+        }
+        return decision;
+    }
+
+    public DecisionEngineStats stats() {
+        return DecisionEngineStats.builder()
+                .enabled(enabled)
+                .decisions(latency.count())
+                .accepted(accepted.sum())
+                .rejected(rejected.sum())
+                .partial(partial.sum())
+                .manual(manual.sum())
+                .p50Micros(latency.percentileNanos(50) / 1000.0)
+                .p99Micros(latency.percentileNanos(99) / 1000.0)
+                .maxMicros(latency.maxNanos() / 1000.0)
+                .overBudget(overBudget.sum())
+                .build();
+    }
+
+    private Decision evaluate(Order order) {
+        Vendor vendor = order.getVendor();
+        Outlet outlet = order.getOutlet();
+        if (!Boolean.TRUE.equals(vendor.getAutoDecisionEnabled()) || outlet == null || order.getItems().isEmpty()) {
+            return Decision.MANUAL;
+        }
+
+        OrderPriority priority = order.getPriority();
+        boolean urgent = priority == OrderPriority.HIGH || priority == OrderPriority.CRITICAL;
+        double load = outlet.getMaxCapacity() != null && outlet.getMaxCapacity() > 0
+                ? (double) (outlet.getCurrentLoad() != null ? outlet.getCurrentLoad() : 0) / outlet.getMaxCapacity()
+                : 1.0;
+        if (load >= orDefault(vendor.getAutoRejectMinLoad(), DEFAULT_REJECT_MIN_LOAD)
+                && priority != OrderPriority.CRITICAL) {
+            return new Decision(Outcome.REJECT, Map.of(), "Outlet at capacity");
+        }
+
+        Map<Long, Integer> requested = new HashMap<>();
+        order.getItems().forEach(item -> requested.merge(item.getProduct().getId(), item.getRequestedQty(), Integer::sum));
+
+        Map<Long, Integer> fillable = new HashMap<>();
+        long requestedUnits = 0;
+        long fillableUnits = 0;
+        for (Map.Entry<Long, Integer> line : requested.entrySet()) {
+            Integer available = available(line.getKey(), outlet.getId());
+            if (available == null) {
+                return Decision.MANUAL;
+            }
+            int quantity = Math.max(0, Math.min(available, line.getValue()));
+            if (quantity > 0) {
+                fillable.put(line.getKey(), quantity);
+            }
+            requestedUnits += line.getValue();
+            fillableUnits += quantity;
+        }
+
+        boolean hasRoom = load < orDefault(vendor.getAutoAcceptMaxLoad(), DEFAULT_ACCEPT_MAX_LOAD);
+        if (fillableUnits == requestedUnits) {
+            return hasRoom || urgent ? new Decision(Outcome.ACCEPT, Map.of(), null) : Decision.MANUAL;
+        }
+        if (fillableUnits > 0 && (double) fillableUnits / requestedUnits
+                >= orDefault(vendor.getMinPartialFillRatio(), DEFAULT_MIN_PARTIAL_FILL)) {
+            return hasRoom || urgent ? new Decision(Outcome.PARTIAL, fillable, null) : Decision.MANUAL;
+        }
+        return new Decision(Outcome.REJECT, Map.of(), "Insufficient stock");
+    }
+
+    /**
+     * Available stock from the first in-memory source that knows the row, or null.
+     */
+    private Integer available(Long productId, Long outletId) {
+        if (inventoryLedger.isEnabled()) {
+            int[] live = inventoryLedger.peek(productId, outletId);
+            if (live != null) {
+                return live[0] - live[1];
+            }
+        }
+        Integer indexed = outletStockIndex.available(productId, outletId);
+        if (indexed != null) {
+            return indexed;
+        }
+        return availabilityCache.cachedAvailable(productId, outletId);
+    }
+
+    private static double orDefault(Double value, double fallback) {
+        return value != null ? value : fallback;
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.ReservationLine;
+import com.example.ondc.event.InventoryChangedEvent;
+import com.example.ondc.event.OrderAcceptedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Streaming demand forecast per (product, outlet) and the reorder levels derived from it.
+ *
+ * Each row keeps one exponentially time-decayed rate — a few fields no matter
+ * how many orders it has seen — updated as accepted orders reserve stock.
+ * Periodically the rates are turned into reorder levels (expected demand over
+ * the replenishment lead time plus a safety margin), one task per vendor on
+ * a small pool, and only levels that moved are written back in a JDBC batch.
+ *
+ * Rates live in memory and warm up again after a restart; until a row has
+ * seen demand it keeps its configured reorder level. A level set by hand
+ * (reorderLevelManual) is never overwritten.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DemandForecaster {
+
+    private static final double MILLIS_PER_DAY = 86_400_000.0;
+
+    private static final String LOCK_SQL =
+            "SELECT product_id, outlet_id, reorder_level_manual FROM inventory " +
+            "WHERE product_id IN (:productIds) AND outlet_id IN (:outletIds) ORDER BY id FOR UPDATE";
+
+    private static final String UPDATE_SQL =
+            "UPDATE inventory SET reorder_level = :reorderLevel, version = version + 1, " +
+            "change_seq = :changeSeq, updated_at = :now " +
+            "WHERE product_id = :productId AND outlet_id = :outletId";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryChangeSequence inventoryChangeSequence;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${ondc.inventory.forecast.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ondc.inventory.forecast.half-life-hours:72}")
+    private double halfLifeHours;
+
+    @Value("${ondc.inventory.forecast.lead-time-hours:24}")
+    private double leadTimeHours;
+
+    /** Standard deviations of lead-time demand held as safety stock (1.65 ≈ 95% service level). */
+    @Value("${ondc.inventory.forecast.safety-factor:1.65}")
+    private double safetyFactor;
+
+    @Value("${ondc.inventory.forecast.min-reorder-level:1}")
+    private int minReorderLevel;
+
+    @Value("${ondc.inventory.forecast.parallelism:4}")
+    private int parallelism;
+
+    private final Map<RowKey, DemandRate> rates = new ConcurrentHashMap<>();
+
+    private ExecutorService pool;
+
+    /** Mean lifetime of an observation in ms: rate decays by 1/e over this span. */
+    private double tauMillis;
+
+    @PostConstruct
+    void init() {
+        tauMillis = halfLifeHours * 3_600_000.0 / Math.log(2);
+        if (enabled) {
+            pool = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+                Thread thread = new Thread(runnable, "demand-forecast");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderAccepted(OrderAcceptedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        long at = event.acceptedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        for (ReservationLine line : event.lines()) {
+            rates.computeIfAbsent(new RowKey(line.getProductId(), line.getOutletId()),
+                            key -> new DemandRate(event.vendorId(), at))
+                    .observe(line.getQuantity(), at, tauMillis);
+        }
+    }
+
+    /**
+     * Forecast demand per day for a row, or null if it has seen no demand.
+     */
+    public Double demandPerDay(Long productId, Long outletId) {
+        DemandRate rate = enabled ? rates.get(new RowKey(productId, outletId)) : null;
+        return rate != null ? rate.perMillis(System.currentTimeMillis(), tauMillis) * MILLIS_PER_DAY : null;
+    }
+
+    /**
+     * Recompute reorder levels, one task per vendor.
+     */
+    @Scheduled(fixedDelayString = "${ondc.inventory.forecast.recompute-ms:300000}",
+               initialDelayString = "${ondc.inventory.forecast.recompute-ms:300000}")
+    public void recomputeReorderLevels() {
+        if (!enabled || rates.isEmpty()) {
+            return;
+        }
+        Map<Long, List<Map.Entry<RowKey, DemandRate>>> byVendor = new HashMap<>();
+        rates.entrySet().forEach(entry ->
+                byVendor.computeIfAbsent(entry.getValue().vendorId, id -> new ArrayList<>()).add(entry));
+
+        long now = System.currentTimeMillis();
+        List<Future<Integer>> tasks = new ArrayList<>(byVendor.size());
+        byVendor.values().forEach(rows -> tasks.add(pool.submit(() -> recompute(rows, now))));
+
+        int changed = 0;
+        for (Future<Integer> task : tasks) {
+            try {
+                changed += task.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.warn("Reorder level recompute failed for a vendor: {}", ex.getMessage());
+            }
+        }
+        if (changed > 0) {
+            log.info("Demand forecast updated {} reorder levels across {} vendors", changed, byVendor.size());
+        }
+    }
+
+    private int recompute(List<Map.Entry<RowKey, DemandRate>> rows, long now) {
+        Map<RowKey, Integer> levels = new HashMap<>();
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> outletIds = new HashSet<>();
+        for (Map.Entry<RowKey, DemandRate> entry : rows) {
+            int level = reorderLevel(entry.getValue().perMillis(now, tauMillis));
+            Integer applied = entry.getValue().appliedLevel;
+            if (applied == null || applied != level) {
+                levels.put(entry.getKey(), level);
+                productIds.add(entry.getKey().productId());
+                outletIds.add(entry.getKey().outletId());
+            }
+        }
+        if (levels.isEmpty()) {
+            return 0;
+        }
+
+        LocalDateTime timestamp = LocalDateTime.now();
+        List<InventoryChangedEvent> events = new ArrayList<>();
+        List<Runnable> commits = new ArrayList<>();
+        // Sequences are taken inside the write's transaction, so they count as in flight until commit
+        Integer written = transactionTemplate.execute(status -> {
+            // Lock the rows first so a level set by hand meanwhile is not overwritten
+            Set<RowKey> manual = new HashSet<>();
+            jdbcTemplate.query(LOCK_SQL,
+                    new MapSqlParameterSource("productIds", productIds).addValue("outletIds", outletIds),
+                    rs -> {
+                        if (rs.getBoolean("reorder_level_manual")) {
+                            manual.add(new RowKey(rs.getLong("product_id"), rs.getLong("outlet_id")));
+                        }
+                    });
+            List<SqlParameterSource> updates = new ArrayList<>();
+            for (Map.Entry<RowKey, DemandRate> entry : rows) {
+                RowKey key = entry.getKey();
+                Integer level = levels.get(key);
+                if (level == null || manual.contains(key)) {
+                    // Not marked applied, so a row handed back to the forecaster picks its level up next run
+                    continue;
+                }
+                long changeSeq = inventoryChangeSequence.next();
+                updates.add(new MapSqlParameterSource()
+                        .addValue("reorderLevel", level)
+                        .addValue("changeSeq", changeSeq)
+                        .addValue("now", timestamp)
+                        .addValue("productId", key.productId())
+                        .addValue("outletId", key.outletId()));
+                events.add(InventoryChangedEvent.reorderLevelChanged(
+                        key.productId(), key.outletId(), level, changeSeq));
+                DemandRate rate = entry.getValue();
+                commits.add(() -> rate.appliedLevel = level);
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates.toArray(new SqlParameterSource[0]));
+            }
+            return updates.size();
+        });
+        if (written == null || written == 0) {
+            return 0;
+        }
+        commits.forEach(Runnable::run);
+        events.forEach(eventPublisher::publishEvent);
+        return written;
+    }
+
+    /**
+     * Expected lead-time demand plus safety stock, treating demand as Poisson
+     * (variance = mean).
+     */
+    private int reorderLevel(double perMillis) {
+        double leadTimeDemand = perMillis * leadTimeHours * 3_600_000.0;
+        double level = leadTimeDemand + safetyFactor * Math.sqrt(leadTimeDemand);
+        return Math.max(minReorderLevel, (int) Math.ceil(level));
+    }
+
+    private record RowKey(Long productId, Long outletId) {
+    }
+
+    /**
+     * Exponentially time-decayed event rate: each unit adds 1/tau and the
+     * total decays by e^(-dt/tau), so the value tracks units per millisecond.
+     */
+    private static final class DemandRate {
+        private final Long vendorId;
+        private double rate;
+        private long updatedAt;
+        private volatile Integer appliedLevel;
+
+        private DemandRate(Long vendorId, long updatedAt) {
+            this.vendorId = vendorId;
+            this.updatedAt = updatedAt;
+        }
+
+        synchronized void observe(int quantity, long at, double tau) {
+            if (at > updatedAt) {
+                rate *= Math.exp(-(at - updatedAt) / tau);
+                updatedAt = at;
+            }
+            rate += quantity / tau;
+        }
+
+        synchronized double perMillis(long now, double tau) {
+            return now > updatedAt ? rate * Math.exp(-(now - updatedAt) / tau) : rate;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.ondc.service;
+
+import com.example.ondc.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Monotonic sequence for inventory changes, resumed from the highest stamped
+ * row at startup. Single-node: every writer must go through this bean.
+ *
+ * Sequences are handed out before the writing transaction commits, so they
+ * become visible out of order. Each one taken inside a transaction stays
+ * in flight until that transaction completes, and {@link #committedSeq()}
+ * stops below the oldest of them — readers never step past a change that
+ * may still show up.
+ */
+@Component
+@RequiredArgsConstructor
+public class InventoryChangeSequence implements SmartInitializingSingleton {
+
+    private final InventoryRepository inventoryRepository;
+
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+
+    private long current;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        synchronized (inFlight) {
+            current = inventoryRepository.findMaxChangeSeq();
+        }
+    }
+
+    public long next() {
+        long seq;
+        synchronized (inFlight) {
+            seq = ++current;
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                return seq;
+            }
+            inFlight.add(seq);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (inFlight) {
+                    inFlight.remove(seq);
+                }
+            }
+        });
+        return seq;
+    }
+
+    /**
+     * Highest sequence below which every change has committed or rolled back.
+     */
+    public long committedSeq() {
+        synchronized (inFlight) {
+            return inFlight.isEmpty() ? current : inFlight.first() - 1;
+        }
+    }
+}
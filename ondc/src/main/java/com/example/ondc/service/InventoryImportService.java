@@ -0,0 +1,378 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.ImportRowError;
+import com.example.ondc.dto.InventoryImportResponse;
+import com.example.ondc.event.InventoryReloadedEvent;
+import com.example.ondc.exception.InvalidOperationException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Streaming bulk stock import.
+ *
+ * Rows are parsed one line at a time and handled in fixed-size chunks: each
+ * chunk resolves its SKUs with one query, finds which (product, outlet) rows
+ * already exist with another, then upserts through two JDBC batches in its own
+ * transaction. Memory stays bounded by the chunk size whatever the file size,
+ * and a bad row — or even a failed chunk — never fails the rest of the load.
+ * Seller app escrow quotas on rewritten rows are reclaimed in the chunk's
+ * transaction, so they can never outgrow the new totals.
+ *
+ * JDBC is used directly so millions of rows never pass through the JPA
+ * persistence context.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final int DEFAULT_REORDER_LEVEL = 10;
+
+    private static final String UPDATE_SQL =
+            "UPDATE inventory SET total_stock = :totalStock, " +
+            "reserved_stock = GREATEST(reserved_stock - :reclaimed, 0), " +
+            "reorder_level = COALESCE(:reorderLevel, reorder_level), " +
+            "reorder_level_manual = CASE WHEN :manual THEN TRUE ELSE reorder_level_manual END, " +
+            "version = version + 1, " +
+            "change_seq = :changeSeq, updated_at = :now, last_synced_at = :now " +
+            "WHERE product_id = :productId AND outlet_id = :outletId";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO inventory (product_id, outlet_id, total_stock, reserved_stock, reorder_level, " +
+            "reorder_level_manual, version, change_seq, created_at, last_synced_at) " +
+            "VALUES (:productId, :outletId, :totalStock, 0, :reorderLevel, :manual, 0, :changeSeq, :now, :now)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VendorService vendorService;
+    private final InventoryChangeSequence inventoryChangeSequence;
+    private final InventoryLedger inventoryLedger;
+    private final StockEscrowService stockEscrowService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${ondc.inventory.import.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Import stock for one vendor from CSV (sku,outletId,totalStock[,reorderLevel],
+     * or any column order under a header row) or NDJSON ({"sku":..,"outletId":..,"totalStock":..,"reorderLevel":..}).
+     */
+    public InventoryImportResponse importStock(Long vendorId, InputStream body, boolean ndjson) throws IOException {
+        vendorService.findVendorById(vendorId);
+        Set<Long> vendorOutlets = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM outlets WHERE vendor_id = :vendorId", Map.of("vendorId", vendorId), Long.class));
+
+        Progress progress = new Progress();
+        long started = System.nanoTime();
+        List<ImportRow> chunk = new ArrayList<>(batchSize);
+        int[] columns = null;
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (lineNo == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1); // byte order mark
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            if (!ndjson && columns == null) {
+                columns = csvColumns(line);
+                if (columns != null) {
+                    continue; // header row
+                }
+                columns = new int[]{0, 1, 2, 3};
+            }
+            progress.read++;
+            try {
+                ImportRow row = ndjson ? parseJson(line, lineNo) : parseCsv(line, lineNo, columns);
+                if (!vendorOutlets.contains(row.outletId)) {
+                    throw new IllegalArgumentException("Outlet " + row.outletId + " does not belong to vendor " + vendorId);
+                }
+                chunk.add(row);
+            } catch (IllegalArgumentException | IOException ex) {
+                progress.fail(lineNo, ex.getMessage());
+            }
+            if (chunk.size() >= batchSize) {
+                flushChunk(vendorId, chunk, progress);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flushChunk(vendorId, chunk, progress);
+        }
+
+        // Per-row events were skipped — let derived views rebuild once
+        eventPublisher.publishEvent(new InventoryReloadedEvent(vendorId));
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Imported stock for vendor {}: {} rows read, {} inserted, {} updated, {} failed in {} ms",
+                vendorId, progress.read, progress.inserted, progress.updated, progress.failed, elapsedMs);
+        return InventoryImportResponse.builder()
+                .vendorId(vendorId)
+                .rowsRead(progress.read)
+                .inserted(progress.inserted)
+                .updated(progress.updated)
+                .failed(progress.failed)
+                .durationMs(elapsedMs)
+                .rowsPerSecond(Math.round(progress.read * 1000.0 / elapsedMs * 10) / 10.0)
+                .errors(progress.errors)
+                .errorsTruncated(progress.failed > progress.errors.size())
+                .build();
+    }
+
+    private void flushChunk(Long vendorId, List<ImportRow> chunk, Progress progress) {
+        ChunkResult result;
+        try {
+            result = transactionTemplate.execute(status -> upsertChunk(vendorId, chunk));
+        } catch (RuntimeException ex) {
+            log.warn("Stock import chunk of {} rows failed: {}", chunk.size(), ex.getMessage());
+            chunk.forEach(row -> progress.fail(row.line, "Batch failed: " + ex.getMessage()));
+            return;
+        }
+        progress.inserted += result.inserted;
+        progress.updated += result.updated.size();
+        result.rejected.forEach(row -> progress.fail(row.line, "Unknown SKU for vendor: " + row.sku));
+
+        if (inventoryLedger.isEnabled()) {
+            result.updated.forEach(row -> inventoryLedger.setTotalIfLoaded(row.productId, row.outletId, row.totalStock));
+        }
+    }
+
+    private ChunkResult upsertChunk(Long vendorId, List<ImportRow> chunk) {
+        ChunkResult result = new ChunkResult();
+
+        // Resolve every SKU of the chunk in one query
+        Set<String> skus = new HashSet<>();
+        chunk.forEach(row -> skus.add(row.sku));
+        Map<String, Long> productIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, sku FROM products WHERE vendor_id = :vendorId AND sku IN (:skus)",
+                new MapSqlParameterSource("vendorId", vendorId).addValue("skus", skus),
+                rs -> {
+                    productIds.put(rs.getString("sku"), rs.getLong("id"));
+                });
+
+        // Later lines for the same (product, outlet) win
+        Map<List<Long>, ImportRow> rows = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            Long productId = productIds.get(row.sku);
+            if (productId == null) {
+                result.rejected.add(row);
+                continue;
+            }
+            row.productId = productId;
+            rows.put(List.of(productId, row.outletId), row);
+        }
+        if (rows.isEmpty()) {
+            return result;
+        }
+
+        Set<Long> chunkProducts = new HashSet<>();
+        Set<Long> chunkOutlets = new HashSet<>();
+        rows.values().forEach(row -> {
+            chunkProducts.add(row.productId);
+            chunkOutlets.add(row.outletId);
+        });
+        // With escrow on, lock the rows first — row then escrow is the lock order
+        boolean reclaimEscrow = stockEscrowService.isEnabled() && !inventoryLedger.isEnabled();
+        Set<List<Long>> existing = new HashSet<>();
+        jdbcTemplate.query("SELECT product_id, outlet_id FROM inventory " +
+                        "WHERE product_id IN (:productIds) AND outlet_id IN (:outletIds)" +
+                        (reclaimEscrow ? " ORDER BY id FOR UPDATE" : ""),
+                new MapSqlParameterSource("productIds", chunkProducts).addValue("outletIds", chunkOutlets),
+                rs -> {
+                    existing.add(List.of(rs.getLong("product_id"), rs.getLong("outlet_id")));
+                });
+        existing.retainAll(rows.keySet());
+        Map<List<Long>, Integer> reclaimed = reclaimEscrow ? stockEscrowService.reclaimAll(existing) : Map.of();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<SqlParameterSource> updates = new ArrayList<>();
+        List<SqlParameterSource> inserts = new ArrayList<>();
+        rows.forEach((key, row) -> {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("productId", row.productId)
+                    .addValue("outletId", row.outletId)
+                    .addValue("totalStock", row.totalStock)
+                    .addValue("changeSeq", inventoryChangeSequence.next())
+                    // A reorder level in the file is set by hand, so the forecaster leaves it alone
+                    .addValue("manual", row.reorderLevel != null)
+                    .addValue("now", now);
+            if (existing.contains(key)) {
+                updates.add(params.addValue("reorderLevel", row.reorderLevel)
+                        .addValue("reclaimed", reclaimed.getOrDefault(key, 0)));
+                result.updated.add(row);
+            } else {
+                inserts.add(params.addValue("reorderLevel",
+                        row.reorderLevel != null ? row.reorderLevel : DEFAULT_REORDER_LEVEL));
+                result.inserted++;
+            }
+        });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates.toArray(new SqlParameterSource[0]));
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, inserts.toArray(new SqlParameterSource[0]));
+        }
+        return result;
+    }
+
+    // --- parsing ---
+
+    /**
+     * Column positions from a CSV header row, or null if the line is data.
+     * A line naming any known column in any cell is a header; data rows
+     * cannot, as outletId and totalStock must be numbers.
+     */
+    private static int[] csvColumns(String line) {
+        String[] cells = splitCsv(line);
+        int[] columns = {-1, -1, -1, -1};
+        boolean header = false;
+        for (int i = 0; i < cells.length; i++) {
+            int column = switch (normalize(cells[i])) {
+                case "sku" -> 0;
+                case "outletid" -> 1;
+                case "totalstock" -> 2;
+                case "reorderlevel" -> 3;
+                default -> -1;
+            };
+            if (column >= 0) {
+                columns[column] = i;
+                header = true;
+            }
+        }
+        if (!header) {
+            return null;
+        }
+        if (columns[0] < 0 || columns[1] < 0 || columns[2] < 0) {
+            throw new InvalidOperationException("CSV header must include sku, outletId and totalStock");
+        }
+        return columns;
+    }
+
+    private static ImportRow parseCsv(String line, long lineNo, int[] columns) {
+        String[] cells = splitCsv(line);
+        return ImportRow.of(lineNo,
+                cell(cells, columns[0]),
+                cell(cells, columns[1]),
+                cell(cells, columns[2]),
+                columns[3] >= 0 ? cell(cells, columns[3]) : null);
+    }
+
+    private ImportRow parseJson(String line, long lineNo) throws IOException {
+        JsonNode node = objectMapper.readTree(line);
+        return ImportRow.of(lineNo,
+                text(node, "sku"),
+                text(node, "outletId"),
+                text(node, "totalStock"),
+                text(node, "reorderLevel"));
+    }
+
+    private static String[] splitCsv(String line) {
+        String[] cells = line.split(",", -1);
+        for (int i = 0; i < cells.length; i++) {
+            String cell = cells[i].trim();
+            if (cell.length() >= 2 && cell.startsWith("\"") && cell.endsWith("\"")) {
+                cell = cell.substring(1, cell.length() - 1);
+            }
+            cells[i] = cell;
+        }
+        return cells;
+    }
+
+    private static String cell(String[] cells, int index) {
+        return index < cells.length ? cells[index] : null;
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String normalize(String header) {
+        return header.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static final class ImportRow {
+        private long line;
+        private String sku;
+        private Long productId;
+        private Long outletId;
+        private int totalStock;
+        private Integer reorderLevel;
+
+        private static ImportRow of(long line, String sku, String outletId, String totalStock, String reorderLevel) {
+            if (sku == null || sku.isBlank()) {
+                throw new IllegalArgumentException("SKU is required");
+            }
+            ImportRow row = new ImportRow();
+            row.line = line;
+            row.sku = sku.trim();
+            row.outletId = parseLong(outletId, "outletId");
+            row.totalStock = parseInt(totalStock, "totalStock");
+            if (row.totalStock < 0) {
+                throw new IllegalArgumentException("Total stock cannot be negative");
+            }
+            row.reorderLevel = reorderLevel == null || reorderLevel.isBlank()
+                    ? null : parseInt(reorderLevel, "reorderLevel");
+            return row;
+        }
+
+        private static long parseLong(String value, String field) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NullPointerException | NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid " + field + ": " + value);
+            }
+        }
+
+        private static int parseInt(String value, String field) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NullPointerException | NumberFormatException ex) {
+                throw new IllegalArgumentException("Invalid " + field + ": " + value);
+            }
+        }
+    }
+
+    private static final class ChunkResult {
+        private long inserted;
+        private final List<ImportRow> updated = new ArrayList<>();
+        private final List<ImportRow> rejected = new ArrayList<>();
+    }
+
+    private static final class Progress {
+        private long read;
+        private long inserted;
+        private long updated;
+        private long failed;
+        private final List<ImportRowError> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowError(line, message));
+            }
+        }
+    }
+}
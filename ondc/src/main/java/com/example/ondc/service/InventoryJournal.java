@@ -0,0 +1,511 @@
+package com.example.ondc.service;
+
+import com.example.ondc.config.SchedulingConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Append-only, memory-mapped journal of every ledger stock change.
+ *
+ * Records are fixed-size deltas (plus one BASE record per row, taken when the
+ * ledger first loads it), so replay is order-independent: a row's state is its
+ * base plus the sum of its deltas. An append reserves its slot in the mapped
+ * segment with an atomic counter and writes it without taking a lock — the
+ * lock is only held to roll over to the next segment — and a scheduled group
+ * fsync forces all of them to disk together. Snapshots fold closed segments
+ * into the materialized state and let them be deleted, keeping replay bounded.
+ *
+ * The journal backs the in-memory ledger, so it is only active when both
+ * ondc.inventory.journal.enabled and ondc.inventory.ledger.enabled are set.
+ */
+@Component
+@Slf4j
+public class InventoryJournal {
+
+    public enum Op { BASE, RESERVE, RELEASE, DEDUCT, SET_TOTAL, UNDO }
+
+    // seq(8) op(1) productId(8) outletId(8) totalDelta(4) reservedDelta(4) timestamp(8) crc(4)
+    private static final int RECORD_SIZE = 45;
+    private static final int CRC_OFFSET = RECORD_SIZE - 4;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+
+    @Value("${ondc.inventory.journal.enabled:false}")
+    private boolean journalEnabled;
+
+    @Value("${ondc.inventory.ledger.enabled:false}")
+    private boolean ledgerEnabled;
+
+    @Value("${ondc.inventory.journal.dir:data/journal}")
+    private String dir;
+
+    @Value("${ondc.inventory.journal.segment-size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${ondc.inventory.journal.snapshot-every-records:1000000}")
+    private long snapshotEveryRecords;
+
+    private boolean enabled;
+    private Path directory;
+
+    private static final ThreadLocal<RecordEncoder> ENCODER = ThreadLocal.withInitial(RecordEncoder::new);
+
+    // Rollover only; appends never take it
+    private final Object lock = new Object();
+    private volatile Segment segment;
+    // Rolled-over segments not yet folded into a snapshot, guarded by lock
+    private final List<Segment> closed = new ArrayList<>();
+
+    // Only touched at startup and by snapshotIfDue, which the scheduler never runs concurrently
+    private final Map<RowKey, RowState> state = new HashMap<>();
+    private final CRC32 crc = new CRC32();
+    private long stateSeq;
+
+    private volatile boolean unsynced;
+    private List<RecoveredRow> recovered = List.of();
+
+    @PostConstruct
+    void open() throws IOException {
+        if (journalEnabled && !ledgerEnabled) {
+            log.warn("Inventory journal requires ondc.inventory.ledger.enabled=true — journal disabled");
+        }
+        enabled = journalEnabled && ledgerEnabled;
+        if (!enabled) {
+            return;
+        }
+
+        directory = Paths.get(dir);
+        Files.createDirectories(directory);
+
+        long started = System.nanoTime();
+        long lastSeq = recover();
+        // Deltas whose BASE never made it to disk cannot be placed — the ledger reloads those rows
+        state.values().removeIf(row -> !row.hasBase);
+        recovered = state.entrySet().stream()
+                .map(e -> new RecoveredRow(e.getKey().productId(), e.getKey().outletId(),
+                        e.getValue().total, e.getValue().reserved))
+                .collect(Collectors.toList());
+
+        stateSeq = lastSeq;
+        compact(lastSeq, copyState());
+        // Segments left after compaction hold no valid record past lastSeq
+        for (Path stale : listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            Files.deleteIfExists(stale);
+        }
+        segment = openSegment(lastSeq + 1);
+
+        log.info("Inventory journal recovered {} rows up to seq {} in {} ms",
+                recovered.size(), lastSeq, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Rows rebuilt from the snapshot and journal tail at startup. Handed out once.
+     */
+    public List<RecoveredRow> takeRecoveredRows() {
+        List<RecoveredRow> rows = recovered;
+        recovered = List.of();
+        return rows;
+    }
+
+    public void append(Op op, Long productId, Long outletId, int totalDelta, int reservedDelta) {
+        if (!enabled) {
+            return;
+        }
+        Segment current = segment;
+        int slot;
+        while ((slot = current.claim()) < 0) {
+            synchronized (lock) {
+                if (segment == current) {
+                    rollSegment();
+                }
+                current = segment;
+            }
+        }
+        // A record's seq is its slot, so seqs stay contiguous within and across segments
+        current.write(slot, ENCODER.get().encode(current.firstSeq + slot, op, productId, outletId,
+                totalDelta, reservedDelta));
+        unsynced = true;
+    }
+
+    /**
+     * Group fsync — one force() covers every record appended since the last run.
+     */
+    @Scheduled(fixedDelayString = "${ondc.inventory.journal.fsync-interval-ms:10}",
+               scheduler = SchedulingConfig.INVENTORY_WRITE_SCHEDULER)
+    public void sync() {
+        if (!enabled || !unsynced) {
+            return;
+        }
+        unsynced = false;
+        List<Segment> targets;
+        synchronized (lock) {
+            targets = new ArrayList<>(closed);
+        }
+        for (Segment s : targets) {
+            s.forceIfPending();
+        }
+        segment.buffer.force();
+    }
+
+    @Scheduled(fixedDelayString = "${ondc.inventory.journal.snapshot-check-ms:60000}")
+    public void snapshotIfDue() {
+        if (!enabled) {
+            return;
+        }
+        Segment current = segment;
+        if (current.firstSeq + current.used() - 1 - stateSeq < snapshotEveryRecords) {
+            return;
+        }
+        List<Segment> sealed;
+        synchronized (lock) {
+            if (segment == current && current.used() > 0) {
+                rollSegment();
+            }
+            sealed = new ArrayList<>(closed);
+        }
+        // Fold every closed segment into the state once the appends that reserved slots in it are written
+        long seq = stateSeq;
+        for (Segment s : sealed) {
+            s.awaitWriters();
+            s.forceIfPending();
+            replay(s.records(), stateSeq, name(SEGMENT_PREFIX, s.firstSeq, SEGMENT_SUFFIX));
+            seq = Math.max(seq, s.firstSeq + s.sealedAt - 1);
+        }
+        stateSeq = seq;
+        synchronized (lock) {
+            closed.removeAll(sealed);
+        }
+        try {
+            compact(seq, copyState());
+        } catch (IOException ex) {
+            log.warn("Inventory journal snapshot at seq {} failed: {}", seq, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (lock) {
+            closed.forEach(s -> s.buffer.force());
+            segment.buffer.force();
+        }
+    }
+
+    // --- recovery ---
+
+    private long recover() throws IOException {
+        long snapshotSeq = loadLatestSnapshot();
+        long lastSeq = snapshotSeq;
+        for (Path file : listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                lastSeq = Math.max(lastSeq, replay(buf, snapshotSeq, file));
+            }
+        }
+        return lastSeq;
+    }
+
+    /**
+     * Apply every intact record past afterSeq and return the highest seq seen.
+     * Appends finish out of order, so an empty or torn slot is skipped rather
+     * than ending the replay — each record stands alone at a fixed offset.
+     */
+    private long replay(ByteBuffer buf, long afterSeq, Object source) {
+        long lastSeq = afterSeq;
+        while (buf.remaining() >= RECORD_SIZE) {
+            int start = buf.position();
+            long seq = buf.getLong();
+            if (seq == 0) {
+                buf.position(start + RECORD_SIZE); // never written
+                continue;
+            }
+            byte op = buf.get();
+            long productId = buf.getLong();
+            long outletId = buf.getLong();
+            int totalDelta = buf.getInt();
+            int reservedDelta = buf.getInt();
+            buf.getLong();
+            int stored = buf.getInt();
+            crc.reset();
+            crc.update(buf.duplicate().position(start).limit(start + CRC_OFFSET));
+            if (stored != (int) crc.getValue() || op < 0 || op >= Op.values().length) {
+                log.warn("Torn journal record at seq {} in {} — skipping it", seq, source);
+                continue;
+            }
+            if (seq > afterSeq) {
+                apply(Op.values()[op], new RowKey(productId, outletId), totalDelta, reservedDelta);
+                lastSeq = Math.max(lastSeq, seq);
+            }
+        }
+        return lastSeq;
+    }
+
+    private long loadLatestSnapshot() throws IOException {
+        List<Path> snapshots = listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        Collections.reverse(snapshots);
+        for (Path file : snapshots) {
+            try (CheckedInputStream checked = new CheckedInputStream(
+                    new BufferedInputStream(Files.newInputStream(file)), new CRC32());
+                 DataInputStream in = new DataInputStream(checked)) {
+                long seq = in.readLong();
+                int count = in.readInt();
+                Map<RowKey, RowState> rows = new HashMap<>(count * 2);
+                for (int i = 0; i < count; i++) {
+                    RowState row = new RowState();
+                    RowKey key = new RowKey(in.readLong(), in.readLong());
+                    row.total = in.readInt();
+                    row.reserved = in.readInt();
+                    row.hasBase = true;
+                    rows.put(key, row);
+                }
+                long expected = checked.getChecksum().getValue();
+                if (in.readLong() != expected) {
+                    log.warn("Corrupt inventory snapshot {}, trying an older one", file);
+                    continue;
+                }
+                state.clear();
+                state.putAll(rows);
+                return seq;
+            } catch (EOFException ex) {
+                log.warn("Truncated inventory snapshot {}, trying an older one", file);
+            }
+        }
+        return 0;
+    }
+
+    // --- snapshots and segments ---
+
+    /**
+     * Write a snapshot covering everything up to seq, then delete the older
+     * snapshots and every segment that only holds records it covers.
+     */
+    private void compact(long seq, Map<RowKey, RowState> rows) throws IOException {
+        Path tmp = directory.resolve(SNAPSHOT_PREFIX + "tmp");
+        try (CheckedOutputStream checked = new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(tmp)), new CRC32());
+             DataOutputStream out = new DataOutputStream(checked)) {
+            out.writeLong(seq);
+            out.writeInt(rows.size());
+            for (Map.Entry<RowKey, RowState> e : rows.entrySet()) {
+                out.writeLong(e.getKey().productId());
+                out.writeLong(e.getKey().outletId());
+                out.writeInt(e.getValue().total);
+                out.writeInt(e.getValue().reserved);
+            }
+            out.flush();
+            out.writeLong(checked.getChecksum().getValue());
+        }
+        Path snapshot = directory.resolve(name(SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX));
+        Files.move(tmp, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (Path old : listFiles(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+            if (!old.equals(snapshot)) {
+                Files.deleteIfExists(old);
+            }
+        }
+        for (Path old : listFiles(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (firstSeq(old, SEGMENT_PREFIX, SEGMENT_SUFFIX) <= seq) {
+                Files.deleteIfExists(old);
+            }
+        }
+    }
+
+    /**
+     * Seal the current segment and start the next one at the seq after its
+     * last reserved slot. Called with lock held; appends still writing into
+     * the sealed segment finish there, and sync() keeps forcing it until they have.
+     */
+    private void rollSegment() {
+        Segment old = segment;
+        int used = old.seal();
+        Segment next;
+        try {
+            next = openSegment(old.firstSeq + used);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open next inventory journal segment", ex);
+        }
+        closed.add(old);
+        segment = next;
+    }
+
+    private Segment openSegment(long firstSeq) throws IOException {
+        Path file = directory.resolve(name(SEGMENT_PREFIX, firstSeq, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return new Segment(firstSeq, channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    (long) segmentSizeMb * 1024 * 1024));
+        }
+    }
+
+    private List<Path> listFiles(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String n = p.getFileName().toString();
+                        return n.startsWith(prefix) && n.endsWith(suffix);
+                    })
+                    .sorted(Comparator.comparingLong(p -> firstSeq(p, prefix, suffix)))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long firstSeq(Path file, String prefix, String suffix) {
+        String n = file.getFileName().toString();
+        return Long.parseLong(n.substring(prefix.length(), n.length() - suffix.length()));
+    }
+
+    private static String name(String prefix, long seq, String suffix) {
+        return String.format("%s%020d%s", prefix, seq, suffix);
+    }
+
+    // --- materialized state ---
+
+    private void apply(Op op, RowKey key, int totalDelta, int reservedDelta) {
+        RowState row = state.computeIfAbsent(key, k -> new RowState());
+        if (op == Op.BASE) {
+            // A row's first load — deltas that raced ahead of it are kept on top
+            if (!row.hasBase) {
+                row.total += totalDelta;
+                row.reserved += reservedDelta;
+                row.hasBase = true;
+            }
+            return;
+        }
+        row.total += totalDelta;
+        row.reserved += reservedDelta;
+    }
+
+    private Map<RowKey, RowState> copyState() {
+        Map<RowKey, RowState> copy = new HashMap<>(state.size() * 2);
+        state.forEach((key, row) -> {
+            if (row.hasBase) {
+                RowState c = new RowState();
+                c.total = row.total;
+                c.reserved = row.reserved;
+                c.hasBase = true;
+                copy.put(key, c);
+            }
+        });
+        return copy;
+    }
+
+    public record RecoveredRow(Long productId, Long outletId, int totalStock, int reservedStock) {
+    }
+
+    private record RowKey(long productId, long outletId) {
+    }
+
+    /**
+     * One mapped segment file. Slots are reserved with claimed and counted off
+     * with written, so a sealed segment knows when its last append has landed.
+     */
+    private static final class Segment {
+        private final long firstSeq;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private final AtomicInteger claimed = new AtomicInteger();
+        private final AtomicInteger written = new AtomicInteger();
+        private volatile int sealedAt = -1;
+        private volatile boolean forced;
+
+        private Segment(long firstSeq, MappedByteBuffer buffer) {
+            this.firstSeq = firstSeq;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity() / RECORD_SIZE;
+        }
+
+        /** Next free slot, or -1 once the segment is full or sealed. */
+        int claim() {
+            int slot = claimed.getAndIncrement();
+            return slot < capacity ? slot : -1;
+        }
+
+        void write(int slot, byte[] record) {
+            buffer.put(slot * RECORD_SIZE, record, 0, RECORD_SIZE);
+            written.incrementAndGet();
+        }
+
+        int used() {
+            return Math.min(claimed.get(), capacity);
+        }
+
+        /** Stop handing out slots and return how many were reserved. */
+        int seal() {
+            sealedAt = Math.min(claimed.getAndSet(capacity), capacity);
+            return sealedAt;
+        }
+
+        void awaitWriters() {
+            while (written.get() < sealedAt) {
+                Thread.onSpinWait();
+            }
+        }
+
+        /** Force a sealed segment until a force has run after its last append. */
+        void forceIfPending() {
+            if (forced) {
+                return;
+            }
+            boolean complete = written.get() >= sealedAt;
+            buffer.force();
+            forced = complete;
+        }
+
+        ByteBuffer records() {
+            return buffer.duplicate().position(0).limit(sealedAt * RECORD_SIZE);
+        }
+    }
+
+    /**
+     * Per-thread scratch record, so appends encode and checksum without sharing state.
+     */
+    private static final class RecordEncoder {
+        private final byte[] bytes = new byte[RECORD_SIZE];
+        private final ByteBuffer buf = ByteBuffer.wrap(bytes);
+        private final CRC32 crc = new CRC32();
+
+        byte[] encode(long seq, Op op, long productId, long outletId, int totalDelta, int reservedDelta) {
+            buf.clear();
+            buf.putLong(seq)
+                    .put((byte) op.ordinal())
+                    .putLong(productId)
+                    .putLong(outletId)
+                    .putInt(totalDelta)
+                    .putInt(reservedDelta)
+                    .putLong(System.currentTimeMillis());
+            crc.reset();
+            crc.update(bytes, 0, CRC_OFFSET);
+            buf.putInt((int) crc.getValue());
+            return bytes;
+        }
+    }
+
+    private static final class RowState {
+        private int total;
+        private int reserved;
+        private boolean hasBase;
+    }
+}
@@ -0,0 +1,411 @@
+package com.example.ondc.service;
+
+import com.example.ondc.config.SchedulingConfig;
+import com.example.ondc.dto.ReservationLine;
+import com.example.ondc.entity.Inventory;
+import com.example.ondc.event.InventoryChangedEvent;
+import com.example.ondc.exception.InsufficientStockException;
+import com.example.ondc.exception.ResourceNotFoundException;
+import com.example.ondc.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory stock ledger keyed by (productId, outletId).
+ *
+ * Each row is a single AtomicLong packing totalStock (high 32 bits) and
+ * reservedStock (low 32 bits), so reserve / release / deduct are one CAS
+ * with no locks. Rows are spread over independent shards so unrelated SKUs
+ * never touch the same map, and changed rows are written back to the
+ * inventory table asynchronously by {@link #flush()}.
+ *
+ * With ondc.inventory.journal.enabled every change is also journaled (see
+ * {@link InventoryJournal}) and the ledger is rebuilt from it on startup.
+ *
+ * Enable with ondc.inventory.ledger.enabled=true (single-node deployments only —
+ * the ledger is the authority for stock while the mode is on).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryLedger {
+
+    private static final int SHARD_COUNT = 64;
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryJournal inventoryJournal;
+    private final InventoryChangeSequence inventoryChangeSequence;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${ondc.inventory.ledger.enabled:false}")
+    private boolean enabled;
+
+    private final Shard[] shards = createShards();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Seed cells from the journal instead of the inventory table after a restart.
+     * Primed rows are marked dirty so the table catches up with anything it missed.
+     */
+    @PostConstruct
+    void primeFromJournal() {
+        if (!enabled || !inventoryJournal.isEnabled()) {
+            return;
+        }
+        for (InventoryJournal.RecoveredRow row : inventoryJournal.takeRecoveredRows()) {
+            StockKey key = new StockKey(row.productId(), row.outletId());
+            shard(key).cells.put(key, new StockCell(pack(row.totalStock(), row.reservedStock())));
+            markDirty(key);
+        }
+    }
+
+    /**
+     * Reserve stock with a CAS loop. Throws InsufficientStockException without
+     * touching the row if available stock is short.
+     */
+    public void reserve(Long productId, Long outletId, int quantity) {
+        StockKey key = new StockKey(productId, outletId);
+        StockCell cell = cell(key);
+        long updated;
+        while (true) {
+            long state = cell.state.get();
+            int total = total(state);
+            int reserved = reserved(state);
+            if (total - reserved < quantity) {
+                throw new InsufficientStockException(
+                        "Insufficient stock for product " + productId +
+                        ". Available: " + (total - reserved) +
+                        ", Requested: " + quantity);
+            }
+            updated = pack(total, reserved + quantity);
+            if (cell.state.compareAndSet(state, updated)) {
+                break;
+            }
+        }
+        markDirty(key);
+        inventoryJournal.append(InventoryJournal.Op.RESERVE, productId, outletId, 0, quantity);
+        publishChange(key, updated);
+        onRollback(() -> adjust(key, 0, -quantity));
+    }
+
+    /**
+     * Reserve a whole basket — either every line is reserved or none is.
+     * Lines are applied in the given order and undone if a later one is short.
+     */
+    public void reserveAll(List<ReservationLine> lines) {
+        List<ReservationLine> applied = new ArrayList<>(lines.size());
+        try {
+            for (ReservationLine line : lines) {
+                reserve(line.getProductId(), line.getOutletId(), line.getQuantity());
+                applied.add(line);
+            }
+        } catch (RuntimeException ex) {
+            for (ReservationLine line : applied) {
+                release(line.getProductId(), line.getOutletId(), line.getQuantity());
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Release reserved stock, never dropping below zero.
+     */
+    public void release(Long productId, Long outletId, int quantity) {
+        StockKey key = new StockKey(productId, outletId);
+        StockCell cell = cell(key);
+        int released;
+        long updated;
+        while (true) {
+            long state = cell.state.get();
+            int total = total(state);
+            int reserved = reserved(state);
+            released = Math.min(reserved, quantity);
+            updated = pack(total, reserved - released);
+            if (cell.state.compareAndSet(state, updated)) {
+                break;
+            }
+        }
+        markDirty(key);
+        inventoryJournal.append(InventoryJournal.Op.RELEASE, productId, outletId, 0, -released);
+        publishChange(key, updated);
+        int undo = released;
+        onRollback(() -> adjust(key, 0, undo));
+    }
+
+    /**
+     * Deduct fulfilled stock — reduces both total and reserved, never below zero.
+     */
+    public void deduct(Long productId, Long outletId, int quantity) {
+        StockKey key = new StockKey(productId, outletId);
+        StockCell cell = cell(key);
+        int deductedTotal;
+        int deductedReserved;
+        long updated;
+        while (true) {
+            long state = cell.state.get();
+            int total = total(state);
+            int reserved = reserved(state);
+            deductedTotal = Math.min(total, quantity);
+            deductedReserved = Math.min(reserved, quantity);
+            updated = pack(total - deductedTotal, reserved - deductedReserved);
+            if (cell.state.compareAndSet(state, updated)) {
+                break;
+            }
+        }
+        markDirty(key);
+        inventoryJournal.append(InventoryJournal.Op.DEDUCT, productId, outletId, -deductedTotal, -deductedReserved);
+        publishChange(key, updated);
+        int undoTotal = deductedTotal;
+        int undoReserved = deductedReserved;
+        onRollback(() -> adjust(key, undoTotal, undoReserved));
+    }
+
+    /**
+     * Replace the total stock of a row (restock / manual correction), keeping reservations.
+     * Returns the reserved stock the row holds after the update.
+     */
+    public int setTotal(Inventory inventory, int totalStock) {
+        StockKey key = new StockKey(inventory.getProduct().getId(), inventory.getOutlet().getId());
+        StockCell cell = shard(key).cells.get(key);
+        if (cell == null) {
+            cell = load(key, inventory);
+        }
+        int previousTotal;
+        int reserved;
+        while (true) {
+            long state = cell.state.get();
+            previousTotal = total(state);
+            reserved = reserved(state);
+            if (cell.state.compareAndSet(state, pack(totalStock, reserved))) {
+                break;
+            }
+        }
+        markDirty(key);
+        inventoryJournal.append(InventoryJournal.Op.SET_TOTAL, key.productId(), key.outletId(),
+                totalStock - previousTotal, 0);
+        int undo = previousTotal - totalStock;
+        onRollback(() -> adjust(key, undo, 0));
+        return reserved;
+    }
+
+    /**
+     * Apply a total written to the table behind the ledger's back (bulk import).
+     * Rows the ledger has not loaded yet will pick the new value up from the table.
+     */
+    public void setTotalIfLoaded(Long productId, Long outletId, int totalStock) {
+        StockKey key = new StockKey(productId, outletId);
+        StockCell cell = shard(key).cells.get(key);
+        if (cell == null) {
+            return;
+        }
+        int previousTotal;
+        long updated;
+        while (true) {
+            long state = cell.state.get();
+            previousTotal = total(state);
+            updated = pack(totalStock, reserved(state));
+            if (cell.state.compareAndSet(state, updated)) {
+                break;
+            }
+        }
+        markDirty(key);
+        inventoryJournal.append(InventoryJournal.Op.SET_TOTAL, productId, outletId, totalStock - previousTotal, 0);
+        int undo = previousTotal - totalStock;
+        onRollback(() -> adjust(key, undo, 0));
+    }
+
+    public boolean hasAvailable(Long productId, Long outletId, int quantity) {
+        StockKey key = new StockKey(productId, outletId);
+        StockCell cell = shard(key).cells.get(key);
+        if (cell == null) {
+            Inventory inventory = inventoryRepository.findByProductIdAndOutletId(productId, outletId)
+                    .orElse(null);
+            if (inventory == null) {
+                return false;
+            }
+            cell = load(key, inventory);
+        }
+        long state = cell.state.get();
+        return total(state) - reserved(state) >= quantity;
+    }
+
+    /**
+     * Current ledger view of a row as {total, reserved}, or null if the row is not loaded.
+     */
+    public int[] peek(Long productId, Long outletId) {
+        StockKey key = new StockKey(productId, outletId);
+        StockCell cell = shard(key).cells.get(key);
+        if (cell == null) {
+            return null;
+        }
+        long state = cell.state.get();
+        return new int[]{total(state), reserved(state)};
+    }
+
+    /**
+     * Write-behind: push every dirty row back to the inventory table with one
+     * blind UPDATE each. Rows that fail are re-marked dirty for the next run.
+     */
+    @Scheduled(fixedDelayString = "${ondc.inventory.ledger.flush-interval-ms:200}",
+               scheduler = SchedulingConfig.INVENTORY_WRITE_SCHEDULER)
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (Shard shard : shards) {
+            if (shard.dirty.isEmpty()) {
+                continue;
+            }
+            List<StockKey> keys = new ArrayList<>(shard.dirty);
+            for (StockKey key : keys) {
+                shard.dirty.remove(key);
+                long state = shard.cells.get(key).state.get();
+                try {
+                    // Sequence taken inside the write's transaction, so it counts as in flight until commit
+                    transactionTemplate.executeWithoutResult(status -> inventoryRepository.writeBackStock(
+                            key.productId(), key.outletId(), total(state), reserved(state),
+                            inventoryChangeSequence.next(), now));
+                } catch (RuntimeException ex) {
+                    log.warn("Ledger write-back failed for product {} at outlet {}: {}",
+                            key.productId(), key.outletId(), ex.getMessage());
+                    shard.dirty.add(key);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private StockCell cell(StockKey key) {
+        StockCell cell = shard(key).cells.get(key);
+        if (cell != null) {
+            return cell;
+        }
+        // Load outside computeIfAbsent so the DB call never holds a map bin
+        Inventory inventory = inventoryRepository.findByProductIdAndOutletId(key.productId(), key.outletId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Inventory not found for product " + key.productId() + " at outlet " + key.outletId()));
+        return load(key, inventory);
+    }
+
+    private StockCell load(StockKey key, Inventory inventory) {
+        StockCell loaded = new StockCell(pack(inventory.getTotalStock(), inventory.getReservedStock()));
+        StockCell existing = shard(key).cells.putIfAbsent(key, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        inventoryJournal.append(InventoryJournal.Op.BASE, key.productId(), key.outletId(),
+                inventory.getTotalStock(), inventory.getReservedStock());
+        return loaded;
+    }
+
+    private void adjust(StockKey key, int totalDelta, int reservedDelta) {
+        StockCell cell = shard(key).cells.get(key);
+        while (true) {
+            long state = cell.state.get();
+            if (cell.state.compareAndSet(state,
+                    pack(total(state) + totalDelta, reserved(state) + reservedDelta))) {
+                break;
+            }
+        }
+        markDirty(key);
+        inventoryJournal.append(InventoryJournal.Op.UNDO, key.productId(), key.outletId(), totalDelta, reservedDelta);
+    }
+
+    /**
+     * Rollback undos deliberately do not publish: listeners only ever see
+     * changes whose transaction committed, so there is nothing to take back.
+     */
+    private void publishChange(StockKey key, long state) {
+        eventPublisher.publishEvent(InventoryChangedEvent.of(
+                key.productId(), key.outletId(), total(state), reserved(state)));
+    }
+
+    private void markDirty(StockKey key) {
+        shard(key).dirty.add(key);
+    }
+
+    /**
+     * Ledger updates are not transactional, so undo them if the surrounding
+     * transaction (e.g. a multi-item acceptOrder) rolls back.
+     */
+    private void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    private Shard shard(StockKey key) {
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return shards[h & (SHARD_COUNT - 1)];
+    }
+
+    private static Shard[] createShards() {
+        Shard[] shards = new Shard[SHARD_COUNT];
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            shards[i] = new Shard();
+        }
+        return shards;
+    }
+
+    private static long pack(int total, int reserved) {
+        return ((long) total << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int total(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int reserved(long state) {
+        return (int) state;
+    }
+
+    private record StockKey(Long productId, Long outletId) {
+    }
+
+    private static final class StockCell {
+        private final AtomicLong state;
+
+        private StockCell(long initial) {
+            this.state = new AtomicLong(initial);
+        }
+    }
+
+    private static final class Shard {
+        private final Map<StockKey, StockCell> cells = new ConcurrentHashMap<>();
+        private final Set<StockKey> dirty = ConcurrentHashMap.newKeySet();
+    }
+}
@@ -1,18 +1,49 @@
 package com.example.ondc.service;
 
+import com.example.ondc.dto.AvailabilityLine;
+import com.example.ondc.dto.AvailabilityRequest;
+import com.example.ondc.dto.AvailabilityResponse;
+import com.example.ondc.dto.AvailabilityResult;
+import com.example.ondc.dto.BasketReservation;
 import com.example.ondc.dto.InventoryRequest;
 import com.example.ondc.dto.InventoryResponse;
+import com.example.ondc.dto.InventorySyncResponse;
+import com.example.ondc.dto.ReservationLine;
+import com.example.ondc.dto.StockLevel;
 import com.example.ondc.entity.Inventory;
+import com.example.ondc.entity.InventorySyncWatermark;
 import com.example.ondc.entity.Outlet;
 import com.example.ondc.entity.Product;
+import com.example.ondc.event.InventoryChangedEvent;
 import com.example.ondc.exception.InsufficientStockException;
+import com.example.ondc.exception.InvalidOperationException;
 import com.example.ondc.exception.ResourceNotFoundException;
 import com.example.ondc.repository.InventoryRepository;
+import com.example.ondc.repository.InventorySyncWatermarkRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +53,31 @@ public class InventoryService {
     private final InventoryRepository inventoryRepository;
     private final ProductService productService;
     private final OutletService outletService;
+    private final InventoryLedger inventoryLedger;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryChangeSequence inventoryChangeSequence;
+    private final InventorySyncWatermarkRepository watermarkRepository;
+    private final SellerAppService sellerAppService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final LowStockIndex lowStockIndex;
+    private final StockEscrowService stockEscrowService;
+    private final AvailabilityCache availabilityCache;
+    private final DemandForecaster demandForecaster;
+    private final PlatformTransactionManager transactionManager;
+
+    private static final int MAX_VERSION_RETRIES = 3;
+    private static final int MAX_AVAILABILITY_LINES = 500;
+
+    @Value("${ondc.inventory.atomic-reserve.enabled:false}")
+    private boolean atomicReserve;
+
+    private TransactionTemplate requiresNew;
+
+    @PostConstruct
+    void initTransactionTemplate() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
 
     public List<InventoryResponse> getInventoryByOutlet(Long outletId) {
         return inventoryRepository.findByOutletId(outletId).stream()
@@ -35,119 +91,647 @@ public class InventoryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public InventoryResponse getInventory(Long productId, Long outletId) {
-        Inventory inv = inventoryRepository.findByProductIdAndOutletId(productId, outletId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Inventory not found for product " + productId + " at outlet " + outletId));
-        return toResponse(inv);
+        InventoryResponse response = lookup(productId, outletId);
+        if (response == null) {
+            throw new ResourceNotFoundException(
+                    "Inventory not found for product " + productId + " at outlet " + outletId);
+        }
+        return response;
     }
 
-    @Transactional
+    /**
+     * Create or restock an inventory row. Runs under optimistic locking and is
+     * retried on a version conflict.
+     */
     public InventoryResponse createOrUpdateInventory(InventoryRequest request) {
-        Product product = productService.findProductById(request.getProductId());
-        Outlet outlet = outletService.findOutletById(request.getOutletId());
+        return withVersionRetry(() -> {
+            Product product = productService.findProductById(request.getProductId());
+            Outlet outlet = outletService.findOutletById(request.getOutletId());
 
-        Inventory inventory = inventoryRepository
-                .findByProductIdAndOutletId(request.getProductId(), request.getOutletId())
-                .orElse(Inventory.builder()
-                        .product(product)
-                        .outlet(outlet)
-                        .build());
+            boolean reclaim = stockEscrowService.isEnabled() && !inventoryLedger.isEnabled();
+            // Reclaiming locks the escrow rows, so take the inventory row lock first like every escrow path
+            Optional<Inventory> existing = reclaim
+                    ? inventoryRepository.findAllForUpdate(List.of(request.getProductId()),
+                            List.of(request.getOutletId())).stream().findFirst()
+                    : inventoryRepository.findByProductIdAndOutletId(request.getProductId(), request.getOutletId());
+            Inventory inventory = existing.orElse(Inventory.builder()
+                    .product(product)
+                    .outlet(outlet)
+                    .build());
 
-        inventory.setTotalStock(request.getTotalStock());
-        if (request.getReorderLevel() != null) {
-            inventory.setReorderLevel(request.getReorderLevel());
-        }
-        inventory.setLastSyncedAt(LocalDateTime.now());
+            if (reclaim && inventory.getId() != null) {
+                // Pull seller app quotas back first so they can never exceed the new total
+                int reclaimed = stockEscrowService.reclaimAll(request.getProductId(), request.getOutletId());
+                inventory.setReservedStock(Math.max(0, inventory.getReservedStock() - reclaimed));
+            }
+            inventory.setTotalStock(request.getTotalStock());
+            if (inventoryLedger.isEnabled()) {
+                // Keep the ledger authoritative — carry over reservations it holds in memory
+                inventory.setReservedStock(inventoryLedger.setTotal(inventory, request.getTotalStock()));
+            }
+            if (request.getReorderLevel() != null) {
+                inventory.setReorderLevel(request.getReorderLevel());
+            }
+            if (request.getForecastReorderLevel() != null) {
+                inventory.setReorderLevelManual(!request.getForecastReorderLevel());
+            } else if (request.getReorderLevel() != null) {
+                inventory.setReorderLevelManual(true);
+            }
+            inventory.setLastSyncedAt(LocalDateTime.now());
 
-        return toResponse(inventoryRepository.save(inventory));
+            return toResponse(saveAndPublish(inventory));
+        });
     }
 
     /**
      * Reserve stock for an order — the core anti-overselling mechanism.
      * This is called when an order is accepted.
+     *
+     * In atomic mode this is a single conditional UPDATE, so the availability
+     * check and the write can never be split by a concurrent reservation.
      */
-    @Transactional
     public void reserveStock(Long productId, Long outletId, int quantity) {
-        Inventory inventory = inventoryRepository.findByProductIdAndOutletId(productId, outletId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Inventory not found for product " + productId + " at outlet " + outletId));
+        if (inventoryLedger.isEnabled()) {
+            inventoryLedger.reserve(productId, outletId, quantity);
+            return;
+        }
+        if (atomicReserve) {
+            reserveAtomically(productId, outletId, quantity);
+            return;
+        }
+
+        withVersionRetry(() -> {
+            Inventory inventory = findInventory(productId, outletId);
+
+            if (inventory.getAvailableStock() < quantity) {
+                throw insufficientStock(productId, inventory.getAvailableStock(), quantity);
+            }
+
+            inventory.setReservedStock(inventory.getReservedStock() + quantity);
+            return saveAndPublish(inventory);
+        });
+    }
+
+    /**
+     * Reserve a whole basket at once — either every line is reserved or none is.
+     * All rows are fetched and locked in one query (in id order, so overlapping
+     * baskets cannot deadlock), checked together, then written as one batch.
+     */
+    @Transactional
+    public void reserveBatch(List<ReservationLine> lines) {
+        reserveBatch(null, lines);
+    }
+
+    /**
+     * Reserve a basket on behalf of a seller app. With escrow on, the lines are
+     * drawn from that app's own quotas instead of locking the shared rows.
+     */
+    @Transactional
+    public void reserveBatch(Long sellerAppId, List<ReservationLine> lines) {
+        // Merge duplicate lines and fix the order in which rows are touched
+        Map<LineKey, Integer> requested = new TreeMap<>(
+                Comparator.comparing(LineKey::productId).thenComparing(LineKey::outletId));
+        for (ReservationLine line : lines) {
+            if (line.getQuantity() != null && line.getQuantity() > 0) {
+                requested.merge(new LineKey(line.getProductId(), line.getOutletId()),
+                        line.getQuantity(), Integer::sum);
+            }
+        }
+        if (requested.isEmpty()) {
+            return;
+        }
+
+        if (inventoryLedger.isEnabled()) {
+            inventoryLedger.reserveAll(requested.entrySet().stream()
+                    .map(e -> new ReservationLine(e.getKey().productId(), e.getKey().outletId(), e.getValue()))
+                    .collect(Collectors.toList()));
+            return;
+        }
+        if (stockEscrowService.isEnabled() && sellerAppId != null) {
+            stockEscrowService.reserveAll(sellerAppId, requested.entrySet().stream()
+                    .map(e -> new ReservationLine(e.getKey().productId(), e.getKey().outletId(), e.getValue()))
+                    .collect(Collectors.toList()));
+            return;
+        }
 
-        if (inventory.getAvailableStock() < quantity) {
-            throw new InsufficientStockException(
-                    "Insufficient stock for product " + productId +
-                    ". Available: " + inventory.getAvailableStock() +
-                    ", Requested: " + quantity);
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> outletIds = new HashSet<>();
+        requested.keySet().forEach(key -> {
+            productIds.add(key.productId());
+            outletIds.add(key.outletId());
+        });
+
+        Map<LineKey, Inventory> rows = new HashMap<>();
+        for (Inventory inv : inventoryRepository.findAllForUpdate(productIds, outletIds)) {
+            rows.put(new LineKey(inv.getProduct().getId(), inv.getOutlet().getId()), inv);
         }
 
-        inventory.setReservedStock(inventory.getReservedStock() + quantity);
-        inventoryRepository.save(inventory);
+        reserveLocked(requested, rows);
+
+        List<Inventory> updated = requested.keySet().stream()
+                .map(rows::get)
+                .collect(Collectors.toList());
+        inventoryRepository.saveAllAndFlush(updated);
+        updated.forEach(this::publishChange);
     }
 
     /**
-     * Release reserved stock — called when an order is rejected or cancelled.
+     * Reserve many baskets independently — each is all-or-nothing, but one
+     * basket's shortage does not affect the others. Rows for every basket are
+     * locked with a single query and the baskets are then settled in order
+     * against the locked figures, so the whole batch is one round of writes.
+     *
+     * @return per basket, null if reserved or the reason it was not
      */
     @Transactional
+    public List<String> reserveEach(List<BasketReservation> baskets) {
+        List<String> outcomes = new ArrayList<>(baskets.size());
+        List<Map<LineKey, Integer>> merged = new ArrayList<>(baskets.size());
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> outletIds = new HashSet<>();
+        for (BasketReservation basket : baskets) {
+            Map<LineKey, Integer> requested = new TreeMap<>(
+                    Comparator.comparing(LineKey::productId).thenComparing(LineKey::outletId));
+            basket.getLines().forEach(line -> requested.merge(
+                    new LineKey(line.getProductId(), line.getOutletId()), line.getQuantity(), Integer::sum));
+            merged.add(requested);
+            outcomes.add(null);
+            if (inventoryLedger.isEnabled() || (stockEscrowService.isEnabled() && basket.getSellerAppId() != null)) {
+                continue;
+            }
+            requested.keySet().forEach(key -> {
+                productIds.add(key.productId());
+                outletIds.add(key.outletId());
+            });
+        }
+
+        Map<LineKey, Inventory> rows = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            for (Inventory inv : inventoryRepository.findAllForUpdate(productIds, outletIds)) {
+                rows.put(new LineKey(inv.getProduct().getId(), inv.getOutlet().getId()), inv);
+            }
+        }
+
+        Set<Inventory> touched = new LinkedHashSet<>();
+        for (int i = 0; i < baskets.size(); i++) {
+            Map<LineKey, Integer> requested = merged.get(i);
+            List<ReservationLine> lines = requested.entrySet().stream()
+                    .map(e -> new ReservationLine(e.getKey().productId(), e.getKey().outletId(), e.getValue()))
+                    .collect(Collectors.toList());
+            try {
+                if (inventoryLedger.isEnabled()) {
+                    inventoryLedger.reserveAll(lines);
+                } else if (stockEscrowService.isEnabled() && baskets.get(i).getSellerAppId() != null) {
+                    stockEscrowService.reserveAll(baskets.get(i).getSellerAppId(), lines);
+                } else {
+                    reserveLocked(requested, rows);
+                    requested.keySet().forEach(key -> touched.add(rows.get(key)));
+                }
+            } catch (InsufficientStockException | ResourceNotFoundException ex) {
+                outcomes.set(i, ex.getMessage());
+            }
+        }
+
+        if (!touched.isEmpty()) {
+            inventoryRepository.saveAllAndFlush(touched);
+            touched.forEach(this::publishChange);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Check a basket against already-locked rows and apply it only if every line fits.
+     */
+    private void reserveLocked(Map<LineKey, Integer> requested, Map<LineKey, Inventory> rows) {
+        List<String> shortages = new ArrayList<>();
+        for (Map.Entry<LineKey, Integer> entry : requested.entrySet()) {
+            LineKey key = entry.getKey();
+            Inventory inv = rows.get(key);
+            if (inv == null) {
+                throw new ResourceNotFoundException(
+                        "Inventory not found for product " + key.productId() + " at outlet " + key.outletId());
+            }
+            if (inv.getAvailableStock() < entry.getValue()) {
+                shortages.add("product " + key.productId() +
+                        " (Available: " + inv.getAvailableStock() + ", Requested: " + entry.getValue() + ")");
+            }
+        }
+        if (!shortages.isEmpty()) {
+            throw new InsufficientStockException("Insufficient stock for " + String.join(", ", shortages));
+        }
+        requested.forEach((key, quantity) -> {
+            Inventory inv = rows.get(key);
+            inv.setReservedStock(inv.getReservedStock() + quantity);
+        });
+    }
+
+    /**
+     * Release reserved stock — called when an order is rejected or cancelled.
+     */
     public void releaseReservation(Long productId, Long outletId, int quantity) {
-        Inventory inventory = inventoryRepository.findByProductIdAndOutletId(productId, outletId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Inventory not found for product " + productId + " at outlet " + outletId));
+        if (inventoryLedger.isEnabled()) {
+            inventoryLedger.release(productId, outletId, quantity);
+            return;
+        }
 
-        int newReserved = Math.max(0, inventory.getReservedStock() - quantity);
-        inventory.setReservedStock(newReserved);
-        inventoryRepository.save(inventory);
+        withVersionRetry(() -> {
+            Inventory inventory = findInventory(productId, outletId);
+
+            int newReserved = Math.max(0, inventory.getReservedStock() - quantity);
+            inventory.setReservedStock(newReserved);
+            return saveAndPublish(inventory);
+        });
     }
 
     /**
      * Deduct stock after fulfillment — reduces both total and reserved stock.
      */
-    @Transactional
     public void deductStock(Long productId, Long outletId, int quantity) {
-        Inventory inventory = inventoryRepository.findByProductIdAndOutletId(productId, outletId)
-                .orElseThrow(() -> new ResourceNotFoundException(
-                        "Inventory not found for product " + productId + " at outlet " + outletId));
+        if (inventoryLedger.isEnabled()) {
+            inventoryLedger.deduct(productId, outletId, quantity);
+            return;
+        }
+
+        withVersionRetry(() -> {
+            Inventory inventory = findInventory(productId, outletId);
+
+            inventory.setTotalStock(Math.max(0, inventory.getTotalStock() - quantity));
+            inventory.setReservedStock(Math.max(0, inventory.getReservedStock() - quantity));
+            return saveAndPublish(inventory);
+        });
+    }
+
+    /**
+     * Deduct the stock of many fulfilled lines — one locked read and one
+     * write per (product, outlet) row however many orders it covers.
+     */
+    @Transactional
+    public void deductBatch(List<ReservationLine> lines) {
+        applyBatch(lines, true);
+    }
+
+    /**
+     * Release the reservations of many cancelled lines, grouped like {@link #deductBatch}.
+     */
+    @Transactional
+    public void releaseBatch(List<ReservationLine> lines) {
+        applyBatch(lines, false);
+    }
+
+    private void applyBatch(List<ReservationLine> lines, boolean deduct) {
+        Map<LineKey, Integer> grouped = new TreeMap<>(
+                Comparator.comparing(LineKey::productId).thenComparing(LineKey::outletId));
+        for (ReservationLine line : lines) {
+            if (line.getQuantity() != null && line.getQuantity() > 0) {
+                grouped.merge(new LineKey(line.getProductId(), line.getOutletId()), line.getQuantity(), Integer::sum);
+            }
+        }
+        if (grouped.isEmpty()) {
+            return;
+        }
+
+        if (inventoryLedger.isEnabled()) {
+            grouped.forEach((key, quantity) -> {
+                if (deduct) {
+                    inventoryLedger.deduct(key.productId(), key.outletId(), quantity);
+                } else {
+                    inventoryLedger.release(key.productId(), key.outletId(), quantity);
+                }
+            });
+            return;
+        }
+
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> outletIds = new HashSet<>();
+        grouped.keySet().forEach(key -> {
+            productIds.add(key.productId());
+            outletIds.add(key.outletId());
+        });
+        Map<LineKey, Inventory> rows = new HashMap<>();
+        for (Inventory inv : inventoryRepository.findAllForUpdate(productIds, outletIds)) {
+            rows.put(new LineKey(inv.getProduct().getId(), inv.getOutlet().getId()), inv);
+        }
 
-        inventory.setTotalStock(Math.max(0, inventory.getTotalStock() - quantity));
-        inventory.setReservedStock(Math.max(0, inventory.getReservedStock() - quantity));
-        inventoryRepository.save(inventory);
+        List<Inventory> updated = new ArrayList<>(grouped.size());
+        grouped.forEach((key, quantity) -> {
+            Inventory inv = rows.get(key);
+            if (inv == null) {
+                throw new ResourceNotFoundException(
+                        "Inventory not found for product " + key.productId() + " at outlet " + key.outletId());
+            }
+            if (deduct) {
+                inv.setTotalStock(Math.max(0, inv.getTotalStock() - quantity));
+            }
+            inv.setReservedStock(Math.max(0, inv.getReservedStock() - quantity));
+            updated.add(inv);
+        });
+        inventoryRepository.saveAllAndFlush(updated);
+        updated.forEach(this::publishChange);
     }
 
     /**
      * Get low-stock alerts — predictive replenishment.
+     * With the low-stock index on, this reads only the alerting rows by id.
      */
     public List<InventoryResponse> getLowStockAlerts() {
-        return inventoryRepository.findLowStockInventory().stream()
+        List<Inventory> lowStock = lowStockIndex.isEnabled()
+                ? findByIds(lowStockIndex.allLowStockIds())
+                : inventoryRepository.findLowStockInventory();
+        return lowStock.stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<InventoryResponse> getLowStockByVendor(Long vendorId) {
-        return inventoryRepository.findLowStockByVendorId(vendorId).stream()
+        List<Inventory> lowStock = lowStockIndex.isEnabled()
+                ? findByIds(lowStockIndex.lowStockIds(vendorId))
+                : inventoryRepository.findLowStockByVendorId(vendorId);
+        return lowStock.stream()
                 .map(this::toResponse)
                 .collect(Collectors.toList());
     }
 
     /**
      * Sync inventory across all seller apps — broadcasts current stock levels.
+     * Read-only: per-app progress is tracked by sync watermarks, not by rewriting rows.
      */
-    @Transactional
+    @Transactional(readOnly = true)
     public List<InventoryResponse> syncInventory(Long vendorId) {
-        List<Inventory> inventories = inventoryRepository.findByOutletVendorId(vendorId);
-        inventories.forEach(inv -> inv.setLastSyncedAt(LocalDateTime.now()));
-        inventoryRepository.saveAll(inventories);
-        return inventories.stream().map(this::toResponse).collect(Collectors.toList());
+        return inventoryRepository.findByOutletVendorId(vendorId).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Delta sync for one seller app — returns only the vendor's rows changed
+     * since that app last synced, then advances its watermark. The watermark
+     * only moves up to the last committed change sequence, so a row stamped
+     * by a transaction still in flight is picked up by a later sync instead
+     * of being skipped. When nothing committed since, no inventory is read.
+     */
+    @Transactional
+    public InventorySyncResponse syncInventoryDelta(Long vendorId, Long sellerAppId) {
+        sellerAppService.findSellerAppById(sellerAppId);
+
+        InventorySyncWatermark watermark = lockWatermark(sellerAppId, vendorId);
+        long fromSeq = watermark.getLastChangeSeq();
+        long toSeq = Math.max(fromSeq, inventoryChangeSequence.committedSeq());
+        LocalDateTime now = LocalDateTime.now();
+
+        if (toSeq == fromSeq) {
+            return InventorySyncResponse.builder()
+                    .vendorId(vendorId)
+                    .sellerAppId(sellerAppId)
+                    .fromSeq(fromSeq)
+                    .toSeq(fromSeq)
+                    .changed(false)
+                    .items(List.of())
+                    .syncedAt(now)
+                    .build();
+        }
+
+        List<Inventory> changed = inventoryRepository.findChangedBetween(vendorId, fromSeq, toSeq);
+
+        watermark.setLastChangeSeq(toSeq);
+        watermark.setLastSyncedAt(now);
+
+        return InventorySyncResponse.builder()
+                .vendorId(vendorId)
+                .sellerAppId(sellerAppId)
+                .fromSeq(fromSeq)
+                .toSeq(toSeq)
+                .changed(!changed.isEmpty())
+                .items(changed.stream().map(this::toResponse).collect(Collectors.toList()))
+                .syncedAt(now)
+                .build();
+    }
+
+    /**
+     * Lock an app's watermark for a vendor, creating it on first sync. Concurrent
+     * syncs of the same pair queue on the lock, so the watermark never moves back.
+     */
+    private InventorySyncWatermark lockWatermark(Long sellerAppId, Long vendorId) {
+        if (watermarkRepository.findBySellerAppIdAndVendorId(sellerAppId, vendorId).isEmpty()) {
+            try {
+                requiresNew.executeWithoutResult(status -> watermarkRepository.saveAndFlush(
+                        InventorySyncWatermark.builder()
+                                .sellerAppId(sellerAppId)
+                                .vendorId(vendorId)
+                                .build()));
+            } catch (DataIntegrityViolationException ex) {
+                // A concurrent first sync created it — lock that one below
+            }
+        }
+        return watermarkRepository.findForUpdate(sellerAppId, vendorId)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Sync watermark missing for seller app " + sellerAppId + " and vendor " + vendorId));
     }
 
     /**
      * Check if sufficient stock is available for given product at outlet.
      */
     public boolean hasAvailableStock(Long productId, Long outletId, int quantity) {
+        if (inventoryLedger.isEnabled()) {
+            return inventoryLedger.hasAvailable(productId, outletId, quantity);
+        }
+        InventoryResponse response = lookup(productId, outletId);
+        return response != null && response.getAvailableStock() >= quantity;
+    }
+
+    /**
+     * Point lookup through the availability cache; null if the row does not exist.
+     */
+    private InventoryResponse lookup(Long productId, Long outletId) {
+        return availabilityCache.get(productId, outletId, () ->
+                inventoryRepository.findByProductIdAndOutletId(productId, outletId)
+                        .map(this::toResponse)
+                        .orElse(null));
+    }
+
+    /**
+     * Answer a whole basket of availability checks at once. Figures come from
+     * the ledger or the availability cache where possible; every remaining
+     * (product, outlet) pair is read with one IN-query.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityResponse checkAvailability(AvailabilityRequest request) {
+        List<AvailabilityLine> lines = request.getLines();
+        if (lines.size() > MAX_AVAILABILITY_LINES) {
+            throw new InvalidOperationException("At most " + MAX_AVAILABILITY_LINES + " lines per availability check");
+        }
+
+        List<Long> pincodeOutlets = List.of();
+        if (lines.stream().anyMatch(line -> line.getOutletId() == null)) {
+            if (request.getPincode() == null || request.getPincode().isBlank()) {
+                throw new InvalidOperationException("Lines without an outletId require a pincode");
+            }
+            pincodeOutlets = outletService.findActiveOutletIdsByPincode(request.getPincode(), request.getVendorId());
+        }
+
+        Set<LineKey> wanted = new LinkedHashSet<>();
+        for (AvailabilityLine line : lines) {
+            if (line.getOutletId() != null) {
+                wanted.add(new LineKey(line.getProductId(), line.getOutletId()));
+            } else {
+                pincodeOutlets.forEach(outletId -> wanted.add(new LineKey(line.getProductId(), outletId)));
+            }
+        }
+
+        Map<LineKey, Integer> available = new HashMap<>();
+        Set<Long> missedProducts = new HashSet<>();
+        Set<Long> missedOutlets = new HashSet<>();
+        for (LineKey key : wanted) {
+            Integer known = knownAvailable(key);
+            if (known != null) {
+                available.put(key, known);
+            } else {
+                missedProducts.add(key.productId());
+                missedOutlets.add(key.outletId());
+            }
+        }
+        if (!missedProducts.isEmpty()) {
+            for (StockLevel level : inventoryRepository.findStockLevels(missedProducts, missedOutlets)) {
+                LineKey key = new LineKey(level.getProductId(), level.getOutletId());
+                if (wanted.contains(key)) {
+                    available.putIfAbsent(key, level.getTotalStock() - level.getReservedStock());
+                }
+            }
+        }
+
+        List<AvailabilityResult> results = new ArrayList<>(lines.size());
+        for (AvailabilityLine line : lines) {
+            Long outletId = line.getOutletId();
+            int stock = 0;
+            if (outletId != null) {
+                stock = available.getOrDefault(new LineKey(line.getProductId(), outletId), 0);
+            } else {
+                // Report the pincode outlet holding the most stock
+                for (Long candidate : pincodeOutlets) {
+                    int candidateStock = available.getOrDefault(new LineKey(line.getProductId(), candidate), 0);
+                    if (outletId == null || candidateStock > stock) {
+                        outletId = candidate;
+                        stock = candidateStock;
+                    }
+                }
+            }
+            results.add(AvailabilityResult.builder()
+                    .productId(line.getProductId())
+                    .outletId(outletId)
+                    .requested(line.getQuantity())
+                    .available(Math.max(0, stock))
+                    .ok(stock >= line.getQuantity())
+                    .build());
+        }
+
+        return AvailabilityResponse.builder()
+                .allAvailable(results.stream().allMatch(AvailabilityResult::getOk))
+                .lines(results)
+                .build();
+    }
+
+    /**
+     * Available stock without a query — from the ledger or the cache — or null.
+     */
+    private Integer knownAvailable(LineKey key) {
+        if (inventoryLedger.isEnabled()) {
+            int[] live = inventoryLedger.peek(key.productId(), key.outletId());
+            if (live != null) {
+                return live[0] - live[1];
+            }
+        }
+        return availabilityCache.cachedAvailable(key.productId(), key.outletId());
+    }
+
+    private void reserveAtomically(Long productId, Long outletId, int quantity) {
+        // Sequence taken inside the write's transaction, so it counts as in flight until commit
+        Long changeSeq = transactionTemplate.execute(status -> {
+            long seq = inventoryChangeSequence.next();
+            return inventoryRepository.reserveIfAvailable(
+                    productId, outletId, quantity, seq, LocalDateTime.now()) > 0 ? seq : null;
+        });
+        if (changeSeq == null) {
+            // Only the failure path pays for a read, to tell "missing" from "short"
+            Inventory inventory = findInventory(productId, outletId);
+            throw insufficientStock(productId, inventory.getAvailableStock(), quantity);
+        }
+        eventPublisher.publishEvent(InventoryChangedEvent.reserved(productId, outletId, quantity, changeSeq));
+    }
+
+    private Inventory saveAndPublish(Inventory inventory) {
+        Inventory saved = inventoryRepository.saveAndFlush(inventory);
+        publishChange(saved);
+        return saved;
+    }
+
+    /**
+     * Tell derived views (low-stock index etc.) about a row's new figures once the transaction commits.
+     * The row must be flushed, so it carries the change sequence of this write.
+     */
+    private void publishChange(Inventory inventory) {
+        eventPublisher.publishEvent(InventoryChangedEvent.of(
+                inventory.getProduct().getId(), inventory.getOutlet().getId(),
+                inventory.getTotalStock(), inventory.getReservedStock(), inventory.getReorderLevel(),
+                inventory.getChangeSeq()));
+    }
+
+    /**
+     * Run a read-modify-write in its own transaction and retry it on a @Version
+     * conflict. When called inside an outer transaction (e.g. acceptOrder) the
+     * conflict is rethrown instead — that transaction is already rollback-only.
+     */
+    private <T> T withVersionRetry(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            boolean outerTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException ex) {
+                if (outerTransaction || attempt >= MAX_VERSION_RETRIES) {
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private List<Inventory> findByIds(Set<Long> ids) {
+        return ids.isEmpty() ? List.of() : inventoryRepository.findByIdIn(ids);
+    }
+
+    private Inventory findInventory(Long productId, Long outletId) {
         return inventoryRepository.findByProductIdAndOutletId(productId, outletId)
-                .map(inv -> inv.getAvailableStock() >= quantity)
-                .orElse(false);
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Inventory not found for product " + productId + " at outlet " + outletId));
+    }
+
+    private InsufficientStockException insufficientStock(Long productId, int available, int requested) {
+        return new InsufficientStockException(
+                "Insufficient stock for product " + productId +
+                ". Available: " + available +
+                ", Requested: " + requested);
+    }
+
+    private record LineKey(Long productId, Long outletId) {
     }
 
     private InventoryResponse toResponse(Inventory inventory) {
+        int totalStock = inventory.getTotalStock();
+        int reservedStock = inventory.getReservedStock();
+        if (inventoryLedger.isEnabled()) {
+            // The table may lag the ledger until the next write-back
+            int[] live = inventoryLedger.peek(inventory.getProduct().getId(), inventory.getOutlet().getId());
+            if (live != null) {
+                totalStock = live[0];
+                reservedStock = live[1];
+            }
+        }
+        int availableStock = totalStock - reservedStock;
+        Double demandPerDay = demandForecaster.demandPerDay(
+                inventory.getProduct().getId(), inventory.getOutlet().getId());
+        Double daysOfCover = demandPerDay != null && demandPerDay > 0
+                ? Math.round(Math.max(0, availableStock) / demandPerDay * 10) / 10.0 : null;
+
         return InventoryResponse.builder()
                 .id(inventory.getId())
                 .productId(inventory.getProduct().getId())
@@ -155,12 +739,15 @@ public class InventoryService {
                 .productSku(inventory.getProduct().getSku())
                 .outletId(inventory.getOutlet().getId())
                 .outletName(inventory.getOutlet().getName())
-                .totalStock(inventory.getTotalStock())
-                .reservedStock(inventory.getReservedStock())
-                .availableStock(inventory.getAvailableStock())
+                .totalStock(totalStock)
+                .reservedStock(reservedStock)
+                .availableStock(availableStock)
                 .reorderLevel(inventory.getReorderLevel())
-                .isLowStock(inventory.isLowStock())
+                .reorderLevelManual(Boolean.TRUE.equals(inventory.getReorderLevelManual()))
+                .isLowStock(availableStock <= inventory.getReorderLevel())
                 .lastSyncedAt(inventory.getLastSyncedAt())
+                .demandPerDay(demandPerDay != null ? Math.round(demandPerDay * 100) / 100.0 : null)
+                .daysOfCover(daysOfCover)
                 .build();
     }
 }
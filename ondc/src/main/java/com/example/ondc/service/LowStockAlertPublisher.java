@@ -0,0 +1,65 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.LowStockAlert;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server-sent-event fan-out of low-stock alerts, per vendor.
+ * Sends run on one background thread so a slow client never holds up the
+ * transaction that crossed the threshold.
+ */
+@Component
+@Slf4j
+public class LowStockAlertPublisher {
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final Map<Long, List<SseEmitter>> emitters = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "low-stock-sse");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SseEmitter subscribe(Long vendorId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        List<SseEmitter> vendorEmitters = emitters.computeIfAbsent(vendorId, id -> new CopyOnWriteArrayList<>());
+        vendorEmitters.add(emitter);
+        emitter.onCompletion(() -> vendorEmitters.remove(emitter));
+        emitter.onTimeout(() -> vendorEmitters.remove(emitter));
+        emitter.onError(ex -> vendorEmitters.remove(emitter));
+        return emitter;
+    }
+
+    public void publish(LowStockAlert alert) {
+        List<SseEmitter> vendorEmitters = emitters.get(alert.getVendorId());
+        if (vendorEmitters == null || vendorEmitters.isEmpty()) {
+            return;
+        }
+        sender.execute(() -> {
+            for (SseEmitter emitter : vendorEmitters) {
+                try {
+                    emitter.send(SseEmitter.event().name("low-stock").data(alert));
+                } catch (IOException | IllegalStateException ex) {
+                    vendorEmitters.remove(emitter);
+                    log.debug("Dropped low-stock subscriber for vendor {}: {}", alert.getVendorId(), ex.getMessage());
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+}
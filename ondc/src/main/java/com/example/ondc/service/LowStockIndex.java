@@ -0,0 +1,300 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.LowStockAlert;
+import com.example.ondc.dto.StockLevel;
+import com.example.ondc.event.InventoryChangedEvent;
+import com.example.ondc.event.InventoryReloadedEvent;
+import com.example.ondc.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Low-stock set maintained incrementally, per vendor.
+ *
+ * Every committed {@link InventoryChangedEvent} updates the row's figures and,
+ * only when it crosses its reorder level, moves it in or out of the vendor's
+ * low-stock set and pushes an alert. Reading low stock is then a walk over the
+ * alerting ids instead of a table scan. A periodic rebuild from one projection
+ * query repairs any drift from writes made outside the application.
+ *
+ * Events can arrive out of commit order. Each row remembers the change
+ * sequence it reflects: a newer event is applied, an older one makes the row
+ * re-read its committed state rather than move it backwards.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LowStockIndex {
+
+    private static final int MAX_REFRESH_ATTEMPTS = 3;
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryLedger inventoryLedger;
+    private final LowStockAlertPublisher alertPublisher;
+    private final InventoryChangeSequence inventoryChangeSequence;
+
+    @Value("${ondc.inventory.low-stock-index.enabled:false}")
+    private boolean enabled;
+
+    private final Map<RowKey, Row> rows = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> lowByVendor = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ondc.inventory.low-stock-index.reconcile-ms:600000}",
+               initialDelayString = "${ondc.inventory.low-stock-index.reconcile-ms:600000}")
+    public void reconcile() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Inventory ids currently at or below their reorder level for a vendor.
+     */
+    public Set<Long> lowStockIds(Long vendorId) {
+        Set<Long> ids = lowByVendor.get(vendorId);
+        return ids != null ? Set.copyOf(ids) : Set.of();
+    }
+
+    public Set<Long> allLowStockIds() {
+        Set<Long> all = ConcurrentHashMap.newKeySet();
+        lowByVendor.values().forEach(all::addAll);
+        return all;
+    }
+
+    @EventListener
+    public void onInventoryReloaded(InventoryReloadedEvent event) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        RowKey key = new RowKey(event.productId(), event.outletId());
+        Row row = rows.get(key);
+        if (row == null) {
+            // A row created after the last rebuild — read its figures once
+            StockLevel level = inventoryRepository.findStockLevel(event.productId(), event.outletId()).orElse(null);
+            if (level == null) {
+                return;
+            }
+            Row fresh = new Row(level);
+            Row existing = rows.putIfAbsent(key, fresh);
+            if (existing == null) {
+                // Read after commit, so the projection already includes this change
+                transition(fresh);
+                return;
+            }
+            row = existing;
+        }
+        boolean outOfOrder = false;
+        synchronized (row) {
+            if (event.changeSeq() == 0) {
+                // A ledger change — its figures may already be stale, the ledger's own never are
+                int[] live = inventoryLedger.peek(event.productId(), event.outletId());
+                if (live != null) {
+                    row.total = live[0];
+                    row.reserved = live[1];
+                } else if (event.isAbsolute()) {
+                    row.total = event.totalStock();
+                    row.reserved = event.reservedStock();
+                }
+            } else if (event.changeSeq() > row.changeSeq) {
+                if (event.isAbsolute()) {
+                    row.total = event.totalStock();
+                    row.reserved = event.reservedStock();
+                } else {
+                    row.reserved += event.reservedDelta();
+                }
+                if (event.reorderLevel() != null) {
+                    row.reorderLevel = event.reorderLevel();
+                }
+                row.changeSeq = event.changeSeq();
+            } else {
+                // Older than what the row already reflects: it may or may not be included, so re-read
+                outOfOrder = true;
+            }
+        }
+        if (outOfOrder) {
+            refresh(key, row);
+        }
+        transition(row);
+    }
+
+    /**
+     * Replace a row's figures with its committed state. Retried while newer
+     * events overtake the read; anything left is repaired by the next rebuild.
+     */
+    private void refresh(RowKey key, Row row) {
+        for (int attempt = 0; attempt < MAX_REFRESH_ATTEMPTS; attempt++) {
+            StockLevel level = inventoryRepository.findStockLevel(key.productId(), key.outletId()).orElse(null);
+            if (level == null) {
+                return;
+            }
+            overlayLedger(level);
+            synchronized (row) {
+                if (seqOf(level) >= row.changeSeq) {
+                    row.total = level.getTotalStock();
+                    row.reserved = level.getReservedStock();
+                    row.reorderLevel = reorderLevelOf(level);
+                    row.changeSeq = seqOf(level);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void transition(Row row) {
+        LowStockAlert alert = null;
+        synchronized (row) {
+            boolean nowLow = row.total - row.reserved <= row.reorderLevel;
+            if (nowLow != row.low) {
+                row.low = nowLow;
+                Set<Long> vendorSet = lowByVendor.computeIfAbsent(row.vendorId, id -> ConcurrentHashMap.newKeySet());
+                if (nowLow) {
+                    vendorSet.add(row.inventoryId);
+                } else {
+                    vendorSet.remove(row.inventoryId);
+                }
+                alert = LowStockAlert.builder()
+                        .inventoryId(row.inventoryId)
+                        .vendorId(row.vendorId)
+                        .productId(row.productId)
+                        .outletId(row.outletId)
+                        .availableStock(row.total - row.reserved)
+                        .reorderLevel(row.reorderLevel)
+                        .lowStock(nowLow)
+                        .raisedAt(LocalDateTime.now())
+                        .build();
+            }
+        }
+        if (alert != null) {
+            alertPublisher.publish(alert);
+        }
+    }
+
+    /**
+     * Reconcile every row with one projection query. Rows are updated in place,
+     * each under its own lock, so readers never see a vendor's set emptied and
+     * a row an event moved past the snapshot keeps the newer figures.
+     */
+    private synchronized void rebuild() {
+        // Anything stamped above this may have committed after the query read its rows
+        long snapshotSeq = inventoryChangeSequence.committedSeq();
+        List<StockLevel> levels = inventoryRepository.findAllStockLevels();
+        Set<RowKey> seen = new HashSet<>(levels.size() * 2);
+        int alerting = 0;
+        for (StockLevel level : levels) {
+            overlayLedger(level);
+            RowKey key = new RowKey(level.getProductId(), level.getOutletId());
+            Row row = rows.computeIfAbsent(key, k -> new Row(level));
+            synchronized (row) {
+                if (seqOf(level) >= row.changeSeq) {
+                    row.total = level.getTotalStock();
+                    row.reserved = level.getReservedStock();
+                    row.reorderLevel = reorderLevelOf(level);
+                    row.changeSeq = seqOf(level);
+                } else if (inventoryLedger.isEnabled()) {
+                    row.total = level.getTotalStock();
+                    row.reserved = level.getReservedStock();
+                }
+                row.low = row.total - row.reserved <= row.reorderLevel;
+                Set<Long> vendorSet = lowByVendor.computeIfAbsent(row.vendorId, id -> ConcurrentHashMap.newKeySet());
+                if (row.low) {
+                    vendorSet.add(row.inventoryId);
+                    alerting++;
+                } else {
+                    vendorSet.remove(row.inventoryId);
+                }
+            }
+            seen.add(key);
+        }
+        // Rows gone from the table — unless changed after the snapshot, i.e. created since
+        rows.entrySet().removeIf(entry -> {
+            Row row = entry.getValue();
+            synchronized (row) {
+                if (seen.contains(entry.getKey()) || row.changeSeq > snapshotSeq) {
+                    return false;
+                }
+                Set<Long> vendorSet = lowByVendor.get(row.vendorId);
+                if (vendorSet != null) {
+                    vendorSet.remove(row.inventoryId);
+                }
+                return true;
+            }
+        });
+        log.info("Low-stock index rebuilt: {} rows, {} alerting", rows.size(), alerting);
+    }
+
+    /**
+     * The table may lag the in-memory ledger — take the ledger's figures when it has the row.
+     */
+    private void overlayLedger(StockLevel level) {
+        int[] live = inventoryLedger.isEnabled()
+                ? inventoryLedger.peek(level.getProductId(), level.getOutletId()) : null;
+        if (live != null) {
+            level.setTotalStock(live[0]);
+            level.setReservedStock(live[1]);
+        }
+    }
+
+    private static long seqOf(StockLevel level) {
+        return level.getChangeSeq() != null ? level.getChangeSeq() : 0;
+    }
+
+    private static int reorderLevelOf(StockLevel level) {
+        return level.getReorderLevel() != null ? level.getReorderLevel() : 0;
+    }
+
+    private record RowKey(Long productId, Long outletId) {
+    }
+
+    private static final class Row {
+        private final Long inventoryId;
+        private final Long productId;
+        private final Long outletId;
+        private final Long vendorId;
+        private int total;
+        private int reserved;
+        private int reorderLevel;
+        private long changeSeq;
+        private boolean low;
+
+        private Row(StockLevel level) {
+            this.inventoryId = level.getInventoryId();
+            this.productId = level.getProductId();
+            this.outletId = level.getOutletId();
+            this.vendorId = level.getVendorId();
+            this.total = level.getTotalStock();
+            this.reserved = level.getReservedStock();
+            this.reorderLevel = reorderLevelOf(level);
+            this.changeSeq = seqOf(level);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.OpenOrder;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.event.OrdersArchivedEvent;
+import com.example.ondc.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Moves REJECTED, FULFILLED and CANCELLED orders that have not changed for
+ * retention-days from orders / order_items into orders_archive /
+ * order_items_archive, so vendor queries only scan live and recent orders.
+ *
+ * Each batch is one transaction of set-based statements: copy orders (with
+ * vendor, outlet and seller app names), copy items (with product name and
+ * sku), then delete holds, items and orders. Terminal orders never change
+ * status again, so no row locks are needed. Archived orders stay readable
+ * by id (see {@link OrderReader}) and their ONDC ids stay known to
+ * {@link OrderIdempotencyGuard}; order_events rows are kept as they are.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiver {
+
+    private static final Set<OrderStatus> ARCHIVABLE =
+            EnumSet.of(OrderStatus.REJECTED, OrderStatus.FULFILLED, OrderStatus.CANCELLED);
+
+    private static final String COPY_ORDERS_SQL =
+            "INSERT INTO orders_archive (id, ondc_order_id, status, priority, fulfillment_type, total_amount, " +
+            "customer_name, customer_phone, delivery_address, delivery_pincode, vendor_id, vendor_name, " +
+            "outlet_id, outlet_name, seller_app_id, seller_app_name, rejection_reason, " +
+            "created_at, accepted_at, fulfilled_at, updated_at, archived_at) " +
+            "SELECT o.id, o.ondc_order_id, o.status, o.priority, o.fulfillment_type, o.total_amount, " +
+            "o.customer_name, o.customer_phone, o.delivery_address, o.delivery_pincode, o.vendor_id, v.name, " +
+            "o.outlet_id, ol.name, o.seller_app_id, s.name, o.rejection_reason, " +
+            "o.created_at, o.accepted_at, o.fulfilled_at, o.updated_at, :archivedAt " +
+            "FROM orders o JOIN vendors v ON v.id = o.vendor_id " +
+            "LEFT JOIN outlets ol ON ol.id = o.outlet_id " +
+            "LEFT JOIN seller_apps s ON s.id = o.seller_app_id " +
+            "WHERE o.id IN (:ids)";
+
+    private static final String COPY_ITEMS_SQL =
+            "INSERT INTO order_items_archive (id, order_id, product_id, product_name, product_sku, " +
+            "requested_qty, fulfilled_qty, unit_price) " +
+            "SELECT i.id, i.order_id, i.product_id, p.name, p.sku, i.requested_qty, i.fulfilled_qty, i.unit_price " +
+            "FROM order_items i JOIN products p ON p.id = i.product_id " +
+            "WHERE i.order_id IN (:ids)";
+
+    private final OrderRepository orderRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${ondc.orders.archive.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ondc.orders.archive.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${ondc.orders.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${ondc.orders.archive.max-batches-per-run:100}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${ondc.orders.archive.interval-ms:3600000}",
+               initialDelayString = "${ondc.orders.archive.interval-ms:3600000}")
+    public void run() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    /**
+     * Archive eligible orders batch by batch until none are left or the
+     * per-run limit is reached. Returns the number of orders archived.
+     */
+    public int archive() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        int archived = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer moved = transactionTemplate.execute(status -> archiveBatch(cutoff));
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            log.info("Archived {} orders last changed before {}", archived, cutoff);
+        }
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        List<OpenOrder> orders = orderRepository.findArchivable(ARCHIVABLE, cutoff, PageRequest.ofSize(batchSize));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = orders.stream().map(OpenOrder::getOrderId).collect(Collectors.toList());
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("archivedAt", LocalDateTime.now());
+        jdbcTemplate.update(COPY_ORDERS_SQL, params);
+        jdbcTemplate.update(COPY_ITEMS_SQL, params);
+        jdbcTemplate.update("DELETE FROM reservation_holds WHERE order_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (:ids)", params);
+        jdbcTemplate.update("DELETE FROM orders WHERE id IN (:ids)", params);
+        eventPublisher.publishEvent(new OrdersArchivedEvent(orders));
+        return orders.size();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.OrderEventResponse;
+import com.example.ondc.entity.OrderEvent;
+import com.example.ondc.enums.OrderEventType;
+import com.example.ondc.event.OrderStatusChangedEvent;
+import com.example.ondc.repository.OrderEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only log of order lifecycle events (created, accepted, partially
+ * fulfilled, rejected, fulfilled, cancelled).
+ *
+ * Events are collected while the order transaction runs and written just
+ * before it commits as one JDBC batch, so the log commits or rolls back
+ * together with the change it records and a dispatch of hundreds of orders
+ * is a single round trip. Nothing ever updates or deletes a log row.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderEventLog {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_events (order_id, vendor_id, outlet_id, type, from_status, to_status, reason, occurred_at) " +
+            "VALUES (:orderId, :vendorId, :outletId, :type, :fromStatus, :toStatus, :reason, :occurredAt)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final OrderEventRepository orderEventRepository;
+
+    @Value("${ondc.orders.event-log.enabled:false}")
+    private boolean enabled;
+
+    @EventListener
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            append(List.of(event));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<OrderStatusChangedEvent> pending = (List<OrderStatusChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<OrderStatusChangedEvent> batch = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, batch);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    append(batch);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(OrderEventLog.this);
+                }
+            });
+            pending = batch;
+        }
+        pending.add(event);
+    }
+
+    /**
+     * An order's lifecycle, oldest event first.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderEventResponse> history(Long orderId) {
+        return orderEventRepository.findByOrderIdOrderByIdAsc(orderId).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    private void append(List<OrderStatusChangedEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] rows = events.stream()
+                .map(event -> new MapSqlParameterSource()
+                        .addValue("orderId", event.orderId())
+                        .addValue("vendorId", event.vendorId())
+                        .addValue("outletId", event.outletId())
+                        .addValue("type", typeOf(event).name())
+                        .addValue("fromStatus", event.previousStatus() != null ? event.previousStatus().name() : null)
+                        .addValue("toStatus", event.status().name())
+                        .addValue("reason", event.reason())
+                        .addValue("occurredAt", event.occurredAt()))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private static OrderEventType typeOf(OrderStatusChangedEvent event) {
+        return event.previousStatus() == null ? OrderEventType.CREATED : OrderEventType.valueOf(event.status().name());
+    }
+
+    private OrderEventResponse toResponse(OrderEvent event) {
+        return OrderEventResponse.builder()
+                .id(event.getId())
+                .orderId(event.getOrderId())
+                .type(event.getType())
+                .fromStatus(event.getFromStatus())
+                .toStatus(event.getToStatus())
+                .outletId(event.getOutletId())
+                .reason(event.getReason())
+                .occurredAt(event.getOccurredAt())
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.OrderResponse;
+import com.example.ondc.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fast duplicate detection for ONDC order ids.
+ *
+ * A Bloom filter of every known ondcOrderId answers "definitely new" for the
+ * common case without touching the database. Recently created orders keep
+ * their original response in a small LRU map, so a retried /confirm is
+ * answered from memory. Only a Bloom hit that is not in the recent map needs
+ * a findByOndcOrderId.
+ *
+ * The filter is seeded from the orders and orders_archive tables once the
+ * application is ready; until then every id is treated as possibly known.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIdempotencyGuard {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${ondc.orders.idempotency.expected-orders:1000000}")
+    private long expectedOrders;
+
+    @Value("${ondc.orders.idempotency.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${ondc.orders.idempotency.recent-size:10000}")
+    private int recentSize;
+
+    private BloomFilter seen;
+    private volatile boolean seeded;
+    private Map<String, OrderResponse> recent;
+
+    @PostConstruct
+    void init() {
+        seen = new BloomFilter(expectedOrders, falsePositiveRate);
+        recent = Collections.synchronizedMap(new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, OrderResponse> eldest) {
+                return size() > recentSize;
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        long[] count = {0};
+        // Archived orders keep their ids reserved
+        for (String sql : List.of("SELECT ondc_order_id FROM orders", "SELECT ondc_order_id FROM orders_archive")) {
+            jdbcTemplate.query(sql, rs -> {
+                seen.put(rs.getString(1));
+                count[0]++;
+            });
+        }
+        seeded = true;
+        log.info("Order id filter seeded with {} ids", count[0]);
+    }
+
+    /**
+     * False only when the id has certainly never been used.
+     */
+    public boolean mightExist(String ondcOrderId) {
+        return !seeded || seen.mightContain(ondcOrderId);
+    }
+
+    /**
+     * The response returned when the order was created here recently, if any.
+     */
+    public OrderResponse recentResponse(String ondcOrderId) {
+        return recent.get(ondcOrderId);
+    }
+
+    public void remember(String ondcOrderId) {
+        seen.put(ondcOrderId);
+    }
+
+    public void remember(OrderResponse created) {
+        seen.put(created.getOndcOrderId());
+        recent.put(created.getOndcOrderId(), created);
+    }
+}
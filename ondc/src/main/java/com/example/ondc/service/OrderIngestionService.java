@@ -0,0 +1,386 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.OrderIngestionStatus;
+import com.example.ondc.dto.OrderItemRequest;
+import com.example.ondc.dto.OrderRequest;
+import com.example.ondc.dto.OrderResponse;
+import com.example.ondc.dto.OrderSearchHit;
+import com.example.ondc.enums.FulfillmentType;
+import com.example.ondc.enums.OrderPriority;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.event.OrderCreatedEvent;
+import com.example.ondc.event.OrderStatusChangedEvent;
+import com.example.ondc.exception.InvalidOperationException;
+import com.example.ondc.exception.QueueFullException;
+import com.example.ondc.exception.ResourceNotFoundException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous order ingestion.
+ *
+ * The request thread only validates the order and offers it to a bounded ring
+ * buffer, then answers 202. Consumer threads drain the buffer in batches and
+ * persist each batch with three lookups (products, vendors/outlets/seller apps)
+ * and two multi-row JDBC inserts — orders, then their items. If a batch fails
+ * as a whole its orders are retried one by one through
+ * {@link OrderService#createOrder} so a single bad order is isolated.
+ * Either way, orders then go through the {@link DecisionEngine} when it is on.
+ *
+ * When the buffer is full the offer waits offer-timeout-ms and then fails with
+ * 503 + Retry-After — backpressure goes to the caller instead of into memory.
+ *
+ * Enable with ondc.orders.ingest.enabled=true.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIngestionService {
+
+    private static final int MAX_TRACKED_STATUSES = 10_000;
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (ondc_order_id, status, priority, fulfillment_type, total_amount, " +
+            "customer_name, customer_phone, delivery_address, delivery_pincode, " +
+            "vendor_id, outlet_id, seller_app_id, created_at) " +
+            "VALUES (:ondcOrderId, :status, :priority, :fulfillmentType, :totalAmount, " +
+            ":customerName, :customerPhone, :deliveryAddress, :deliveryPincode, " +
+            ":vendorId, :outletId, :sellerAppId, :createdAt)";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO order_items (order_id, product_id, requested_qty, fulfilled_qty, unit_price) " +
+            "VALUES (:orderId, :productId, :requestedQty, 0, :unitPrice)";
+
+    private final OrderService orderService;
+    private final OutletService outletService;
+    private final OrderIdempotencyGuard idempotencyGuard;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${ondc.orders.ingest.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ondc.orders.ingest.capacity:10000}")
+    private int capacity;
+
+    @Value("${ondc.orders.ingest.consumers:2}")
+    private int consumerCount;
+
+    @Value("${ondc.orders.ingest.batch-size:200}")
+    private int batchSize;
+
+    @Value("${ondc.orders.ingest.offer-timeout-ms:100}")
+    private long offerTimeoutMillis;
+
+    private BlockingQueue<OrderRequest> buffer;
+    private final List<Thread> consumers = new ArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * Orders accepted but not yet persisted or failed — never evicted, and
+     * bounded anyway by the buffer capacity plus the batches being persisted.
+     */
+    private final Map<String, OrderIngestionStatus> inFlight = new ConcurrentHashMap<>();
+
+    /** Outcomes of finished orders, oldest dropped first. */
+    private final Map<String, OrderIngestionStatus> statuses = Collections.synchronizedMap(
+            new LinkedHashMap<>(1024, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, OrderIngestionStatus> eldest) {
+                    return size() > MAX_TRACKED_STATUSES;
+                }
+            });
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        buffer = new ArrayBlockingQueue<>(capacity);
+        running = true;
+        for (int i = 0; i < Math.max(1, consumerCount); i++) {
+            Thread consumer = new Thread(this::consume, "order-ingest-" + i);
+            consumer.setDaemon(true);
+            consumer.start();
+            consumers.add(consumer);
+        }
+        log.info("Order ingestion started: capacity {}, {} consumers, batch size {}",
+                capacity, consumers.size(), batchSize);
+    }
+
+    /**
+     * Stop accepting work and let the consumers drain what is already queued.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        for (Thread consumer : consumers) {
+            consumer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queue an order for persistence. Returns immediately; the outcome is
+     * available from {@link #getStatus(String)}.
+     */
+    public OrderIngestionStatus submit(OrderRequest request) {
+        if (!enabled || !running) {
+            throw new InvalidOperationException("Asynchronous order ingestion is not enabled");
+        }
+        for (OrderItemRequest item : request.getItems()) {
+            if (item.getProductId() == null || item.getRequestedQty() == null || item.getRequestedQty() <= 0) {
+                throw new InvalidOperationException("Every item needs a productId and a positive quantity");
+            }
+        }
+
+        // A retry of an order that is already stored is answered, not queued again
+        OrderResponse existing = orderService.findExisting(request.getOndcOrderId());
+        if (existing != null) {
+            return status(existing.getOndcOrderId(), "PERSISTED", existing.getId(), null);
+        }
+
+        OrderIngestionStatus queued = status(request.getOndcOrderId(), "QUEUED", null, null);
+        synchronized (inFlight) {
+            OrderIngestionStatus previous = inFlight.get(request.getOndcOrderId());
+            if (previous == null) {
+                previous = statuses.get(request.getOndcOrderId());
+            }
+            if (previous != null && !"FAILED".equals(previous.getState())) {
+                return previous;
+            }
+            inFlight.put(request.getOndcOrderId(), queued);
+        }
+
+        boolean accepted;
+        try {
+            accepted = buffer.offer(request, offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            inFlight.remove(request.getOndcOrderId());
+            throw new QueueFullException("Order ingestion queue is full, retry shortly");
+        }
+        queued.setQueueDepth(buffer.size());
+        return queued;
+    }
+
+    public OrderIngestionStatus getStatus(String ondcOrderId) {
+        OrderIngestionStatus status = inFlight.get(ondcOrderId);
+        if (status == null) {
+            status = statuses.get(ondcOrderId);
+        }
+        if (status == null) {
+            throw new ResourceNotFoundException("No ingestion record for order: " + ondcOrderId);
+        }
+        return status;
+    }
+
+    private void consume() {
+        List<OrderRequest> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                OrderRequest first = buffer.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                persist(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                log.error("Order ingestion consumer error", ex);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void persist(List<OrderRequest> batch) {
+        Map<String, Long> ids;
+        try {
+            ids = transactionTemplate.execute(status -> insertBatch(batch));
+        } catch (RuntimeException ex) {
+            log.warn("Batch insert of {} orders failed ({}), retrying individually", batch.size(), ex.getMessage());
+            batch.forEach(this::persistOne);
+            return;
+        }
+        ids.forEach((ondcOrderId, orderId) -> {
+            idempotencyGuard.remember(ondcOrderId);
+            finish(status(ondcOrderId, "PERSISTED", orderId, null));
+        });
+        // The batch bypassed createOrder, so auto-decision runs here once it has committed
+        try {
+            orderService.decidePersisted(ids.values());
+        } catch (RuntimeException ex) {
+            log.warn("Auto-decision for a batch of {} ingested orders failed: {}", ids.size(), ex.getMessage());
+        }
+    }
+
+    private void persistOne(OrderRequest request) {
+        try {
+            OrderResponse created = orderService.createOrder(request);
+            finish(status(request.getOndcOrderId(), "PERSISTED", created.getId(), null));
+        } catch (RuntimeException ex) {
+            finish(status(request.getOndcOrderId(), "FAILED", null, ex.getMessage()));
+        }
+    }
+
+    /**
+     * Record an outcome before dropping the in-flight entry, so a lookup never misses the order.
+     */
+    private void finish(OrderIngestionStatus outcome) {
+        statuses.put(outcome.getOndcOrderId(), outcome);
+        inFlight.remove(outcome.getOndcOrderId());
+    }
+
+    /**
+     * Insert a whole batch: references are checked with one IN-query per table,
+     * then orders and items go in as two JDBC batches. Any invalid order fails
+     * the batch (and sends it down the one-by-one path).
+     */
+    private Map<String, Long> insertBatch(List<OrderRequest> batch) {
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> vendorIds = new HashSet<>();
+        Set<Long> outletIds = new HashSet<>();
+        Set<Long> sellerAppIds = new HashSet<>();
+        for (OrderRequest request : batch) {
+            vendorIds.add(request.getVendorId());
+            if (request.getOutletId() != null) {
+                outletIds.add(request.getOutletId());
+            }
+            if (request.getSellerAppId() != null) {
+                sellerAppIds.add(request.getSellerAppId());
+            }
+            request.getItems().forEach(item -> productIds.add(item.getProductId()));
+        }
+
+        Map<Long, Double> prices = new HashMap<>();
+        jdbcTemplate.query("SELECT id, price FROM products WHERE id IN (:ids)", Map.of("ids", productIds),
+                rs -> {
+                    prices.put(rs.getLong("id"), rs.getDouble("price"));
+                });
+        requireAll("Vendor", vendorIds, existingIds("vendors", vendorIds));
+        requireAll("Outlet", outletIds, existingIds("outlets", outletIds));
+        requireAll("Seller app", sellerAppIds, existingIds("seller_apps", sellerAppIds));
+        requireAll("Product", productIds, prices.keySet());
+
+        LocalDateTime now = LocalDateTime.now();
+        List<SqlParameterSource> orders = new ArrayList<>(batch.size());
+        for (OrderRequest request : batch) {
+            Long outletId = request.getOutletId();
+            if (outletId == null && request.getDeliveryPincode() != null) {
+                Map<Long, Integer> basket = new HashMap<>();
+                request.getItems().forEach(item -> basket.merge(item.getProductId(), item.getRequestedQty(), Integer::sum));
+                outletId = outletService.findOptimalOutlet(
+                        request.getVendorId(), request.getDeliveryPincode(), basket).getId();
+            }
+            double total = 0.0;
+            for (OrderItemRequest item : request.getItems()) {
+                total += prices.get(item.getProductId()) * item.getRequestedQty();
+            }
+            orders.add(new MapSqlParameterSource()
+                    .addValue("ondcOrderId", request.getOndcOrderId())
+                    .addValue("status", OrderStatus.PENDING.name())
+                    .addValue("priority", (request.getPriority() != null
+                            ? request.getPriority() : OrderPriority.MEDIUM).name())
+                    .addValue("fulfillmentType", FulfillmentType.FULL.name())
+                    .addValue("totalAmount", total)
+                    .addValue("customerName", request.getCustomerName())
+                    .addValue("customerPhone", request.getCustomerPhone())
+                    .addValue("deliveryAddress", request.getDeliveryAddress())
+                    .addValue("deliveryPincode", request.getDeliveryPincode())
+                    .addValue("vendorId", request.getVendorId())
+                    .addValue("outletId", outletId)
+                    .addValue("sellerAppId", request.getSellerAppId())
+                    .addValue("createdAt", now));
+        }
+        jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, orders.toArray(new SqlParameterSource[0]));
+
+        // Generated keys are not portable across batched inserts — read them back by the unique ONDC id
+        Map<String, Long> ids = new LinkedHashMap<>();
+        List<String> ondcOrderIds = batch.stream().map(OrderRequest::getOndcOrderId).toList();
+        jdbcTemplate.query("SELECT id, ondc_order_id FROM orders WHERE ondc_order_id IN (:ids)",
+                Map.of("ids", ondcOrderIds),
+                rs -> {
+                    ids.put(rs.getString("ondc_order_id"), rs.getLong("id"));
+                });
+
+        List<SqlParameterSource> items = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OrderRequest request = batch.get(i);
+            Long orderId = ids.get(request.getOndcOrderId());
+            eventPublisher.publishEvent(new OrderStatusChangedEvent(orderId, request.getVendorId(),
+                    (Long) orders.get(i).getValue("outletId"),
+                    request.getPriority() != null ? request.getPriority() : OrderPriority.MEDIUM,
+                    null, OrderStatus.PENDING, null, now, now));
+            eventPublisher.publishEvent(new OrderCreatedEvent(OrderSearchHit.builder()
+                    .orderId(orderId)
+                    .vendorId(request.getVendorId())
+                    .ondcOrderId(request.getOndcOrderId())
+                    .customerName(request.getCustomerName())
+                    .customerPhone(request.getCustomerPhone())
+                    .deliveryPincode(request.getDeliveryPincode())
+                    .status(OrderStatus.PENDING)
+                    .createdAt(now)
+                    .build()));
+            for (OrderItemRequest item : request.getItems()) {
+                items.add(new MapSqlParameterSource()
+                        .addValue("orderId", orderId)
+                        .addValue("productId", item.getProductId())
+                        .addValue("requestedQty", item.getRequestedQty())
+                        .addValue("unitPrice", prices.get(item.getProductId())));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, items.toArray(new SqlParameterSource[0]));
+        return ids;
+    }
+
+    private Set<Long> existingIds(String table, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT id FROM " + table + " WHERE id IN (:ids)", Map.of("ids", ids), Long.class));
+    }
+
+    private static void requireAll(String kind, Set<Long> wanted, Set<Long> found) {
+        for (Long id : wanted) {
+            if (!found.contains(id)) {
+                throw new ResourceNotFoundException(kind + " not found with id: " + id);
+            }
+        }
+    }
+
+    private static OrderIngestionStatus status(String ondcOrderId, String state, Long orderId, String message) {
+        return OrderIngestionStatus.builder()
+                .ondcOrderId(ondcOrderId)
+                .state(state)
+                .orderId(orderId)
+                .message(message)
+                .build();
+    }
+}
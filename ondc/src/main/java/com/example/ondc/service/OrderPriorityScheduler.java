@@ -0,0 +1,212 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.OpenOrder;
+import com.example.ondc.enums.OrderPriority;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.event.OrderStatusChangedEvent;
+import com.example.ondc.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Per-vendor queue of open orders — pending, accepted or partially
+ * fulfilled — earliest SLA deadline first.
+ *
+ * An order's deadline is its creation time plus the SLA of its priority, so
+ * priority decides the order among orders of the same age, and age wins
+ * over priority once the gap exceeds the SLA difference: a LOW order that
+ * has waited longer than (LOW SLA - CRITICAL SLA) ranks ahead of a fresh
+ * CRITICAL one. The key never changes while the order waits, so the queues
+ * are sorted sets updated in O(log n) from {@link OrderStatusChangedEvent}s
+ * and the top k are read in O(k).
+ *
+ * Loaded from the orders table on startup and reconciled periodically. A
+ * rebuild loads into fresh queues while events keep updating the live ones;
+ * events that arrive meanwhile are also buffered and replayed into the fresh
+ * queues before they are swapped in, so none is lost to the snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPriorityScheduler {
+
+    /** Every status but the terminal ones. */
+    public static final Set<OrderStatus> OPEN =
+            EnumSet.of(OrderStatus.PENDING, OrderStatus.ACCEPTED, OrderStatus.PARTIALLY_FULFILLED);
+
+    private static final Comparator<Slot> EARLIEST_DEADLINE =
+            Comparator.comparingLong(Slot::deadline).thenComparingLong(Slot::orderId);
+
+    private final OrderRepository orderRepository;
+
+    @Value("${ondc.orders.scheduler.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ondc.orders.scheduler.sla-minutes.critical:5}")
+    private long criticalSlaMinutes;
+
+    @Value("${ondc.orders.scheduler.sla-minutes.high:15}")
+    private long highSlaMinutes;
+
+    @Value("${ondc.orders.scheduler.sla-minutes.medium:60}")
+    private long mediumSlaMinutes;
+
+    @Value("${ondc.orders.scheduler.sla-minutes.low:240}")
+    private long lowSlaMinutes;
+
+    private volatile Queues state = new Queues();
+
+    /** Events seen while a rebuild is loading, replayed before the swap; null otherwise. */
+    private List<OrderStatusChangedEvent> pending;
+    private final Object swapLock = new Object();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ondc.orders.scheduler.reconcile-ms:600000}",
+               initialDelayString = "${ondc.orders.scheduler.reconcile-ms:600000}")
+    public void reconcile() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Queues target;
+        synchronized (swapLock) {
+            if (pending != null) {
+                pending.add(event);
+            }
+            target = state;
+        }
+        apply(target, event);
+    }
+
+    /**
+     * Ids of the vendor's k most urgent open orders, most urgent first.
+     */
+    public List<Long> top(Long vendorId, int k) {
+        List<Long> ids = new ArrayList<>(Math.min(k, 64));
+        NavigableSet<Slot> queue = state.queues.get(vendorId);
+        if (queue == null) {
+            return ids;
+        }
+        Iterator<Slot> it = queue.iterator();
+        while (ids.size() < k && it.hasNext()) {
+            ids.add(it.next().orderId());
+        }
+        return ids;
+    }
+
+    private void apply(Queues target, OrderStatusChangedEvent event) {
+        if (OPEN.contains(event.status())) {
+            target.add(new Slot(deadline(event.priority(), event.createdAt()), event.orderId(), event.vendorId()));
+        } else {
+            target.remove(event.orderId());
+        }
+    }
+
+    private long deadline(OrderPriority priority, LocalDateTime createdAt) {
+        long created = createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return created + slaMinutes(priority) * 60_000;
+    }
+
+    private long slaMinutes(OrderPriority priority) {
+        if (priority == null) {
+            return mediumSlaMinutes;
+        }
+        return switch (priority) {
+            case CRITICAL -> criticalSlaMinutes;
+            case HIGH -> highSlaMinutes;
+            case MEDIUM -> mediumSlaMinutes;
+            case LOW -> lowSlaMinutes;
+        };
+    }
+
+    private synchronized void rebuild() {
+        synchronized (swapLock) {
+            pending = new ArrayList<>();
+        }
+        Queues rebuilt = new Queues();
+        try {
+            for (OpenOrder open : orderRepository.findOpenOrders(OPEN)) {
+                rebuilt.add(new Slot(deadline(open.getPriority(), open.getCreatedAt()),
+                        open.getOrderId(), open.getVendorId()));
+            }
+        } catch (RuntimeException ex) {
+            synchronized (swapLock) {
+                pending = null;
+            }
+            throw ex;
+        }
+        int replayed;
+        synchronized (swapLock) {
+            replayed = pending.size();
+            pending.forEach(event -> apply(rebuilt, event));
+            pending = null;
+            state = rebuilt;
+        }
+        log.info("Order priority queues rebuilt: {} open orders across {} vendors, {} events replayed",
+                rebuilt.slots.size(), rebuilt.queues.size(), replayed);
+    }
+
+    /**
+     * Queues plus the slot of each queued order, swapped as one on rebuild.
+     */
+    private static final class Queues {
+        private final Map<Long, NavigableSet<Slot>> queues = new ConcurrentHashMap<>();
+        private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+
+        private void add(Slot slot) {
+            Slot previous = slots.put(slot.orderId(), slot);
+            if (previous != null) {
+                queueOf(previous.vendorId()).remove(previous);
+            }
+            queueOf(slot.vendorId()).add(slot);
+        }
+
+        private void remove(Long orderId) {
+            Slot slot = slots.remove(orderId);
+            if (slot != null) {
+                queueOf(slot.vendorId()).remove(slot);
+            }
+        }
+
+        private NavigableSet<Slot> queueOf(Long vendorId) {
+            return queues.computeIfAbsent(vendorId, id -> new ConcurrentSkipListSet<>(EARLIEST_DEADLINE));
+        }
+    }
+
+    private record Slot(long deadline, long orderId, Long vendorId) {
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.OpenOrder;
+import com.example.ondc.dto.OutletQueueResponse;
+import com.example.ondc.dto.StatusCount;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.event.OrderStatusChangedEvent;
+import com.example.ondc.event.OrdersArchivedEvent;
+import com.example.ondc.repository.ArchivedOrderRepository;
+import com.example.ondc.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Denormalized order views kept current from committed
+ * {@link OrderStatusChangedEvent}s, so reading them is a map lookup:
+ * <ul>
+ *   <li>order counts per vendor and status (dashboard)</li>
+ *   <li>archived order counts per vendor and status, so lifetime totals
+ *       survive the archiver</li>
+ *   <li>per-outlet dispatch queue: accepted orders waiting at each outlet</li>
+ * </ul>
+ * Per-vendor open orders are the {@link OrderPriorityScheduler}'s queues,
+ * fed by the same events.
+ *
+ * Built from three grouped queries on startup and reconciled periodically.
+ * Changes that arrive while a rebuild is loading are buffered; before the
+ * swap, each order they touch is taken out of the new views as the snapshot
+ * saw it and put back at its latest status, so nothing is lost or counted
+ * twice.
+ * With ondc.orders.read-models.enabled off, the same answers come from queries.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderReadModels {
+
+    private static final Set<OrderStatus> QUEUED = EnumSet.of(OrderStatus.ACCEPTED, OrderStatus.PARTIALLY_FULFILLED);
+    private static final int STATUS_COUNT = OrderStatus.values().length;
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${ondc.orders.read-models.enabled:false}")
+    private boolean enabled;
+
+    private volatile Views views = new Views();
+
+    /** Changes seen while a rebuild is loading, replayed before the swap; null otherwise. */
+    private List<Change> pending;
+    private final Object swapLock = new Object();
+
+    private TransactionTemplate snapshotRead;
+
+    @PostConstruct
+    void initTransactionTemplate() {
+        // Every rebuild query must see the same snapshot, or the replay cannot tell what it already holds
+        snapshotRead = new TransactionTemplate(transactionManager);
+        snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshotRead.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ondc.orders.read-models.reconcile-ms:600000}",
+               initialDelayString = "${ondc.orders.read-models.reconcile-ms:600000}")
+    public void reconcile() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (enabled) {
+            apply(new Change(event.orderId(), event.vendorId(), event.outletId(),
+                    event.previousStatus(), event.status()));
+        }
+    }
+
+    /**
+     * Archived orders leave the hot tables, and the counts follow them into
+     * the archived tally.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersArchived(OrdersArchivedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        for (OpenOrder order : event.orders()) {
+            apply(new Change(order.getOrderId(), order.getVendorId(), order.getOutletId(), order.getStatus(), null));
+        }
+    }
+
+    /**
+     * A vendor's order count per status (statuses with no orders are 0).
+     */
+    public Map<OrderStatus, Long> statusCounts(Long vendorId) {
+        Map<OrderStatus, Long> result = new EnumMap<>(OrderStatus.class);
+        for (OrderStatus status : OrderStatus.values()) {
+            result.put(status, 0L);
+        }
+        if (enabled) {
+            AtomicLongArray counts = views.statusCounts.get(vendorId);
+            if (counts != null) {
+                for (OrderStatus status : OrderStatus.values()) {
+                    result.put(status, counts.get(status.ordinal()));
+                }
+            }
+        } else {
+            orderRepository.countByStatus(vendorId).forEach(count -> result.put(count.getStatus(), count.getCount()));
+        }
+        return result;
+    }
+
+    /**
+     * A vendor's order count per status over its whole history: hot orders
+     * plus those the archiver has moved out.
+     */
+    public Map<OrderStatus, Long> lifetimeStatusCounts(Long vendorId) {
+        Map<OrderStatus, Long> result = statusCounts(vendorId);
+        if (enabled) {
+            AtomicLongArray archived = views.archivedCounts.get(vendorId);
+            if (archived != null) {
+                for (OrderStatus status : OrderStatus.values()) {
+                    result.merge(status, archived.get(status.ordinal()), Long::sum);
+                }
+            }
+        } else {
+            archivedOrderRepository.countByStatus(vendorId)
+                    .forEach(count -> result.merge(count.getStatus(), count.getCount(), Long::sum));
+        }
+        return result;
+    }
+
+    /**
+     * Accepted orders waiting at an outlet, oldest id first.
+     */
+    public OutletQueueResponse outletQueue(Long outletId) {
+        List<Long> ids;
+        if (enabled) {
+            NavigableSet<Long> queue = views.outletQueues.get(outletId);
+            ids = queue != null ? new ArrayList<>(queue) : new ArrayList<>();
+        } else {
+            ids = orderRepository.findIdsByOutletAndStatusIn(outletId, QUEUED);
+        }
+        return OutletQueueResponse.builder()
+                .outletId(outletId)
+                .size(ids.size())
+                .orderIds(ids)
+                .build();
+    }
+
+    private void apply(Change change) {
+        Views target;
+        synchronized (swapLock) {
+            if (pending != null) {
+                pending.add(change);
+            }
+            target = views;
+        }
+        target.apply(change);
+    }
+
+    private synchronized void rebuild() {
+        synchronized (swapLock) {
+            pending = new ArrayList<>();
+        }
+        int[] replayed = new int[1];
+        Views rebuilt;
+        try {
+            rebuilt = snapshotRead.execute(status -> {
+                Views loaded = new Views();
+                for (StatusCount count : orderRepository.countByVendorAndStatus()) {
+                    loaded.countsOf(count.getVendorId()).set(count.getStatus().ordinal(), count.getCount());
+                }
+                for (StatusCount count : archivedOrderRepository.countByVendorAndStatus()) {
+                    loaded.archivedOf(count.getVendorId()).set(count.getStatus().ordinal(), count.getCount());
+                }
+                for (OpenOrder order : orderRepository.findOpenOrders(QUEUED)) {
+                    if (order.getOutletId() != null) {
+                        loaded.queueOf(order.getOutletId()).add(order.getOrderId());
+                    }
+                }
+                replayed[0] = replayAndSwap(loaded);
+                return loaded;
+            });
+        } catch (RuntimeException ex) {
+            synchronized (swapLock) {
+                pending = null;
+            }
+            throw ex;
+        }
+        log.info("Order read models rebuilt: counts for {} vendors, queues for {} outlets, {} changes replayed",
+                rebuilt.statusCounts.size(), rebuilt.outletQueues.size(), replayed[0]);
+    }
+
+    /**
+     * Runs inside the snapshot transaction. Reads how the snapshot saw each
+     * order a buffered change touched — outside the lock, looping until no
+     * new order has arrived — then, under the lock, moves those orders to
+     * their latest status and swaps the views in.
+     */
+    private int replayAndSwap(Views loaded) {
+        Map<Long, OpenOrder> seen = new HashMap<>();
+        while (true) {
+            List<Long> unseen;
+            synchronized (swapLock) {
+                unseen = pending.stream().map(Change::orderId).filter(id -> !seen.containsKey(id)).distinct().toList();
+                if (unseen.isEmpty()) {
+                    Map<Long, Change> latest = new LinkedHashMap<>();
+                    pending.forEach(change -> latest.put(change.orderId(), change));
+                    for (Change last : latest.values()) {
+                        OpenOrder before = seen.get(last.orderId());
+                        if (before != null) {
+                            loaded.takeOut(before);
+                        }
+                        if (last.status() != null) {
+                            loaded.apply(new Change(last.orderId(), last.vendorId(), last.outletId(),
+                                    null, last.status()));
+                        } else if (before != null) {
+                            // Archived after the snapshot, so its archive tally does not hold it yet
+                            loaded.archivedOf(before.getVendorId()).incrementAndGet(before.getStatus().ordinal());
+                        }
+                    }
+                    int replayed = pending.size();
+                    pending = null;
+                    views = loaded;
+                    return replayed;
+                }
+            }
+            for (OpenOrder order : orderRepository.findSchedulingFieldsByIdIn(unseen)) {
+                seen.put(order.getOrderId(), order);
+            }
+            // Not in the snapshot: created after it was taken
+            unseen.forEach(id -> seen.putIfAbsent(id, null));
+        }
+    }
+
+    /**
+     * An order moving from previous to status; a null previous means it was
+     * created, a null status that it was archived.
+     */
+    private record Change(Long orderId, Long vendorId, Long outletId, OrderStatus previous, OrderStatus status) {
+    }
+
+    private static final class Views {
+        private final Map<Long, AtomicLongArray> statusCounts = new ConcurrentHashMap<>();
+        private final Map<Long, NavigableSet<Long>> outletQueues = new ConcurrentHashMap<>();
+        private final Map<Long, AtomicLongArray> archivedCounts = new ConcurrentHashMap<>();
+
+        void apply(Change change) {
+            AtomicLongArray counts = countsOf(change.vendorId());
+            if (change.previous() != null) {
+                counts.decrementAndGet(change.previous().ordinal());
+            }
+            if (change.status() != null) {
+                counts.incrementAndGet(change.status().ordinal());
+            } else {
+                archivedOf(change.vendorId()).incrementAndGet(change.previous().ordinal());
+            }
+
+            if (change.outletId() == null) {
+                return;
+            }
+            if (change.previous() != null && QUEUED.contains(change.previous())) {
+                queueOf(change.outletId()).remove(change.orderId());
+            }
+            if (change.status() != null && QUEUED.contains(change.status())) {
+                queueOf(change.outletId()).add(change.orderId());
+            }
+        }
+
+        /**
+         * Remove an order from the hot views as the snapshot saw it.
+         */
+        void takeOut(OpenOrder order) {
+            countsOf(order.getVendorId()).decrementAndGet(order.getStatus().ordinal());
+            if (order.getOutletId() != null && QUEUED.contains(order.getStatus())) {
+                queueOf(order.getOutletId()).remove(order.getOrderId());
+            }
+        }
+
+        AtomicLongArray archivedOf(Long vendorId) {
+            return archivedCounts.computeIfAbsent(vendorId, id -> new AtomicLongArray(STATUS_COUNT));
+        }
+
+        AtomicLongArray countsOf(Long vendorId) {
+            return statusCounts.computeIfAbsent(vendorId, id -> new AtomicLongArray(STATUS_COUNT));
+        }
+
+        NavigableSet<Long> queueOf(Long outletId) {
+            return outletQueues.computeIfAbsent(outletId, id -> new ConcurrentSkipListSet<>());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.OrderItemResponse;
+import com.example.ondc.dto.OrderItemRow;
+import com.example.ondc.dto.OrderResponse;
+import com.example.ondc.entity.ArchivedOrder;
+import com.example.ondc.entity.ArchivedOrderItem;
+import com.example.ondc.entity.Order;
+import com.example.ondc.entity.OrderItem;
+import com.example.ondc.exception.ResourceNotFoundException;
+import com.example.ondc.repository.ArchivedOrderItemRepository;
+import com.example.ondc.repository.ArchivedOrderRepository;
+import com.example.ondc.repository.OrderItemRepository;
+import com.example.ondc.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Read path for {@link OrderResponse}s: any number of orders in exactly two
+ * queries — the orders with vendor, outlet and seller app joined in, then
+ * all their items with product fields as a flat projection — instead of one
+ * lazy load per association and per item.
+ *
+ * A single order not found in the hot tables is looked up in the archive
+ * (see {@link OrderArchiver}); listings only cover the hot tables.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderReader {
+
+    private final OrderRepository orderRepository;
+    private final OrderItemRepository orderItemRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderItemRepository archivedOrderItemRepository;
+
+    /**
+     * Responses for the given ids, in the same order; ids not found are skipped.
+     */
+    @Transactional(readOnly = true)
+    public List<OrderResponse> read(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Order> orders = new HashMap<>();
+        orderRepository.findAllWithReferencesByIdIn(ids).forEach(order -> orders.put(order.getId(), order));
+        Map<Long, List<OrderItemResponse>> items = new HashMap<>();
+        for (OrderItemRow row : orderItemRepository.findRowsByOrderIdIn(orders.keySet())) {
+            items.computeIfAbsent(row.getOrderId(), id -> new ArrayList<>()).add(toItemResponse(row));
+        }
+        List<OrderResponse> responses = new ArrayList<>(orders.size());
+        for (Long id : ids) {
+            Order order = orders.get(id);
+            if (order != null) {
+                responses.add(toResponse(order, items.getOrDefault(id, new ArrayList<>())));
+            }
+        }
+        return responses;
+    }
+
+    @Transactional(readOnly = true)
+    public OrderResponse read(Long id) {
+        List<OrderResponse> found = read(List.of(id));
+        if (!found.isEmpty()) {
+            return found.get(0);
+        }
+        return archivedOrderRepository.findById(id)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
+    }
+
+    /**
+     * Response for an order whose items and references are already loaded.
+     */
+    public OrderResponse toResponse(Order order) {
+        return toResponse(order, order.getItems().stream()
+                .map(OrderReader::toItemResponse)
+                .collect(Collectors.toList()));
+    }
+
+    private OrderResponse toResponse(Order order, List<OrderItemResponse> items) {
+        return OrderResponse.builder()
+                .id(order.getId())
+                .ondcOrderId(order.getOndcOrderId())
+                .status(order.getStatus())
+                .priority(order.getPriority())
+                .fulfillmentType(order.getFulfillmentType())
+                .totalAmount(order.getTotalAmount())
+                .customerName(order.getCustomerName())
+                .customerPhone(order.getCustomerPhone())
+                .deliveryAddress(order.getDeliveryAddress())
+                .deliveryPincode(order.getDeliveryPincode())
+                .vendorId(order.getVendor().getId())
+                .vendorName(order.getVendor().getName())
+                .outletId(order.getOutlet() != null ? order.getOutlet().getId() : null)
+                .outletName(order.getOutlet() != null ? order.getOutlet().getName() : null)
+                .sellerAppId(order.getSellerApp() != null ? order.getSellerApp().getId() : null)
+                .sellerAppName(order.getSellerApp() != null ? order.getSellerApp().getName() : null)
+                .rejectionReason(order.getRejectionReason())
+                .items(items)
+                .createdAt(order.getCreatedAt())
+                .acceptedAt(order.getAcceptedAt())
+                .fulfilledAt(order.getFulfilledAt())
+                .build();
+    }
+
+    private OrderResponse toResponse(ArchivedOrder order) {
+        List<OrderItemResponse> items = archivedOrderItemRepository.findByOrderIdOrderByIdAsc(order.getId()).stream()
+                .map(OrderReader::toItemResponse)
+                .collect(Collectors.toList());
+        return OrderResponse.builder()
+                .id(order.getId())
+                .ondcOrderId(order.getOndcOrderId())
+                .status(order.getStatus())
+                .priority(order.getPriority())
+                .fulfillmentType(order.getFulfillmentType())
+                .totalAmount(order.getTotalAmount())
+                .customerName(order.getCustomerName())
+                .customerPhone(order.getCustomerPhone())
+                .deliveryAddress(order.getDeliveryAddress())
+                .deliveryPincode(order.getDeliveryPincode())
+                .vendorId(order.getVendorId())
+                .vendorName(order.getVendorName())
+                .outletId(order.getOutletId())
+                .outletName(order.getOutletName())
+                .sellerAppId(order.getSellerAppId())
+                .sellerAppName(order.getSellerAppName())
+                .rejectionReason(order.getRejectionReason())
+                .items(items)
+                .createdAt(order.getCreatedAt())
+                .acceptedAt(order.getAcceptedAt())
+                .fulfilledAt(order.getFulfilledAt())
+                .build();
+    }
+
+    private static OrderItemResponse toItemResponse(OrderItem item) {
+        return OrderItemResponse.builder()
+                .id(item.getId())
+                .productId(item.getProduct().getId())
+                .productName(item.getProduct().getName())
+                .productSku(item.getProduct().getSku())
+                .requestedQty(item.getRequestedQty())
+                .fulfilledQty(item.getFulfilledQty())
+                .unitPrice(item.getUnitPrice())
+                .lineTotal(item.getLineTotal())
+                .build();
+    }
+
+    private static OrderItemResponse toItemResponse(OrderItemRow row) {
+        return OrderItemResponse.builder()
+                .id(row.getId())
+                .productId(row.getProductId())
+                .productName(row.getProductName())
+                .productSku(row.getProductSku())
+                .requestedQty(row.getRequestedQty())
+                .fulfilledQty(row.getFulfilledQty())
+                .unitPrice(row.getUnitPrice())
+                .lineTotal(row.getFulfilledQty() * row.getUnitPrice())
+                .build();
+    }
+
+    private static OrderItemResponse toItemResponse(ArchivedOrderItem item) {
+        int fulfilled = item.getFulfilledQty() != null ? item.getFulfilledQty() : 0;
+        return OrderItemResponse.builder()
+                .id(item.getId())
+                .productId(item.getProductId())
+                .productName(item.getProductName())
+                .productSku(item.getProductSku())
+                .requestedQty(item.getRequestedQty())
+                .fulfilledQty(fulfilled)
+                .unitPrice(item.getUnitPrice())
+                .lineTotal(fulfilled * item.getUnitPrice())
+                .build();
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.OrderSearchHit;
+import com.example.ondc.dto.OrderSearchRequest;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.event.OrderCreatedEvent;
+import com.example.ondc.event.OrderStatusChangedEvent;
+import com.example.ondc.event.OrdersArchivedEvent;
+import com.example.ondc.exception.InvalidOperationException;
+import com.example.ondc.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index for support lookups of open and recent orders by
+ * customer phone, delivery pincode, ONDC order id and customer name.
+ *
+ * Each field maps its terms, in sorted order, to the ids of orders holding
+ * them, so a prefix is a range scan over terms. Phones are indexed as digits
+ * (and by their last ten digits, so a number matches with or without a
+ * country code), names per word, ids and names case-insensitively. A query
+ * ANDs its fields by walking the smallest candidate set and probing the others.
+ *
+ * Orders enter on {@link OrderCreatedEvent}, follow their status through
+ * {@link OrderStatusChangedEvent} and leave when archived. Terminal orders
+ * stay searchable for recent-days; the periodic rebuild drops older ones.
+ * Events that arrive while a rebuild is loading are buffered and replayed
+ * into the new index before it is swapped in.
+ * With ondc.orders.search.enabled off, searches run as LIKE queries instead.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderSearchIndex {
+
+    private static final Set<OrderStatus> TERMINAL =
+            EnumSet.of(OrderStatus.REJECTED, OrderStatus.FULFILLED, OrderStatus.CANCELLED);
+    private static final int MAX_LIMIT = 100;
+    private static final int NATIONAL_NUMBER_DIGITS = 10;
+
+    private final OrderRepository orderRepository;
+
+    @Value("${ondc.orders.search.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ondc.orders.search.recent-days:7}")
+    private int recentDays;
+
+    private volatile Index index = new Index();
+
+    /** Changes seen while a rebuild is loading, replayed before the swap; null otherwise. */
+    private List<Consumer<Index>> pending;
+    private final Object swapLock = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ondc.orders.search.reconcile-ms:600000}",
+               initialDelayString = "${ondc.orders.search.reconcile-ms:600000}")
+    public void reconcile() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (enabled) {
+            apply(current -> current.add(event.order()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (enabled && event.previousStatus() != null) {
+            apply(current -> current.updateStatus(event.orderId(), event.status()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrdersArchived(OrdersArchivedEvent event) {
+        if (enabled) {
+            apply(current -> event.orders().forEach(order -> current.remove(order.getOrderId())));
+        }
+    }
+
+    /**
+     * Orders matching every given field, newest first.
+     */
+    public List<OrderSearchHit> search(OrderSearchRequest request) {
+        String phone = digits(request.getCustomerPhone());
+        String pincode = trimmed(request.getDeliveryPincode());
+        String ondcOrderId = lower(request.getOndcOrderId());
+        List<String> nameWords = words(request.getCustomerName());
+        if (phone == null && pincode == null && ondcOrderId == null && nameWords.isEmpty()) {
+            throw new InvalidOperationException(
+                    "Search needs at least one of customerPhone, deliveryPincode, ondcOrderId, customerName");
+        }
+        int limit = Math.max(1, Math.min(request.getLimit() != null ? request.getLimit() : 20, MAX_LIMIT));
+
+        if (!enabled) {
+            return orderRepository.search(
+                    phone != null ? phone + "%" : null,
+                    pincode != null ? pincode + "%" : null,
+                    ondcOrderId != null ? ondcOrderId + "%" : null,
+                    nameWords.isEmpty() ? null : String.join(" ", nameWords) + "%",
+                    request.getVendorId(), request.getStatus(), PageRequest.ofSize(limit));
+        }
+
+        Index current = index;
+        List<Set<Long>> clauses = new ArrayList<>();
+        if (phone != null) {
+            clauses.add(current.phones.prefix(phone));
+        }
+        if (pincode != null) {
+            clauses.add(current.pincodes.prefix(pincode));
+        }
+        if (ondcOrderId != null) {
+            clauses.add(current.ondcOrderIds.prefix(ondcOrderId));
+        }
+        for (String word : nameWords) {
+            clauses.add(current.names.prefix(word));
+        }
+        clauses.sort(Comparator.comparingInt(Set::size));
+
+        List<OrderSearchHit> hits = new ArrayList<>();
+        Set<Long> smallest = clauses.get(0);
+        List<Set<Long>> others = clauses.subList(1, clauses.size());
+        for (Long id : smallest) {
+            if (others.stream().allMatch(ids -> ids.contains(id))) {
+                OrderSearchHit hit = current.docs.get(id);
+                if (hit != null
+                        && (request.getVendorId() == null || request.getVendorId().equals(hit.getVendorId()))
+                        && (request.getStatus() == null || request.getStatus() == hit.getStatus())) {
+                    hits.add(hit);
+                }
+            }
+        }
+        hits.sort(Comparator.comparing(OrderSearchHit::getOrderId).reversed());
+        return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+    }
+
+    private void apply(Consumer<Index> change) {
+        Index target;
+        synchronized (swapLock) {
+            if (pending != null) {
+                pending.add(change);
+            }
+            target = index;
+        }
+        change.accept(target);
+    }
+
+    private synchronized void rebuild() {
+        synchronized (swapLock) {
+            pending = new ArrayList<>();
+        }
+        Index rebuilt = new Index();
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(recentDays);
+            orderRepository.findSearchable(TERMINAL, cutoff).forEach(rebuilt::add);
+        } catch (RuntimeException ex) {
+            synchronized (swapLock) {
+                pending = null;
+            }
+            throw ex;
+        }
+        int replayed;
+        synchronized (swapLock) {
+            replayed = pending.size();
+            pending.forEach(change -> change.accept(rebuilt));
+            pending = null;
+            index = rebuilt;
+        }
+        log.info("Order search index rebuilt with {} orders, {} changes replayed", rebuilt.docs.size(), replayed);
+    }
+
+    private static String trimmed(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim();
+    }
+
+    private static String lower(String value) {
+        String trimmed = trimmed(value);
+        return trimmed != null ? trimmed.toLowerCase(Locale.ROOT) : null;
+    }
+
+    private static String digits(String value) {
+        if (value == null) {
+            return null;
+        }
+        String digits = value.replaceAll("\\D", "");
+        return digits.isEmpty() ? null : digits;
+    }
+
+    private static List<String> words(String value) {
+        List<String> words = new ArrayList<>();
+        String lower = lower(value);
+        if (lower != null) {
+            for (String word : lower.split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty()) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    private static Set<String> phoneTerms(String phone) {
+        Set<String> terms = new HashSet<>();
+        String digits = digits(phone);
+        if (digits != null) {
+            terms.add(digits);
+            if (digits.length() > NATIONAL_NUMBER_DIGITS) {
+                terms.add(digits.substring(digits.length() - NATIONAL_NUMBER_DIGITS));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * One generation of the index; a rebuild swaps in a new one whole.
+     */
+    private static final class Index {
+        final Map<Long, OrderSearchHit> docs = new ConcurrentHashMap<>();
+        final TermIndex phones = new TermIndex();
+        final TermIndex pincodes = new TermIndex();
+        final TermIndex ondcOrderIds = new TermIndex();
+        final TermIndex names = new TermIndex();
+
+        void add(OrderSearchHit hit) {
+            // A replayed creation must not overwrite the newer status a rebuild loaded
+            if (docs.putIfAbsent(hit.getOrderId(), hit) != null) {
+                return;
+            }
+            Long id = hit.getOrderId();
+            phoneTerms(hit.getCustomerPhone()).forEach(term -> phones.add(term, id));
+            String pincode = trimmed(hit.getDeliveryPincode());
+            if (pincode != null) {
+                pincodes.add(pincode, id);
+            }
+            String ondcOrderId = lower(hit.getOndcOrderId());
+            if (ondcOrderId != null) {
+                ondcOrderIds.add(ondcOrderId, id);
+            }
+            words(hit.getCustomerName()).forEach(word -> names.add(word, id));
+        }
+
+        void updateStatus(Long id, OrderStatus status) {
+            // Hits are shared with search results, so replace rather than mutate
+            docs.computeIfPresent(id, (key, hit) -> OrderSearchHit.builder()
+                    .orderId(hit.getOrderId())
+                    .vendorId(hit.getVendorId())
+                    .ondcOrderId(hit.getOndcOrderId())
+                    .customerName(hit.getCustomerName())
+                    .customerPhone(hit.getCustomerPhone())
+                    .deliveryPincode(hit.getDeliveryPincode())
+                    .status(status)
+                    .createdAt(hit.getCreatedAt())
+                    .build());
+        }
+
+        void remove(Long id) {
+            OrderSearchHit hit = docs.remove(id);
+            if (hit == null) {
+                return;
+            }
+            phoneTerms(hit.getCustomerPhone()).forEach(term -> phones.remove(term, id));
+            String pincode = trimmed(hit.getDeliveryPincode());
+            if (pincode != null) {
+                pincodes.remove(pincode, id);
+            }
+            String ondcOrderId = lower(hit.getOndcOrderId());
+            if (ondcOrderId != null) {
+                ondcOrderIds.remove(ondcOrderId, id);
+            }
+            words(hit.getCustomerName()).forEach(word -> names.remove(word, id));
+        }
+    }
+
+    /**
+     * Sorted term -> order ids. Emptied posting sets are left in place until
+     * the next rebuild, which keeps add and remove free of check-then-act races.
+     */
+    private static final class TermIndex {
+        final ConcurrentSkipListMap<String, Set<Long>> postings = new ConcurrentSkipListMap<>();
+
+        void add(String term, Long id) {
+            postings.computeIfAbsent(term, t -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+
+        void remove(String term, Long id) {
+            Set<Long> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+
+        Set<Long> prefix(String prefix) {
+            Iterator<Set<Long>> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+                    .values().iterator();
+            if (!range.hasNext()) {
+                return Set.of();
+            }
+            Set<Long> first = range.next();
+            if (!range.hasNext()) {
+                return first;
+            }
+            Set<Long> ids = new HashSet<>(first);
+            range.forEachRemaining(ids::addAll);
+            return ids;
+        }
+    }
+}
@@ -3,64 +3,211 @@ package com.example.ondc.service;
 import com.example.ondc.dto.*;
 import com.example.ondc.entity.*;
 import com.example.ondc.enums.*;
+import com.example.ondc.event.OrderAcceptedEvent;
+import com.example.ondc.event.OrderCreatedEvent;
+import com.example.ondc.event.OrderStatusChangedEvent;
+import com.example.ondc.event.ReservationHoldsExpiredEvent;
 import com.example.ondc.exception.*;
+import com.example.ondc.repository.ArchivedOrderRepository;
 import com.example.ondc.repository.OrderRepository;
+import com.example.ondc.util.OrderCursor;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final int DISPATCH_CHUNK_SIZE = 200;
+    private static final int DEFAULT_PRIORITIZED_LIMIT = 50;
+    private static final Set<OrderStatus> READY_STATUSES =
+            EnumSet.of(OrderStatus.ACCEPTED, OrderStatus.PARTIALLY_FULFILLED);
+
     private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
     private final VendorService vendorService;
     private final OutletService outletService;
     private final SellerAppService sellerAppService;
     private final ProductService productService;
     private final InventoryService inventoryService;
+    private final ReservationHoldService reservationHoldService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderIdempotencyGuard idempotencyGuard;
+    private final DecisionEngine decisionEngine;
+    private final OrderPriorityScheduler priorityScheduler;
+    private final OrderReader orderReader;
 
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    /**
+     * One page of all orders, newest first. Pass the previous page's
+     * nextCursor to continue; null starts from the newest order.
+     */
+    @Transactional(readOnly = true)
+    public OrderPage getOrders(String cursor, int size) {
+        return page(cursor, size, orderRepository::findPageIds);
     }
 
     public OrderResponse getOrderById(Long id) {
-        return toResponse(findOrderById(id));
+        return orderReader.read(id);
     }
 
-    public List<OrderResponse> getOrdersByVendor(Long vendorId) {
-        return orderRepository.findByVendorId(vendorId).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public OrderPage getOrdersByVendor(Long vendorId, String cursor, int size) {
+        return page(cursor, size, (createdAt, id, page) ->
+                orderRepository.findPageIdsByVendor(vendorId, createdAt, id, page));
     }
 
     /**
      * Get orders prioritized by the decision engine.
+     * Only open orders — {@link OrderPriorityScheduler#OPEN} — are listed.
+     * At most limit of them (50 by default, never more than 500). With the
+     * in-memory scheduler: the most urgent by SLA deadline. Otherwise
      * CRITICAL > HIGH > MEDIUM > LOW, then by creation time (oldest first).
      */
-    public List<OrderResponse> getPrioritizedOrders(Long vendorId) {
-        return orderRepository.findByVendorIdOrderByPriority(vendorId).stream()
-                .map(this::toResponse)
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getPrioritizedOrders(Long vendorId, Integer limit) {
+        int k = Math.max(1, Math.min(limit != null ? limit : DEFAULT_PRIORITIZED_LIMIT, MAX_PAGE_SIZE));
+        if (!priorityScheduler.isEnabled()) {
+            return orderReader.read(orderRepository.findIdsByVendorIdOrderByPriority(
+                    vendorId, OrderPriorityScheduler.OPEN, PageRequest.ofSize(k)));
+        }
+        return orderReader.read(priorityScheduler.top(vendorId, k)).stream()
+                // Dropped from the queue but not yet from this snapshot
+                .filter(order -> OrderPriorityScheduler.OPEN.contains(order.getStatus()))
                 .collect(Collectors.toList());
     }
 
-    public List<OrderResponse> getOrdersByStatus(Long vendorId, OrderStatus status) {
-        return orderRepository.findByVendorIdAndStatus(vendorId, status).stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public OrderPage getOrdersByStatus(Long vendorId, OrderStatus status, String cursor, int size) {
+        return page(cursor, size, (createdAt, id, page) ->
+                orderRepository.findPageIdsByVendorAndStatus(vendorId, status, createdAt, id, page));
+    }
+
+    /**
+     * Write every matching order to the sink, newest first, without holding
+     * the listing in memory: rows are read in keyset chunks, each in its own
+     * short read-only transaction, and handed over as they are mapped.
+     * vendorId and status are optional filters (status needs vendorId).
+     */
+    public void streamOrders(Long vendorId, OrderStatus status, Consumer<OrderResponse> sink) {
+        PageQuery query = vendorId == null
+                ? orderRepository::findPageIds
+                : status == null
+                ? (createdAt, id, page) -> orderRepository.findPageIdsByVendor(vendorId, createdAt, id, page)
+                : (createdAt, id, page) -> orderRepository.findPageIdsByVendorAndStatus(vendorId, status, createdAt, id, page);
+        String cursor = null;
+        do {
+            String from = cursor;
+            OrderPage chunk = transactionTemplate.execute(tx -> page(from, STREAM_CHUNK_SIZE, query));
+            chunk.getItems().forEach(sink);
+            cursor = chunk.getNextCursor();
+        } while (cursor != null);
+    }
+
+    /**
+     * Keyset page: one query for the next size ids after the cursor, then the
+     * {@link OrderReader}'s two. Reads one extra id to know if more follow.
+     */
+    private OrderPage page(String cursor, int size, PageQuery query) {
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        OrderCursor from = OrderCursor.decode(cursor);
+        List<Long> ids = query.fetch(from.createdAt(), from.id(), PageRequest.ofSize(limit + 1));
+        boolean more = ids.size() > limit;
+        if (more) {
+            ids = ids.subList(0, limit);
+        }
+        List<OrderResponse> items = orderReader.read(ids);
+        OrderResponse last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return OrderPage.builder()
+                .items(items)
+                .nextCursor(more && last != null ? new OrderCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<Long> fetch(LocalDateTime createdAt, Long id, Pageable page);
     }
 
     /**
      * Create a new order — auto-assigns optimal outlet if not specified.
+     *
+     * Idempotent on ondcOrderId: a retry gets the original order back instead
+     * of an error, usually without a query (see {@link OrderIdempotencyGuard}).
+     * When the vendor has opted in, the {@link DecisionEngine} then accepts,
+     * rejects or partially fulfills the order straight away.
      */
-    @Transactional
     public OrderResponse createOrder(OrderRequest request) {
+        OrderResponse existing = findExisting(request.getOndcOrderId());
+        if (existing != null) {
+            return existing;
+        }
+        Order order;
+        try {
+            order = transactionTemplate.execute(status -> insertOrder(request));
+        } catch (DataIntegrityViolationException ex) {
+            // Lost a race with a concurrent retry of the same order
+            existing = findIdByOndcOrderId(request.getOndcOrderId())
+                    .map(orderReader::read)
+                    .orElseThrow(() -> ex);
+            idempotencyGuard.remember(existing);
+            return existing;
+        }
+        OrderResponse created = applyDecision(toResponse(order), decisionEngine.decide(order));
+        idempotencyGuard.remember(created);
+        return created;
+    }
+
+    /**
+     * The order already created for an ONDC id, or null.
+     */
+    @Transactional(readOnly = true)
+    public OrderResponse findExisting(String ondcOrderId) {
+        if (!idempotencyGuard.mightExist(ondcOrderId)) {
+            return null;
+        }
+        OrderResponse recent = idempotencyGuard.recentResponse(ondcOrderId);
+        if (recent != null) {
+            return recent;
+        }
+        return findIdByOndcOrderId(ondcOrderId)
+                .map(orderReader::read)
+                .orElse(null);
+    }
+
+    /**
+     * Archived orders keep their ONDC id, so a retry of one is still a duplicate.
+     */
+    private Optional<Long> findIdByOndcOrderId(String ondcOrderId) {
+        return orderRepository.findIdByOndcOrderId(ondcOrderId)
+                .or(() -> archivedOrderRepository.findIdByOndcOrderId(ondcOrderId));
+    }
+
+    private Order insertOrder(OrderRequest request) {
         Vendor vendor = vendorService.findVendorById(request.getVendorId());
 
         // Auto-route to optimal outlet if not specified
@@ -68,8 +215,10 @@ public class OrderService {
         if (request.getOutletId() != null) {
             outlet = outletService.findOutletById(request.getOutletId());
         } else if (request.getDeliveryPincode() != null) {
+            Map<Long, Integer> basket = new HashMap<>();
+            request.getItems().forEach(item -> basket.merge(item.getProductId(), item.getRequestedQty(), Integer::sum));
             OutletResponse optimal = outletService.findOptimalOutlet(
-                    request.getVendorId(), request.getDeliveryPincode());
+                    request.getVendorId(), request.getDeliveryPincode(), basket);
             outlet = outletService.findOutletById(optimal.getId());
         }
 
@@ -92,10 +241,13 @@ public class OrderService {
                 .totalAmount(0.0)
                 .build();
 
-        // Add order items and calculate total
+        // Add order items and calculate total — all products resolved at once
+        Map<Long, Product> products = productService.findProductsByIds(request.getItems().stream()
+                .map(OrderItemRequest::getProductId)
+                .collect(Collectors.toList()));
         double total = 0.0;
         for (OrderItemRequest itemReq : request.getItems()) {
-            Product product = productService.findProductById(itemReq.getProductId());
+            Product product = products.get(itemReq.getProductId());
             OrderItem item = OrderItem.builder()
                     .order(order)
                     .product(product)
@@ -107,7 +259,58 @@ public class OrderService {
         }
         order.setTotalAmount(total);
 
-        return toResponse(orderRepository.save(order));
+        Order saved = orderRepository.save(order);
+        publishStatus(saved, null);
+        eventPublisher.publishEvent(new OrderCreatedEvent(OrderSearchHit.builder()
+                .orderId(saved.getId())
+                .vendorId(vendor.getId())
+                .ondcOrderId(saved.getOndcOrderId())
+                .customerName(saved.getCustomerName())
+                .customerPhone(saved.getCustomerPhone())
+                .deliveryPincode(saved.getDeliveryPincode())
+                .status(saved.getStatus())
+                .createdAt(saved.getCreatedAt())
+                .build()));
+        return saved;
+    }
+
+    /**
+     * Auto-decide orders persisted without going through createOrder (batched
+     * ingestion): each is evaluated and its decision applied on its own, just
+     * as createOrder does for a single order.
+     */
+    public void decidePersisted(Collection<Long> orderIds) {
+        if (!decisionEngine.isEnabled() || orderIds.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<OrderResponse, DecisionEngine.Decision>> decisions = transactionTemplate.execute(status ->
+                orderRepository.findAllWithItemsByIdIn(orderIds).stream()
+                        .map(order -> Map.entry(toResponse(order), decisionEngine.decide(order)))
+                        .collect(Collectors.toList()));
+        decisions.forEach(decided -> applyDecision(decided.getKey(), decided.getValue()));
+    }
+
+    /**
+     * Carry out an automatic decision in its own transaction. If it fails
+     * (e.g. stock taken since the in-memory check) the order stays PENDING.
+     */
+    private OrderResponse applyDecision(OrderResponse created, DecisionEngine.Decision decision) {
+        if (decision.outcome() == DecisionEngine.Outcome.MANUAL) {
+            return created;
+        }
+        Long orderId = created.getId();
+        try {
+            return transactionTemplate.execute(status -> switch (decision.outcome()) {
+                case ACCEPT -> acceptOrder(orderId);
+                case PARTIAL -> partialFulfill(orderId, new PartialFulfillmentRequest(decision.quantities()));
+                case REJECT -> rejectOrder(orderId, decision.reason());
+                case MANUAL -> created;
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Auto-decision {} for order {} not applied: {}",
+                    decision.outcome(), created.getOndcOrderId(), ex.getMessage());
+            return created;
+        }
     }
 
     /**
@@ -122,18 +325,24 @@ public class OrderService {
             throw new InvalidOperationException("Order must have an outlet assigned before acceptance");
         }
 
-        // Reserve inventory for all items
+        // Reserve inventory for all items in one all-or-nothing call
+        List<ReservationLine> lines = new ArrayList<>();
         for (OrderItem item : order.getItems()) {
-            inventoryService.reserveStock(
-                    item.getProduct().getId(),
-                    order.getOutlet().getId(),
-                    item.getRequestedQty());
+            lines.add(ReservationLine.builder()
+                    .productId(item.getProduct().getId())
+                    .outletId(order.getOutlet().getId())
+                    .quantity(item.getRequestedQty())
+                    .build());
             item.setFulfilledQty(item.getRequestedQty());
         }
+        inventoryService.reserveBatch(sellerAppId(order), lines);
+        reservationHoldService.placeHolds(order);
 
         order.setStatus(OrderStatus.ACCEPTED);
         order.setFulfillmentType(FulfillmentType.FULL);
         order.setAcceptedAt(LocalDateTime.now());
+        publishAccepted(order, lines);
+        publishStatus(order, OrderStatus.PENDING);
         outletService.incrementLoad(order.getOutlet().getId());
         vendorService.updateVendorStats(order.getVendor().getId(), true);
 
@@ -150,6 +359,7 @@ public class OrderService {
 
         order.setStatus(OrderStatus.REJECTED);
         order.setRejectionReason(reason);
+        publishStatus(order, OrderStatus.PENDING);
         vendorService.updateVendorStats(order.getVendor().getId(), false);
 
         return toResponse(orderRepository.save(order));
@@ -169,21 +379,27 @@ public class OrderService {
 
         Map<Long, Integer> fulfillments = request.getItemFulfillments();
 
+        List<ReservationLine> lines = new ArrayList<>();
         for (OrderItem item : order.getItems()) {
             Integer fulfillQty = fulfillments.get(item.getProduct().getId());
             if (fulfillQty != null && fulfillQty > 0) {
                 int qty = Math.min(fulfillQty, item.getRequestedQty());
-                inventoryService.reserveStock(
-                        item.getProduct().getId(),
-                        order.getOutlet().getId(),
-                        qty);
+                lines.add(ReservationLine.builder()
+                        .productId(item.getProduct().getId())
+                        .outletId(order.getOutlet().getId())
+                        .quantity(qty)
+                        .build());
                 item.setFulfilledQty(qty);
             }
         }
+        inventoryService.reserveBatch(sellerAppId(order), lines);
+        reservationHoldService.placeHolds(order);
 
         order.setStatus(OrderStatus.PARTIALLY_FULFILLED);
         order.setFulfillmentType(FulfillmentType.PARTIAL);
         order.setAcceptedAt(LocalDateTime.now());
+        publishAccepted(order, lines);
+        publishStatus(order, OrderStatus.PENDING);
 
         // Recalculate total based on fulfilled quantities
         double fulfilledTotal = order.getItems().stream()
@@ -197,11 +413,332 @@ public class OrderService {
         return toResponse(orderRepository.save(order));
     }
 
+    /**
+     * Accept and reject many orders in one transaction. All orders are loaded
+     * with one query; accepts are grouped by outlet and reserved with one row
+     * lock per group, each order still all-or-nothing on its own. Outlet load
+     * and vendor stats are applied once per outlet / vendor. A failed order is
+     * reported and left untouched without affecting the rest.
+     */
+    @Transactional
+    public BatchDecisionResponse decideBatch(BatchDecisionRequest request) {
+        List<OrderDecision> decisions = request.getDecisions();
+        Map<Long, Order> orders = new HashMap<>();
+        orderRepository.findAllWithItemsByIdIn(decisions.stream().map(OrderDecision::getOrderId).toList())
+                .forEach(order -> orders.put(order.getId(), order));
+
+        Map<Long, OrderDecisionResult> results = new HashMap<>();
+        Map<Long, List<Order>> acceptsByOutlet = new TreeMap<>();
+        Map<Long, int[]> vendorOutcomes = new HashMap<>();
+        Map<Long, Integer> outletLoad = new HashMap<>();
+        List<Order> changed = new ArrayList<>();
+
+        for (OrderDecision decision : decisions) {
+            Order order = orders.get(decision.getOrderId());
+            if (order == null) {
+                results.put(decision.getOrderId(), failure(decision.getOrderId(), null,
+                        "Order not found with id: " + decision.getOrderId()));
+            } else if (results.containsKey(order.getId())) {
+                continue;
+            } else if (order.getStatus() != OrderStatus.PENDING) {
+                results.put(order.getId(), failure(order.getId(), order.getStatus(),
+                        "Cannot decide order. Current status: " + order.getStatus() + ", Expected: PENDING"));
+            } else if (!Boolean.TRUE.equals(decision.getAccept())) {
+                order.setStatus(OrderStatus.REJECTED);
+                order.setRejectionReason(decision.getReason() != null ? decision.getReason() : "No reason provided");
+                vendorOutcomes.computeIfAbsent(order.getVendor().getId(), id -> new int[2])[1]++;
+                changed.add(order);
+                results.put(order.getId(), success(order));
+            } else if (order.getOutlet() == null) {
+                results.put(order.getId(), failure(order.getId(), order.getStatus(),
+                        "Order must have an outlet assigned before acceptance"));
+            } else {
+                acceptsByOutlet.computeIfAbsent(order.getOutlet().getId(), id -> new ArrayList<>()).add(order);
+                // Placeholder so a repeated id in the request is decided once
+                results.put(order.getId(), null);
+            }
+        }
+
+        acceptsByOutlet.forEach((outletId, group) -> {
+            List<BasketReservation> baskets = group.stream()
+                    .map(order -> new BasketReservation(sellerAppId(order), order.getItems().stream()
+                            .map(item -> new ReservationLine(item.getProduct().getId(), outletId, item.getRequestedQty()))
+                            .collect(Collectors.toList())))
+                    .collect(Collectors.toList());
+            List<String> outcomes = inventoryService.reserveEach(baskets);
+
+            for (int i = 0; i < group.size(); i++) {
+                Order order = group.get(i);
+                if (outcomes.get(i) != null) {
+                    results.put(order.getId(), failure(order.getId(), order.getStatus(), outcomes.get(i)));
+                    continue;
+                }
+                order.getItems().forEach(item -> item.setFulfilledQty(item.getRequestedQty()));
+                order.setStatus(OrderStatus.ACCEPTED);
+                order.setFulfillmentType(FulfillmentType.FULL);
+                order.setAcceptedAt(LocalDateTime.now());
+                reservationHoldService.placeHolds(order);
+                publishAccepted(order, baskets.get(i).getLines());
+                outletLoad.merge(outletId, 1, Integer::sum);
+                vendorOutcomes.computeIfAbsent(order.getVendor().getId(), id -> new int[2])[0]++;
+                changed.add(order);
+                results.put(order.getId(), success(order));
+            }
+        });
+
+        outletLoad.forEach(outletService::incrementLoad);
+        vendorOutcomes.forEach((vendorId, counts) -> vendorService.updateVendorStats(vendorId, counts[0], counts[1]));
+        orderRepository.saveAll(changed);
+        changed.forEach(order -> publishStatus(order, OrderStatus.PENDING));
+
+        List<OrderDecisionResult> ordered = new ArrayList<>();
+        Set<Long> reported = new HashSet<>();
+        for (OrderDecision decision : decisions) {
+            if (reported.add(decision.getOrderId())) {
+                ordered.add(results.get(decision.getOrderId()));
+            }
+        }
+        return BatchDecisionResponse.builder()
+                .accepted((int) ordered.stream()
+                        .filter(r -> r.getSuccess() && r.getStatus() == OrderStatus.ACCEPTED).count())
+                .rejected((int) ordered.stream()
+                        .filter(r -> r.getSuccess() && r.getStatus() == OrderStatus.REJECTED).count())
+                .failed((int) ordered.stream().filter(r -> !r.getSuccess()).count())
+                .results(ordered)
+                .build();
+    }
+
+    /**
+     * Dispatch every ready (ACCEPTED or PARTIALLY_FULFILLED) order of an outlet.
+     * Orders are taken in id order in chunks, each in its own transaction: the
+     * orders are locked, stock is deducted with one update per inventory row,
+     * the orders become FULFILLED, their holds are cleared and the outlet's
+     * load drops once per chunk. With reservation holds on, an order whose
+     * holds no longer cover its items is skipped — its stock is no longer
+     * reserved, so deducting it would eat into other orders' reservations.
+     */
+    public DispatchResponse dispatchOutlet(Long outletId) {
+        outletService.findOutletById(outletId);
+        List<Long> dispatched = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        DispatchChunk chunk = new DispatchChunk(List.of(), List.of(), 0L, 0);
+        do {
+            Long afterId = chunk.lastId();
+            chunk = transactionTemplate.execute(status -> dispatchChunk(outletId, afterId));
+            dispatched.addAll(chunk.dispatched());
+            skipped.addAll(chunk.skipped());
+        } while (chunk.scanned() == DISPATCH_CHUNK_SIZE);
+        if (!skipped.isEmpty()) {
+            log.warn("Outlet {}: {} ready orders not dispatched, their reservation holds have lapsed",
+                    outletId, skipped.size());
+        }
+        return DispatchResponse.builder()
+                .outletId(outletId)
+                .fulfilled(dispatched.size())
+                .orderIds(dispatched)
+                .skipped(skipped.size())
+                .skippedOrderIds(skipped)
+                .build();
+    }
+
+    private DispatchChunk dispatchChunk(Long outletId, Long afterId) {
+        List<Order> orders = orderRepository.findByOutletForUpdate(
+                outletId, READY_STATUSES, afterId, PageRequest.ofSize(DISPATCH_CHUNK_SIZE));
+        if (orders.isEmpty()) {
+            return new DispatchChunk(List.of(), List.of(), afterId, 0);
+        }
+        List<Long> ids = orders.stream().map(Order::getId).collect(Collectors.toList());
+        // Loads the items of the locked orders into the same persistence context
+        orderRepository.findAllWithItemsByIdIn(ids);
+        Map<Long, Integer> held = heldQuantities(ids);
+
+        List<ReservationLine> lines = new ArrayList<>();
+        List<Order> fulfilled = new ArrayList<>();
+        List<Long> skipped = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Order order : orders) {
+            if (held != null && !fullyHeld(order, held)) {
+                skipped.add(order.getId());
+                continue;
+            }
+            order.getItems().forEach(item -> lines.add(
+                    new ReservationLine(item.getProduct().getId(), outletId, item.getFulfilledQty())));
+            OrderStatus previous = order.getStatus();
+            order.setStatus(OrderStatus.FULFILLED);
+            order.setFulfilledAt(now);
+            publishStatus(order, previous);
+            fulfilled.add(order);
+        }
+        List<Long> fulfilledIds = fulfilled.stream().map(Order::getId).collect(Collectors.toList());
+        if (!fulfilled.isEmpty()) {
+            inventoryService.deductBatch(lines);
+            reservationHoldService.clearHolds(fulfilledIds);
+            outletService.decrementLoad(outletId, fulfilled.size());
+            orderRepository.saveAll(fulfilled);
+        }
+        return new DispatchChunk(fulfilledIds, skipped, orders.get(orders.size() - 1).getId(), orders.size());
+    }
+
+    /**
+     * Quantity still reserved per order item of the (locked) orders, with
+     * their hold rows locked too; null when reservation holds are off, in
+     * which case every item's fulfilled quantity is still reserved.
+     */
+    private Map<Long, Integer> heldQuantities(Collection<Long> orderIds) {
+        return reservationHoldService.isEnabled() ? reservationHoldService.lockHeldQuantities(orderIds) : null;
+    }
+
+    private static boolean fullyHeld(Order order, Map<Long, Integer> held) {
+        return order.getItems().stream().allMatch(item ->
+                item.getFulfilledQty() <= 0 || held.getOrDefault(item.getId(), 0) >= item.getFulfilledQty());
+    }
+
+    private record DispatchChunk(List<Long> dispatched, List<Long> skipped, Long lastId, int scanned) {
+    }
+
+    /**
+     * Cancel many orders in one transaction. What accepted orders still hold
+     * is released with one update per inventory row, their holds cleared,
+     * and outlet load and vendor stats adjusted once per outlet / vendor.
+     * Orders already fulfilled, rejected or cancelled are reported and left alone.
+     */
+    @Transactional
+    public BatchCancellationResponse cancelOrders(CancellationRequest request) {
+        List<Long> ids = request.getOrderIds().stream().distinct().collect(Collectors.toList());
+        Map<Long, Order> orders = new HashMap<>();
+        orderRepository.findAllForUpdate(ids).forEach(order -> orders.put(order.getId(), order));
+        orderRepository.findAllWithItemsByIdIn(orders.keySet());
+        Map<Long, Integer> held = heldQuantities(orders.keySet());
+        String reason = request.getReason() != null ? request.getReason() : "No reason provided";
+
+        List<OrderDecisionResult> results = new ArrayList<>();
+        List<ReservationLine> lines = new ArrayList<>();
+        Map<Long, Integer> outletLoad = new HashMap<>();
+        Map<Long, int[]> vendorOutcomes = new HashMap<>();
+        List<Order> cancelled = new ArrayList<>();
+        for (Long id : ids) {
+            Order order = orders.get(id);
+            if (order == null) {
+                results.add(failure(id, null, "Order not found with id: " + id));
+                continue;
+            }
+            OrderStatus status = order.getStatus();
+            if (status != OrderStatus.PENDING && !READY_STATUSES.contains(status)) {
+                results.add(failure(id, status, "Cannot cancel order. Current status: " + status));
+                continue;
+            }
+            int[] outcome = vendorOutcomes.computeIfAbsent(order.getVendor().getId(), vendorId -> new int[2]);
+            if (READY_STATUSES.contains(status)) {
+                Long outletId = order.getOutlet().getId();
+                // Only what is still held: a lapsed hold already gave its stock back
+                order.getItems().forEach(item -> lines.add(new ReservationLine(item.getProduct().getId(), outletId,
+                        held != null ? held.getOrDefault(item.getId(), 0) : item.getFulfilledQty())));
+                outletLoad.merge(outletId, 1, Integer::sum);
+                // It was counted as successful when accepted
+                outcome[0]--;
+            }
+            outcome[1]++;
+            order.setStatus(OrderStatus.CANCELLED);
+            order.setRejectionReason(reason);
+            publishStatus(order, status);
+            cancelled.add(order);
+            results.add(success(order));
+        }
+
+        inventoryService.releaseBatch(lines);
+        reservationHoldService.clearHolds(cancelled.stream().map(Order::getId).collect(Collectors.toList()));
+        outletLoad.forEach(outletService::decrementLoad);
+        vendorOutcomes.forEach((vendorId, counts) -> vendorService.updateVendorStats(vendorId, counts[0], counts[1]));
+        orderRepository.saveAll(cancelled);
+
+        return BatchCancellationResponse.builder()
+                .cancelled(cancelled.size())
+                .failed(results.size() - cancelled.size())
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Orders whose reservation holds lapsed are cancelled in the expiry
+     * transaction, which has already locked them and released their stock,
+     * so neither dispatch nor cancel can consume that stock a second time.
+     */
+    @EventListener
+    public void onReservationHoldsExpired(ReservationHoldsExpiredEvent event) {
+        Map<Long, Integer> outletLoad = new HashMap<>();
+        Map<Long, int[]> vendorOutcomes = new HashMap<>();
+        List<Order> expired = new ArrayList<>();
+        for (Order order : orderRepository.findAllForUpdate(event.orderIds())) {
+            OrderStatus previous = order.getStatus();
+            if (!READY_STATUSES.contains(previous)) {
+                continue;
+            }
+            int[] outcome = vendorOutcomes.computeIfAbsent(order.getVendor().getId(), vendorId -> new int[2]);
+            outcome[0]--;
+            outcome[1]++;
+            outletLoad.merge(order.getOutlet().getId(), 1, Integer::sum);
+            order.setStatus(OrderStatus.CANCELLED);
+            order.setRejectionReason("Reservation hold expired");
+            publishStatus(order, previous);
+            expired.add(order);
+        }
+        outletLoad.forEach(outletService::decrementLoad);
+        vendorOutcomes.forEach((vendorId, counts) -> vendorService.updateVendorStats(vendorId, counts[0], counts[1]));
+        orderRepository.saveAll(expired);
+    }
+
+    /**
+     * Cancel one order, releasing its reservation if it was accepted.
+     */
+    public OrderResponse cancelOrder(Long orderId, String reason) {
+        OrderDecisionResult result = transactionTemplate.execute(status ->
+                cancelOrders(new CancellationRequest(List.of(orderId), reason))).getResults().get(0);
+        if (!result.getSuccess()) {
+            if (result.getStatus() == null) {
+                throw new ResourceNotFoundException(result.getMessage());
+            }
+            throw new InvalidOperationException(result.getMessage());
+        }
+        return orderReader.read(orderId);
+    }
+
+    private static OrderDecisionResult success(Order order) {
+        return OrderDecisionResult.builder()
+                .orderId(order.getId())
+                .success(true)
+                .status(order.getStatus())
+                .build();
+    }
+
+    private static OrderDecisionResult failure(Long orderId, OrderStatus status, String message) {
+        return OrderDecisionResult.builder()
+                .orderId(orderId)
+                .success(false)
+                .status(status)
+                .message(message)
+                .build();
+    }
+
     private Order findOrderById(Long id) {
         return orderRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + id));
     }
 
+    private void publishAccepted(Order order, List<ReservationLine> lines) {
+        eventPublisher.publishEvent(new OrderAcceptedEvent(order.getId(), order.getVendor().getId(),
+                order.getOutlet().getId(), lines, order.getAcceptedAt()));
+    }
+
+    private void publishStatus(Order order, OrderStatus previous) {
+        eventPublisher.publishEvent(new OrderStatusChangedEvent(order.getId(), order.getVendor().getId(),
+                order.getOutlet() != null ? order.getOutlet().getId() : null, order.getPriority(),
+                previous, order.getStatus(), order.getRejectionReason(), order.getCreatedAt(), LocalDateTime.now()));
+    }
+
+    private Long sellerAppId(Order order) {
+        return order.getSellerApp() != null ? order.getSellerApp().getId() : null;
+    }
+
     private void validateOrderStatus(Order order, OrderStatus expected, String action) {
         if (order.getStatus() != expected) {
             throw new InvalidOperationException(
@@ -211,41 +748,6 @@ public class OrderService {
     }
 
     private OrderResponse toResponse(Order order) {
-        List<OrderItemResponse> itemResponses = order.getItems().stream()
-                .map(item -> OrderItemResponse.builder()
-                        .id(item.getId())
-                        .productId(item.getProduct().getId())
-                        .productName(item.getProduct().getName())
-                        .productSku(item.getProduct().getSku())
-                        .requestedQty(item.getRequestedQty())
-                        .fulfilledQty(item.getFulfilledQty())
-                        .unitPrice(item.getUnitPrice())
-                        .lineTotal(item.getLineTotal())
-                        .build())
-                .collect(Collectors.toList());
-
-        return OrderResponse.builder()
-                .id(order.getId())
-                .ondcOrderId(order.getOndcOrderId())
-                .status(order.getStatus())
-                .priority(order.getPriority())
-                .fulfillmentType(order.getFulfillmentType())
-                .totalAmount(order.getTotalAmount())
-                .customerName(order.getCustomerName())
-                .customerPhone(order.getCustomerPhone())
-                .deliveryAddress(order.getDeliveryAddress())
-                .deliveryPincode(order.getDeliveryPincode())
-                .vendorId(order.getVendor().getId())
-                .vendorName(order.getVendor().getName())
-                .outletId(order.getOutlet() != null ? order.getOutlet().getId() : null)
-                .outletName(order.getOutlet() != null ? order.getOutlet().getName() : null)
-                .sellerAppId(order.getSellerApp() != null ? order.getSellerApp().getId() : null)
-                .sellerAppName(order.getSellerApp() != null ? order.getSellerApp().getName() : null)
-                .rejectionReason(order.getRejectionReason())
-                .items(itemResponses)
-                .createdAt(order.getCreatedAt())
-                .acceptedAt(order.getAcceptedAt())
-                .fulfilledAt(order.getFulfilledAt())
-                .build();
+        return orderReader.toResponse(order);
     }
 }
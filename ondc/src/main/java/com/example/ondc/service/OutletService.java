@@ -11,6 +11,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +21,7 @@ public class OutletService {
 
     private final OutletRepository outletRepository;
     private final VendorService vendorService;
+    private final OutletStockIndex outletStockIndex;
 
     public List<OutletResponse> getAllOutlets() {
         return outletRepository.findAll().stream()
@@ -74,11 +77,30 @@ public class OutletService {
      * 3. Active status
      */
     public OutletResponse findOptimalOutlet(Long vendorId, String deliveryPincode) {
+        return findOptimalOutlet(vendorId, deliveryPincode, Map.of());
+    }
+
+    /**
+     * Same ranking, restricted to outlets that hold stock for the whole basket
+     * (productId -> quantity) when the outlet stock index is on. Falls back to
+     * every active outlet if none can ship it all.
+     */
+    public OutletResponse findOptimalOutlet(Long vendorId, String deliveryPincode, Map<Long, Integer> basket) {
         List<Outlet> activeOutlets = outletRepository.findByVendorIdAndIsActiveTrue(vendorId);
         if (activeOutlets.isEmpty()) {
             throw new ResourceNotFoundException("No active outlets found for vendor: " + vendorId);
         }
 
+        if (outletStockIndex.isEnabled() && !basket.isEmpty()) {
+            Set<Long> stocked = outletStockIndex.outletsFor(basket);
+            List<Outlet> canFulfill = activeOutlets.stream()
+                    .filter(o -> stocked.contains(o.getId()))
+                    .collect(Collectors.toList());
+            if (!canFulfill.isEmpty()) {
+                activeOutlets = canFulfill;
+            }
+        }
+
         return activeOutlets.stream()
                 .sorted(Comparator
                         // Prefer same pincode
@@ -91,10 +113,35 @@ public class OutletService {
                 .orElseThrow(() -> new ResourceNotFoundException("No suitable outlet found"));
     }
 
+    /**
+     * Active outlets serving a pincode, optionally narrowed to one vendor.
+     */
+    public List<Long> findActiveOutletIdsByPincode(String pincode, Long vendorId) {
+        return outletRepository.findByPincodeAndIsActiveTrue(pincode).stream()
+                .filter(o -> vendorId == null || vendorId.equals(o.getVendor().getId()))
+                .map(Outlet::getId)
+                .collect(Collectors.toList());
+    }
+
     @Transactional
     public void incrementLoad(Long outletId) {
+        incrementLoad(outletId, 1);
+    }
+
+    @Transactional
+    public void incrementLoad(Long outletId, int orders) {
+        Outlet outlet = findOutletById(outletId);
+        outlet.setCurrentLoad(outlet.getCurrentLoad() + orders);
+        outletRepository.save(outlet);
+    }
+
+    /**
+     * Orders leaving the outlet's queue (dispatched or cancelled); never below zero.
+     */
+    @Transactional
+    public void decrementLoad(Long outletId, int orders) {
         Outlet outlet = findOutletById(outletId);
-        outlet.setCurrentLoad(outlet.getCurrentLoad() + 1);
+        outlet.setCurrentLoad(Math.max(0, outlet.getCurrentLoad() - orders));
         outletRepository.save(outlet);
     }
 
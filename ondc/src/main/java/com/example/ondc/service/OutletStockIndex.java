@@ -0,0 +1,313 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.StockLevel;
+import com.example.ondc.event.InventoryChangedEvent;
+import com.example.ondc.event.InventoryReloadedEvent;
+import com.example.ondc.repository.InventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * For each product, a bitset of the outlets where it is in stock.
+ *
+ * Outlet ids are mapped to dense bit positions, so "which outlets can ship
+ * this whole basket" is an AND over one bitset per product, followed by a
+ * quantity check on the few surviving outlets. The index follows committed
+ * {@link InventoryChangedEvent}s (ledger changes included) and is rebuilt
+ * from one projection query on startup, on bulk reloads and periodically.
+ *
+ * As in {@link LowStockIndex}, each outlet slot remembers the change sequence
+ * it reflects: the rebuild updates slots in place and never moves one behind
+ * an event that landed while the query ran, and an event older than its slot
+ * makes the slot re-read its committed state.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutletStockIndex {
+
+    private static final int MAX_REFRESH_ATTEMPTS = 3;
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryLedger inventoryLedger;
+    private final InventoryChangeSequence inventoryChangeSequence;
+
+    @Value("${ondc.inventory.outlet-index.enabled:false}")
+    private boolean enabled;
+
+    private final Map<Long, Integer> outletBits = new ConcurrentHashMap<>();
+    private final List<Long> bitOutlets = new ArrayList<>();
+    private final Map<Long, ProductStock> products = new ConcurrentHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ondc.inventory.outlet-index.reconcile-ms:600000}",
+               initialDelayString = "${ondc.inventory.outlet-index.reconcile-ms:600000}")
+    public void reconcile() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @EventListener
+    public void onInventoryReloaded(InventoryReloadedEvent event) {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onInventoryChanged(InventoryChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        int bit = bitOf(event.outletId());
+        ProductStock stock = products.computeIfAbsent(event.productId(), id -> new ProductStock());
+        boolean outOfOrder = false;
+        synchronized (stock) {
+            if (event.changeSeq() == 0) {
+                // A ledger change — its figures may already be stale, the ledger's own never are
+                int[] live = inventoryLedger.peek(event.productId(), event.outletId());
+                if (live != null) {
+                    stock.set(bit, live[0] - live[1]);
+                } else if (event.isAbsolute()) {
+                    stock.set(bit, event.totalStock() - event.reservedStock());
+                }
+            } else if (event.changeSeq() > stock.changeSeq(bit)
+                    && (event.isAbsolute() || stock.availableOrNull(bit) != null)) {
+                if (event.isAbsolute()) {
+                    stock.set(bit, event.totalStock() - event.reservedStock());
+                } else {
+                    stock.add(bit, -event.reservedDelta());
+                }
+                stock.stamp(bit, event.changeSeq());
+            } else {
+                // Older than the slot, or a delta on a slot not yet known: read the committed row
+                outOfOrder = true;
+            }
+        }
+        if (outOfOrder) {
+            refresh(event.productId(), event.outletId(), bit, stock);
+        }
+    }
+
+    /**
+     * Outlets (by id) holding at least the requested quantity of every product in the basket.
+     */
+    public Set<Long> outletsFor(Map<Long, Integer> basket) {
+        Set<Long> outlets = new LinkedHashSet<>();
+        if (basket.isEmpty()) {
+            return outlets;
+        }
+        BitSet candidates = null;
+        for (Long productId : basket.keySet()) {
+            ProductStock stock = products.get(productId);
+            if (stock == null) {
+                return outlets;
+            }
+            BitSet inStock = stock.inStock();
+            if (candidates == null) {
+                candidates = inStock;
+            } else {
+                candidates.and(inStock);
+            }
+            if (candidates.isEmpty()) {
+                return outlets;
+            }
+        }
+        for (int bit = candidates.nextSetBit(0); bit >= 0; bit = candidates.nextSetBit(bit + 1)) {
+            if (coversBasket(bit, basket)) {
+                outlets.add(outletAt(bit));
+            }
+        }
+        return outlets;
+    }
+
+    /**
+     * Indexed available stock of one row, or null if the index does not know it.
+     */
+    public Integer available(Long productId, Long outletId) {
+        ProductStock stock = enabled ? products.get(productId) : null;
+        Integer bit = outletBits.get(outletId);
+        if (stock == null || bit == null) {
+            return null;
+        }
+        return stock.availableOrNull(bit);
+    }
+
+    private boolean coversBasket(int bit, Map<Long, Integer> basket) {
+        for (Map.Entry<Long, Integer> line : basket.entrySet()) {
+            if (products.get(line.getKey()).available(bit) < line.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Replace a slot with its row's committed state. Retried while newer
+     * events overtake the read; anything left is repaired by the next rebuild.
+     */
+    private void refresh(Long productId, Long outletId, int bit, ProductStock stock) {
+        for (int attempt = 0; attempt < MAX_REFRESH_ATTEMPTS; attempt++) {
+            StockLevel level = inventoryRepository.findStockLevel(productId, outletId).orElse(null);
+            if (level == null) {
+                return;
+            }
+            int available = availableOf(level);
+            synchronized (stock) {
+                if (seqOf(level) >= stock.changeSeq(bit)) {
+                    stock.set(bit, available);
+                    stock.stamp(bit, seqOf(level));
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reconcile every slot with one projection query, in place: a slot an
+     * event moved past the snapshot keeps the newer figures.
+     */
+    private synchronized void rebuild() {
+        // Anything stamped above this may have committed after the query read its rows
+        long snapshotSeq = inventoryChangeSequence.committedSeq();
+        List<StockLevel> levels = inventoryRepository.findAllStockLevels();
+        Map<Long, BitSet> seen = new HashMap<>();
+        for (StockLevel level : levels) {
+            int bit = bitOf(level.getOutletId());
+            int available = availableOf(level);
+            boolean live = inventoryLedger.isEnabled()
+                    && inventoryLedger.peek(level.getProductId(), level.getOutletId()) != null;
+            ProductStock stock = products.computeIfAbsent(level.getProductId(), id -> new ProductStock());
+            synchronized (stock) {
+                if (seqOf(level) >= stock.changeSeq(bit)) {
+                    stock.set(bit, available);
+                    stock.stamp(bit, seqOf(level));
+                } else if (live) {
+                    stock.set(bit, available);
+                }
+            }
+            seen.computeIfAbsent(level.getProductId(), id -> new BitSet()).set(bit);
+        }
+        // Rows gone from the table — unless changed after the snapshot, i.e. created since
+        for (Map.Entry<Long, ProductStock> entry : products.entrySet()) {
+            entry.getValue().retain(seen.getOrDefault(entry.getKey(), new BitSet()), snapshotSeq);
+        }
+        log.info("Outlet stock index rebuilt: {} products over {} rows and {} outlets",
+                seen.size(), levels.size(), outletBits.size());
+    }
+
+    /**
+     * Available stock of a row; the table may lag the in-memory ledger.
+     */
+    private int availableOf(StockLevel level) {
+        int[] live = inventoryLedger.isEnabled()
+                ? inventoryLedger.peek(level.getProductId(), level.getOutletId()) : null;
+        if (live != null) {
+            return live[0] - live[1];
+        }
+        return level.getTotalStock() - level.getReservedStock();
+    }
+
+    private static long seqOf(StockLevel level) {
+        return level.getChangeSeq() != null ? level.getChangeSeq() : 0;
+    }
+
+    private int bitOf(Long outletId) {
+        Integer bit = outletBits.get(outletId);
+        if (bit != null) {
+            return bit;
+        }
+        synchronized (bitOutlets) {
+            return outletBits.computeIfAbsent(outletId, id -> {
+                bitOutlets.add(id);
+                return bitOutlets.size() - 1;
+            });
+        }
+    }
+
+    private Long outletAt(int bit) {
+        synchronized (bitOutlets) {
+            return bitOutlets.get(bit);
+        }
+    }
+
+    /**
+     * Available stock of one product per outlet bit, the change sequence each
+     * bit reflects, plus the derived in-stock bitset.
+     */
+    private static final class ProductStock {
+        private final Map<Integer, Integer> available = new HashMap<>();
+        private final Map<Integer, Long> changeSeqs = new HashMap<>();
+        private final BitSet inStock = new BitSet();
+
+        synchronized void set(int bit, int quantity) {
+            available.put(bit, quantity);
+            inStock.set(bit, quantity > 0);
+        }
+
+        synchronized void add(int bit, int delta) {
+            set(bit, available.getOrDefault(bit, 0) + delta);
+        }
+
+        synchronized long changeSeq(int bit) {
+            return changeSeqs.getOrDefault(bit, 0L);
+        }
+
+        synchronized void stamp(int bit, long changeSeq) {
+            changeSeqs.put(bit, changeSeq);
+        }
+
+        /**
+         * Drop bits whose rows are gone, keeping any stamped after the snapshot.
+         */
+        synchronized void retain(BitSet seen, long snapshotSeq) {
+            Iterator<Integer> bits = available.keySet().iterator();
+            while (bits.hasNext()) {
+                int bit = bits.next();
+                if (!seen.get(bit) && changeSeq(bit) <= snapshotSeq) {
+                    bits.remove();
+                    changeSeqs.remove(bit);
+                    inStock.clear(bit);
+                }
+            }
+        }
+
+        synchronized int available(int bit) {
+            return available.getOrDefault(bit, 0);
+        }
+
+        synchronized Integer availableOrNull(int bit) {
+            return available.get(bit);
+        }
+
+        synchronized BitSet inStock() {
+            return (BitSet) inStock.clone();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.CacheStats;
+import com.example.ondc.entity.Product;
+import com.example.ondc.event.ProductChangedEvent;
+import com.example.ondc.util.SampledEviction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Near-cache of catalog products by id, with a sku index onto it.
+ *
+ * Order creation copies a product's price into each item, so a cached entry
+ * must never outlive a committed price change. Every product has a version
+ * (striped, like {@link AvailabilityCache}'s epochs) that is bumped when a
+ * {@link ProductChangedEvent} commits; the entry is dropped then, and a load
+ * that started before the bump is returned but not stored. ttl-ms bounds how
+ * long a change made outside the application can be served.
+ *
+ * Cached products are detached: callers may read their fields and use them
+ * as association targets, but must not modify them — updates load their own copy.
+ */
+@Component
+public class ProductCatalogCache {
+
+    private static final int VERSION_STRIPES = 1024;
+
+    @Value("${ondc.products.cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ondc.products.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${ondc.products.cache.ttl-ms:300000}")
+    private long ttlMillis;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    /** sku -> id; only trusted when the id's entry still carries that sku. */
+    private final Map<String, Long> skuIndex = new ConcurrentHashMap<>();
+    /** Bumped on every invalidation of a product id hashing to the stripe. */
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+    private final AtomicLong changeCount = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public Product get(Long id, Supplier<Product> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Product cached = lookup(id);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        long version = versions.get(stripe(id));
+        Product product = loader.get();
+        loads.increment();
+        store(product, version);
+        return product;
+    }
+
+    public Optional<Product> getBySku(String sku, Supplier<Optional<Product>> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        Long id = skuIndex.get(sku);
+        Product cached = id != null ? lookup(id) : null;
+        if (cached != null && sku.equals(cached.getSku())) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+        misses.increment();
+        // The id is unknown until loaded, so guard with the catalog-wide change count
+        long changes = changeCount.get();
+        Optional<Product> product = loader.get();
+        loads.increment();
+        product.ifPresent(p -> {
+            if (changeCount.get() == changes) {
+                store(p, versions.get(stripe(p.getId())));
+            }
+        });
+        return product;
+    }
+
+    /**
+     * Products for the given ids; misses are fetched with a single call to
+     * the loader. Ids the loader does not return are absent from the result.
+     */
+    public Map<Long, Product> getAll(Collection<Long> ids, Function<Collection<Long>, List<Product>> loader) {
+        Map<Long, Product> found = new HashMap<>();
+        Set<Long> uncached = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Product cached = enabled ? lookup(id) : null;
+            if (cached != null) {
+                found.put(id, cached);
+            } else {
+                uncached.add(id);
+            }
+        }
+        List<Long> missing = new ArrayList<>(uncached);
+        if (enabled) {
+            hits.add(found.size());
+            misses.add(missing.size());
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+        long[] snapshot = new long[missing.size()];
+        for (int i = 0; i < snapshot.length; i++) {
+            snapshot[i] = versions.get(stripe(missing.get(i)));
+        }
+        Map<Long, Product> loaded = new HashMap<>();
+        loader.apply(missing).forEach(product -> loaded.put(product.getId(), product));
+        for (int i = 0; i < snapshot.length; i++) {
+            Product product = loaded.get(missing.get(i));
+            if (product != null) {
+                found.put(product.getId(), product);
+                if (enabled) {
+                    loads.increment();
+                    store(product, snapshot[i]);
+                }
+            }
+        }
+        return found;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (enabled) {
+            versions.incrementAndGet(stripe(event.productId()));
+            changeCount.incrementAndGet();
+            if (entries.remove(event.productId()) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public CacheStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + missCount;
+        return CacheStats.builder()
+                .enabled(enabled)
+                .size((long) entries.size())
+                .maxSize((long) maxSize)
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRate(lookups == 0 ? 0.0 : Math.round(hitCount * 10000.0 / lookups) / 10000.0)
+                .loads(loads.sum())
+                .coalescedLoads(0L)
+                .invalidations(invalidations.sum())
+                .evictions(evictions.sum())
+                .build();
+    }
+
+    private Product lookup(Long id) {
+        Entry entry = entries.get(id);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt < ttlMillis) {
+            return entry.product;
+        }
+        return null;
+    }
+
+    private void store(Product product, long version) {
+        Long id = product.getId();
+        if (versions.get(stripe(id)) != version) {
+            return;
+        }
+        Entry stored = new Entry(product, System.currentTimeMillis());
+        entries.put(id, stored);
+        // A change committing between the check and the put bumped the version before removing — undo the put
+        if (versions.get(stripe(id)) != version) {
+            entries.remove(id, stored);
+            return;
+        }
+        skuIndex.put(product.getSku(), id);
+        evictIfFull(id);
+    }
+
+    private void evictIfFull(Long stored) {
+        if (entries.size() > maxSize) {
+            evictions.add(SampledEviction.evict(entries, maxSize, stored, Entry::loadedAt));
+        }
+        if (skuIndex.size() > 2 * maxSize) {
+            skuIndex.values().removeIf(id -> !entries.containsKey(id));
+        }
+    }
+
+    private static int stripe(Long id) {
+        int h = id.hashCode();
+        h ^= (h >>> 16);
+        return h & (VERSION_STRIPES - 1);
+    }
+
+    private record Entry(Product product, long loadedAt) {
+    }
+}
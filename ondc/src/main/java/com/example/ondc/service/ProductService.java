@@ -1,15 +1,20 @@
 package com.example.ondc.service;
 
+import com.example.ondc.dto.CacheStats;
 import com.example.ondc.dto.ProductRequest;
 import com.example.ondc.dto.ProductResponse;
 import com.example.ondc.entity.Product;
 import com.example.ondc.entity.Vendor;
+import com.example.ondc.event.ProductChangedEvent;
 import com.example.ondc.exception.ResourceNotFoundException;
 import com.example.ondc.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,6 +23,8 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final VendorService vendorService;
+    private final ProductCatalogCache productCatalogCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<ProductResponse> getAllProducts() {
         return productRepository.findAll().stream()
@@ -35,6 +42,10 @@ public class ProductService {
         return toResponse(findProductById(id));
     }
 
+    public ProductResponse getProductBySku(String sku) {
+        return toResponse(findProductBySku(sku));
+    }
+
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
         Vendor vendor = vendorService.findVendorById(request.getVendorId());
@@ -52,19 +63,50 @@ public class ProductService {
 
     @Transactional
     public ProductResponse updateProduct(Long id, ProductRequest request) {
-        Product product = findProductById(id);
+        // Never through the cache: its instances are shared and must stay unmodified
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         product.setName(request.getName());
         product.setSku(request.getSku());
         product.setCategory(request.getCategory());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
         product.setUnit(request.getUnit());
-        return toResponse(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(saved.getId()));
+        return toResponse(saved);
     }
 
+    /**
+     * Product by id, served from the catalog near-cache when enabled.
+     * The returned instance may be shared — read it, do not modify it.
+     */
     public Product findProductById(Long id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        return productCatalogCache.get(id, () -> productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id)));
+    }
+
+    public Product findProductBySku(String sku) {
+        return productCatalogCache.getBySku(sku, () -> productRepository.findBySku(sku))
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with sku: " + sku));
+    }
+
+    /**
+     * Products for all the given ids, cached ones from memory and the rest in
+     * one query. Throws if any id does not exist.
+     */
+    public Map<Long, Product> findProductsByIds(Collection<Long> ids) {
+        Map<Long, Product> products = productCatalogCache.getAll(ids, productRepository::findAllById);
+        for (Long id : ids) {
+            if (!products.containsKey(id)) {
+                throw new ResourceNotFoundException("Product not found with id: " + id);
+            }
+        }
+        return products;
+    }
+
+    public CacheStats getCacheStats() {
+        return productCatalogCache.stats();
     }
 
     private ProductResponse toResponse(Product product) {
@@ -0,0 +1,249 @@
+package com.example.ondc.service;
+
+import com.example.ondc.entity.Order;
+import com.example.ondc.entity.ReservationHold;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.event.ReservationHoldsExpiredEvent;
+import com.example.ondc.repository.OrderRepository;
+import com.example.ondc.repository.ReservationHoldRepository;
+import com.example.ondc.util.HashedTimerWheel;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Time-bounded reservation holds.
+ *
+ * Every reserved order item gets a hold record with an expiry. Hold ids sit in
+ * a hashed timer wheel; each tick hands back only the holds that fell due, so
+ * expiry never scans the orders table. Expired holds release their stock
+ * (grouped per product/outlet) and are deleted in one batch, and their orders
+ * are cancelled in the same transaction ({@link ReservationHoldsExpiredEvent}).
+ *
+ * A hold is the record that its stock is still reserved: dispatch and cancel
+ * consume exactly the held quantities ({@link #lockHeldQuantities}). They and
+ * expiry all lock the orders first and the hold rows second, so each hold is
+ * consumed or released once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationHoldService {
+
+    private static final int WHEEL_SLOTS = 512;
+    private static final int EXPIRY_BATCH_SIZE = 1000;
+    private static final Set<OrderStatus> HELD_STATUSES =
+            EnumSet.of(OrderStatus.ACCEPTED, OrderStatus.PARTIALLY_FULFILLED);
+
+    private final ReservationHoldRepository reservationHoldRepository;
+    private final OrderRepository orderRepository;
+    private final InventoryService inventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${ondc.inventory.hold.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ondc.inventory.hold.ttl-minutes:30}")
+    private long ttlMinutes;
+
+    @Value("${ondc.inventory.hold.tick-ms:1000}")
+    private long tickMillis;
+
+    private HashedTimerWheel<Long> wheel;
+
+    @PostConstruct
+    void initWheel() {
+        wheel = new HashedTimerWheel<>(tickMillis, WHEEL_SLOTS, System.currentTimeMillis());
+    }
+
+    /**
+     * Re-arm timers for holds that were open when the node last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenHolds() {
+        if (!enabled) {
+            return;
+        }
+        List<ReservationHold> holds = reservationHoldRepository.findAll();
+        holds.forEach(hold -> wheel.schedule(hold.getId(), toMillis(hold.getExpiresAt())));
+        log.info("Loaded {} open reservation holds", holds.size());
+    }
+
+    /**
+     * Place one hold per reserved item — called once an order's stock is reserved.
+     */
+    @Transactional
+    public void placeHolds(Order order) {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(ttlMinutes);
+        List<ReservationHold> holds = order.getItems().stream()
+                .filter(item -> item.getFulfilledQty() > 0)
+                .map(item -> ReservationHold.builder()
+                        .orderId(order.getId())
+                        .orderItemId(item.getId())
+                        .productId(item.getProduct().getId())
+                        .outletId(order.getOutlet().getId())
+                        .quantity(item.getFulfilledQty())
+                        .expiresAt(expiresAt)
+                        .build())
+                .collect(Collectors.toList());
+        List<ReservationHold> saved = reservationHoldRepository.saveAll(holds);
+
+        // Arm timers only once the holds (and the reservation) are committed
+        long deadline = toMillis(expiresAt);
+        afterCommit(() -> saved.forEach(hold -> wheel.schedule(hold.getId(), deadline)));
+    }
+
+    /**
+     * Drop an order's holds without touching stock — the caller has consumed
+     * or released the reservation itself. Pending timers for them are
+     * discarded when they fire.
+     */
+    @Transactional
+    public void clearHolds(Long orderId) {
+        if (!enabled) {
+            return;
+        }
+        reservationHoldRepository.deleteAllInBatch(reservationHoldRepository.findByOrderId(orderId));
+    }
+
+    /**
+     * {@link #clearHolds(Long)} for many orders in one read and one delete.
+     */
+    @Transactional
+    public void clearHolds(Collection<Long> orderIds) {
+        if (!enabled || orderIds.isEmpty()) {
+            return;
+        }
+        reservationHoldRepository.deleteAllInBatch(reservationHoldRepository.findByOrderIdIn(orderIds));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Quantity still held per order item of the given orders, locking the
+     * hold rows until the caller's transaction ends. The caller must already
+     * hold the orders' row locks. Items without an entry hold nothing: their
+     * reservation was released when the hold expired.
+     */
+    @Transactional
+    public Map<Long, Integer> lockHeldQuantities(Collection<Long> orderIds) {
+        Map<Long, Integer> held = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return held;
+        }
+        reservationHoldRepository.findByOrderIdInForUpdate(orderIds)
+                .forEach(hold -> held.merge(hold.getOrderItemId(), hold.getQuantity(), Integer::sum));
+        return held;
+    }
+
+    public int openTimers() {
+        return wheel.size();
+    }
+
+    @Scheduled(fixedDelayString = "${ondc.inventory.hold.tick-ms:1000}")
+    public void expireHolds() {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Long> due = wheel.advance(now);
+        for (int from = 0; from < due.size(); from += EXPIRY_BATCH_SIZE) {
+            List<Long> batch = due.subList(from, Math.min(due.size(), from + EXPIRY_BATCH_SIZE));
+            try {
+                transactionTemplate.executeWithoutResult(status -> expireBatch(batch));
+            } catch (RuntimeException ex) {
+                log.warn("Failed to expire {} reservation holds, retrying next tick: {}",
+                        batch.size(), ex.getMessage());
+                batch.forEach(id -> wheel.schedule(id, now));
+            }
+        }
+    }
+
+    private void expireBatch(List<Long> holdIds) {
+        // Holds cleared since they were armed are simply no longer there
+        List<Long> orderIds = reservationHoldRepository.findAllById(holdIds).stream()
+                .map(ReservationHold::getOrderId)
+                .distinct()
+                .collect(Collectors.toList());
+        if (orderIds.isEmpty()) {
+            return;
+        }
+
+        // Same lock order as dispatch and cancel: orders, then their holds. The
+        // locking read only returns holds nobody consumed in the meantime.
+        Map<Long, OrderStatus> statuses = new HashMap<>();
+        orderRepository.findAllForUpdate(orderIds).forEach(order -> statuses.put(order.getId(), order.getStatus()));
+        List<ReservationHold> holds = reservationHoldRepository.findByOrderIdInForUpdate(orderIds);
+        if (holds.isEmpty()) {
+            return;
+        }
+
+        // All holds of an order lapse together; a hold left behind by an order
+        // that is no longer ready has nothing to release
+        Map<HoldKey, Integer> toRelease = new LinkedHashMap<>();
+        Set<Long> expiredOrders = new LinkedHashSet<>();
+        for (ReservationHold hold : holds) {
+            if (HELD_STATUSES.contains(statuses.get(hold.getOrderId()))) {
+                toRelease.merge(new HoldKey(hold.getProductId(), hold.getOutletId()), hold.getQuantity(), Integer::sum);
+                expiredOrders.add(hold.getOrderId());
+            }
+        }
+        toRelease.forEach((key, quantity) ->
+                inventoryService.releaseReservation(key.productId(), key.outletId(), quantity));
+
+        reservationHoldRepository.deleteAllInBatch(holds);
+        if (!expiredOrders.isEmpty()) {
+            eventPublisher.publishEvent(new ReservationHoldsExpiredEvent(new ArrayList<>(expiredOrders)));
+        }
+        log.info("Expired {} reservation holds of {} orders across {} inventory rows",
+                holds.size(), expiredOrders.size(), toRelease.size());
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record HoldKey(Long productId, Long outletId) {
+    }
+}
@@ -0,0 +1,325 @@
+package com.example.ondc.service;
+
+import com.example.ondc.dto.ReservationLine;
+import com.example.ondc.entity.Inventory;
+import com.example.ondc.entity.StockEscrow;
+import com.example.ondc.event.InventoryChangedEvent;
+import com.example.ondc.exception.InsufficientStockException;
+import com.example.ondc.exception.ResourceNotFoundException;
+import com.example.ondc.repository.InventoryRepository;
+import com.example.ondc.repository.StockEscrowRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Per-seller-app stock escrow.
+ *
+ * A row's stock is handed out to seller apps in quotas ({@link StockEscrow}).
+ * A granted quota is moved into the row's reservedStock at grant time, so an
+ * app reserving from its own quota only updates its own escrow row — apps
+ * never queue on the shared inventory row. The row is touched again only when
+ * a quota runs dry and is topped up (grant-size units at a time).
+ *
+ * Invariant: quotas only grow through a conditional reserve on the inventory
+ * row and only shrink by being consumed or returned, so for every row
+ * sum(quotas) <= reservedStock <= totalStock.
+ *
+ * Each step commits in its own short transaction, so no lock is held for the
+ * length of an acceptOrder. A basket that fails partway credits what it took
+ * back at once; a complete basket is credited back if the surrounding
+ * transaction rolls back.
+ *
+ * Enable with ondc.inventory.escrow.enabled=true (ignored while the in-memory
+ * ledger is on — the ledger is already contention-free).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockEscrowService {
+
+    private final StockEscrowRepository stockEscrowRepository;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryChangeSequence inventoryChangeSequence;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${ondc.inventory.escrow.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ondc.inventory.escrow.grant-size:20}")
+    private int grantSize;
+
+    @Value("${ondc.inventory.escrow.idle-ms:60000}")
+    private long idleMillis;
+
+    /** Rows on which some app ran out of quota since the last rebalance. */
+    private final Set<RowKey> dryRows = ConcurrentHashMap.newKeySet();
+
+    private TransactionTemplate requiresNew;
+
+    @PostConstruct
+    void initTransactionTemplate() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Reserve a basket from one seller app's quotas — every line or none.
+     * Lines taken before a failing one are credited back before the failure
+     * is rethrown, whatever the caller then does with its transaction.
+     */
+    public void reserveAll(Long sellerAppId, List<ReservationLine> lines) {
+        List<ReservationLine> done = new ArrayList<>(lines.size());
+        try {
+            for (ReservationLine line : lines) {
+                reserve(sellerAppId, line.getProductId(), line.getOutletId(), line.getQuantity());
+                done.add(line);
+            }
+        } catch (RuntimeException ex) {
+            done.forEach(line -> refund(sellerAppId, line.getProductId(), line.getOutletId(), line.getQuantity()));
+            throw ex;
+        }
+        // Only a complete basket is left to the caller's transaction to undo
+        onRollback(() -> lines.forEach(line ->
+                refund(sellerAppId, line.getProductId(), line.getOutletId(), line.getQuantity())));
+    }
+
+    /**
+     * Return every quota of a row to it, inside the caller's transaction.
+     * Used before the row's total is rewritten so quotas can never outgrow it;
+     * the caller must already hold the inventory row lock.
+     *
+     * @return the quantity returned — the caller takes it off reservedStock
+     */
+    public int reclaimAll(Long productId, Long outletId) {
+        if (!enabled) {
+            return 0;
+        }
+        int reclaimed = 0;
+        for (StockEscrow escrow : stockEscrowRepository.findAllForUpdate(productId, outletId)) {
+            reclaimed += escrow.getQuota();
+            escrow.setQuota(0);
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Batch form of {@link #reclaimAll(Long, Long)} for a bulk rewrite of many
+     * rows, keyed by [productId, outletId]; the caller must already hold the
+     * inventory row locks.
+     *
+     * @return the quantity returned per row — absent where no quota was held
+     */
+    public Map<List<Long>, Integer> reclaimAll(Set<List<Long>> rows) {
+        Map<List<Long>, Integer> reclaimed = new HashMap<>();
+        if (!enabled || rows.isEmpty()) {
+            return reclaimed;
+        }
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> outletIds = new HashSet<>();
+        rows.forEach(row -> {
+            productIds.add(row.get(0));
+            outletIds.add(row.get(1));
+        });
+        for (StockEscrow escrow : stockEscrowRepository.findHeldForUpdate(productIds, outletIds)) {
+            List<Long> row = List.of(escrow.getProductId(), escrow.getOutletId());
+            if (rows.contains(row)) {
+                reclaimed.merge(row, escrow.getQuota(), Integer::sum);
+                escrow.setQuota(0);
+            }
+        }
+        return reclaimed;
+    }
+
+    /**
+     * Rebalance quotas: rows where an app ran dry give back every quota so
+     * stock follows demand; elsewhere only quotas idle for idle-ms go back.
+     */
+    @Scheduled(fixedDelayString = "${ondc.inventory.escrow.rebalance-ms:5000}")
+    public void rebalance() {
+        if (!enabled) {
+            return;
+        }
+        Set<RowKey> dry = new HashSet<>(dryRows);
+        dryRows.removeAll(dry);
+
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(idleMillis * 1_000_000);
+        Set<RowKey> idle = new HashSet<>();
+        for (StockEscrow escrow : stockEscrowRepository.findByQuotaGreaterThanAndLastUsedAtBefore(0, cutoff)) {
+            RowKey key = new RowKey(escrow.getProductId(), escrow.getOutletId());
+            if (!dry.contains(key)) {
+                idle.add(key);
+            }
+        }
+
+        int returned = 0;
+        for (RowKey key : dry) {
+            returned += returnQuotas(key, escrow -> true);
+        }
+        for (RowKey key : idle) {
+            returned += returnQuotas(key, escrow -> escrow.getLastUsedAt().isBefore(cutoff));
+        }
+        if (returned > 0) {
+            log.debug("Escrow rebalance returned {} units from {} dry and {} idle rows",
+                    returned, dry.size(), idle.size());
+        }
+    }
+
+    private void reserve(Long sellerAppId, Long productId, Long outletId, int quantity) {
+        // Fast path — only this app's escrow row is touched
+        Integer consumed = requiresNew.execute(status -> stockEscrowRepository.consume(
+                productId, outletId, sellerAppId, quantity, LocalDateTime.now()));
+        if (consumed != null && consumed > 0) {
+            return;
+        }
+
+        dryRows.add(new RowKey(productId, outletId));
+        Boolean granted;
+        try {
+            granted = requiresNew.execute(status -> grant(sellerAppId, productId, outletId, quantity));
+        } catch (DataIntegrityViolationException ex) {
+            // Another request created this app's escrow row first — its credit will now find it
+            granted = requiresNew.execute(status -> grant(sellerAppId, productId, outletId, quantity));
+        }
+        if (!Boolean.TRUE.equals(granted)) {
+            throw new InsufficientStockException("Insufficient stock for product " + productId +
+                    " at outlet " + outletId + ". Requested: " + quantity);
+        }
+    }
+
+    /**
+     * Take the quantity straight from the row plus a fresh grant-size quota;
+     * failing that, just the quantity; failing that, pull every quota back
+     * under the row lock and try once more.
+     */
+    private boolean grant(Long sellerAppId, Long productId, Long outletId, int quantity) {
+        LocalDateTime now = LocalDateTime.now();
+        long changeSeq = inventoryChangeSequence.next();
+        if (grantSize > 0 && inventoryRepository.reserveIfAvailable(productId, outletId, quantity + grantSize,
+                changeSeq, now) > 0) {
+            creditOrCreate(sellerAppId, productId, outletId, grantSize, now);
+            eventPublisher.publishEvent(InventoryChangedEvent.reserved(productId, outletId, quantity + grantSize,
+                    changeSeq));
+            return true;
+        }
+        if (inventoryRepository.reserveIfAvailable(productId, outletId, quantity, changeSeq, now) > 0) {
+            eventPublisher.publishEvent(InventoryChangedEvent.reserved(productId, outletId, quantity, changeSeq));
+            return true;
+        }
+
+        Inventory inventory = lockRow(productId, outletId);
+        int reclaimed = reclaimAll(productId, outletId);
+        int reserved = Math.max(0, inventory.getReservedStock() - reclaimed);
+        boolean taken = inventory.getTotalStock() - reserved >= quantity;
+        if (taken) {
+            reserved += quantity;
+        }
+        if (taken || reclaimed > 0) {
+            inventory.setReservedStock(reserved);
+            saveAndPublish(inventory);
+        }
+        return taken;
+    }
+
+    private int returnQuotas(RowKey key, Predicate<StockEscrow> eligible) {
+        Integer returned = requiresNew.execute(status -> {
+            Inventory inventory = lockRow(key.productId(), key.outletId());
+            int total = 0;
+            for (StockEscrow escrow : stockEscrowRepository.findAllForUpdate(key.productId(), key.outletId())) {
+                if (escrow.getQuota() > 0 && eligible.test(escrow)) {
+                    total += escrow.getQuota();
+                    escrow.setQuota(0);
+                }
+            }
+            if (total > 0) {
+                inventory.setReservedStock(Math.max(0, inventory.getReservedStock() - total));
+                saveAndPublish(inventory);
+            }
+            return total;
+        });
+        return returned != null ? returned : 0;
+    }
+
+    private void refund(Long sellerAppId, Long productId, Long outletId, int quantity) {
+        try {
+            requiresNew.executeWithoutResult(status ->
+                    creditOrCreate(sellerAppId, productId, outletId, quantity, LocalDateTime.now()));
+        } catch (RuntimeException ex) {
+            // The units stay counted as reserved on the row until corrected by hand
+            log.error("Failed to return {} units of product {} at outlet {} to seller app {} escrow",
+                    quantity, productId, outletId, sellerAppId, ex);
+        }
+    }
+
+    private void creditOrCreate(Long sellerAppId, Long productId, Long outletId, int quantity, LocalDateTime now) {
+        if (stockEscrowRepository.credit(productId, outletId, sellerAppId, quantity, now) == 0) {
+            stockEscrowRepository.saveAndFlush(StockEscrow.builder()
+                    .productId(productId)
+                    .outletId(outletId)
+                    .sellerAppId(sellerAppId)
+                    .quota(quantity)
+                    .lastUsedAt(now)
+                    .build());
+        }
+    }
+
+    /**
+     * Lock order is always inventory row, then escrow rows.
+     */
+    private Inventory lockRow(Long productId, Long outletId) {
+        List<Inventory> rows = inventoryRepository.findAllForUpdate(List.of(productId), List.of(outletId));
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException(
+                    "Inventory not found for product " + productId + " at outlet " + outletId);
+        }
+        return rows.get(0);
+    }
+
+    private void saveAndPublish(Inventory inventory) {
+        Inventory saved = inventoryRepository.saveAndFlush(inventory);
+        eventPublisher.publishEvent(InventoryChangedEvent.of(
+                saved.getProduct().getId(), saved.getOutlet().getId(),
+                saved.getTotalStock(), saved.getReservedStock(), saved.getReorderLevel(), saved.getChangeSeq()));
+    }
+
+    private void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    undo.run();
+                }
+            }
+        });
+    }
+
+    private record RowKey(Long productId, Long outletId) {
+    }
+}
@@ -36,6 +36,7 @@ public class VendorService {
                 .businessName(request.getBusinessName())
                 .address(request.getAddress())
                 .build();
+        applyDecisionThresholds(vendor, request);
         return toResponse(vendorRepository.save(vendor));
     }
 
@@ -47,18 +48,39 @@ public class VendorService {
         vendor.setPhone(request.getPhone());
         vendor.setBusinessName(request.getBusinessName());
         vendor.setAddress(request.getAddress());
+        applyDecisionThresholds(vendor, request);
         return toResponse(vendorRepository.save(vendor));
     }
 
+    private void applyDecisionThresholds(Vendor vendor, VendorRequest request) {
+        if (request.getAutoDecisionEnabled() != null) {
+            vendor.setAutoDecisionEnabled(request.getAutoDecisionEnabled());
+        }
+        if (request.getAutoAcceptMaxLoad() != null) {
+            vendor.setAutoAcceptMaxLoad(request.getAutoAcceptMaxLoad());
+        }
+        if (request.getAutoRejectMinLoad() != null) {
+            vendor.setAutoRejectMinLoad(request.getAutoRejectMinLoad());
+        }
+        if (request.getMinPartialFillRatio() != null) {
+            vendor.setMinPartialFillRatio(request.getMinPartialFillRatio());
+        }
+    }
+
     @Transactional
     public void updateVendorStats(Long vendorId, boolean orderSuccessful) {
+        updateVendorStats(vendorId, orderSuccessful ? 1 : 0, orderSuccessful ? 0 : 1);
+    }
+
+    /**
+     * Apply a batch of order outcomes to a vendor in one read and one write.
+     */
+    @Transactional
+    public void updateVendorStats(Long vendorId, int successful, int cancelled) {
         Vendor vendor = findVendorById(vendorId);
-        vendor.setTotalOrders(vendor.getTotalOrders() + 1);
-        if (orderSuccessful) {
-            vendor.setSuccessfulOrders(vendor.getSuccessfulOrders() + 1);
-        } else {
-            vendor.setCancelledOrders(vendor.getCancelledOrders() + 1);
-        }
+        vendor.setTotalOrders(vendor.getTotalOrders() + successful + cancelled);
+        vendor.setSuccessfulOrders(vendor.getSuccessfulOrders() + successful);
+        vendor.setCancelledOrders(vendor.getCancelledOrders() + cancelled);
         // Calculate rating based on fulfillment rate
         if (vendor.getTotalOrders() > 0) {
             double rate = (double) vendor.getSuccessfulOrders() / vendor.getTotalOrders();
@@ -85,6 +107,10 @@ public class VendorService {
                 .successfulOrders(vendor.getSuccessfulOrders())
                 .cancelledOrders(vendor.getCancelledOrders())
                 .isActive(vendor.getIsActive())
+                .autoDecisionEnabled(vendor.getAutoDecisionEnabled())
+                .autoAcceptMaxLoad(vendor.getAutoAcceptMaxLoad())
+                .autoRejectMinLoad(vendor.getAutoRejectMinLoad())
+                .minPartialFillRatio(vendor.getMinPartialFillRatio())
                 .createdAt(vendor.getCreatedAt())
                 .build();
     }
@@ -0,0 +1,79 @@
+package com.example.ondc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timer wheel — O(1) schedule, and expiry cost proportional to the
+ * timers that actually fall due rather than to everything outstanding.
+ *
+ * Timers are hashed into {@code slots} buckets by deadline tick; a timer more
+ * than one rotation away simply stays in its bucket until its tick comes round.
+ * Cancellation is left to the caller (validate the item when it is handed back).
+ */
+public class HashedTimerWheel<T> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<List<Timer<T>>> buckets;
+    private long currentTick;
+    private int size;
+
+    public HashedTimerWheel(long tickMillis, int slots, long startMillis) {
+        if (Integer.bitCount(slots) != 1) {
+            throw new IllegalArgumentException("slots must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = slots - 1;
+        this.buckets = new ArrayList<>(slots);
+        for (int i = 0; i < slots; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    public synchronized void schedule(T item, long deadlineMillis) {
+        // Anything already due goes into the next tick's bucket
+        long tick = Math.max(deadlineMillis / tickMillis, currentTick + 1);
+        buckets.get((int) (tick & mask)).add(new Timer<>(item, tick));
+        size++;
+    }
+
+    /**
+     * Move the wheel up to {@code nowMillis} and return every item whose deadline has passed.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long nowTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        // After a full rotation every bucket has been visited once
+        long lastTick = Math.min(nowTick, currentTick + buckets.size());
+        for (long tick = currentTick + 1; tick <= lastTick; tick++) {
+            // Swap the bucket out and keep the timers from later rotations — linear
+            // in the bucket, where removing from the list in place would be quadratic
+            int slot = (int) (tick & mask);
+            List<Timer<T>> bucket = buckets.get(slot);
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            List<Timer<T>> remaining = new ArrayList<>();
+            for (Timer<T> timer : bucket) {
+                if (timer.deadlineTick <= nowTick) {
+                    expired.add(timer.item);
+                    size--;
+                } else {
+                    remaining.add(timer);
+                }
+            }
+            buckets.set(slot, remaining);
+        }
+        currentTick = Math.max(currentTick, nowTick);
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private record Timer<T>(T item, long deadlineTick) {
+    }
+}
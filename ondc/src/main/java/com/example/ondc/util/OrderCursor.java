@@ -0,0 +1,38 @@
+package com.example.ondc.util;
+
+import com.example.ondc.exception.InvalidOperationException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position in an order listing: the (createdAt, id) of the last
+ * row returned. Listings run newest first, so the next page holds the rows
+ * strictly before this key.
+ */
+public record OrderCursor(LocalDateTime createdAt, Long id) {
+
+    /** Position before the first row of any listing. */
+    public static final OrderCursor START = new OrderCursor(LocalDateTime.of(9999, 12, 31, 23, 59), Long.MAX_VALUE);
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a cursor from a previous page; null or blank means the first page.
+     */
+    public static OrderCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int split = raw.lastIndexOf('|');
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, split)), Long.parseLong(raw.substring(split + 1)));
+        } catch (RuntimeException ex) {
+            throw new InvalidOperationException("Invalid cursor: " + cursor);
+        }
+    }
+}
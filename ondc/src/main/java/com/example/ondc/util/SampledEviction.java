@@ -0,0 +1,73 @@
+package com.example.ondc.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.ToLongFunction;
+
+/**
+ * Approximate-LRU eviction for caches held in a ConcurrentHashMap.
+ *
+ * For every entry over the bound, a few entries are sampled from a random
+ * region of the table and the one loaded longest ago is removed. The map
+ * iterates in bin order, so a plain iterator would always hit the same low
+ * bins; the region is instead picked by splitting the entry set's
+ * spliterator down a random path, which costs a handful of splits.
+ */
+public final class SampledEviction {
+
+    private static final int SAMPLE_SIZE = 8;
+
+    private SampledEviction() {
+    }
+
+    /**
+     * Evict until the map holds at most maxSize entries, never choosing keep
+     * (the entry just stored). Returns the number of entries removed.
+     */
+    public static <K, V> int evict(Map<K, V> map, int maxSize, K keep, ToLongFunction<V> loadedAt) {
+        int evicted = 0;
+        int attempts = Math.max(0, map.size() - maxSize) * 2;
+        while (map.size() > maxSize && attempts-- > 0) {
+            Map.Entry<K, V> victim = sample(map, keep, loadedAt);
+            if (victim != null && map.remove(victim.getKey(), victim.getValue())) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    private static <K, V> Map.Entry<K, V> sample(Map<K, V> map, K keep, ToLongFunction<V> loadedAt) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Spliterator<Map.Entry<K, V>> region = map.entrySet().spliterator();
+        while (region.estimateSize() > SAMPLE_SIZE * 2L) {
+            Spliterator<Map.Entry<K, V>> prefix = region.trySplit();
+            if (prefix == null) {
+                break;
+            }
+            if (random.nextBoolean()) {
+                region = prefix;
+            }
+        }
+        List<Map.Entry<K, V>> sampled = new ArrayList<>(SAMPLE_SIZE);
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            if (!region.tryAdvance(sampled::add)) {
+                break;
+            }
+        }
+        if (sampled.isEmpty()) {
+            // The region landed on empty bins — fall back to the head of the table
+            map.entrySet().stream().limit(SAMPLE_SIZE).forEach(sampled::add);
+        }
+        Map.Entry<K, V> oldest = null;
+        for (Map.Entry<K, V> entry : sampled) {
+            if (!entry.getKey().equals(keep) && (oldest == null
+                    || loadedAt.applyAsLong(entry.getValue()) < loadedAt.applyAsLong(oldest.getValue()))) {
+                oldest = entry;
+            }
+        }
+        return oldest;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ondc;
+
+import com.example.ondc.exception.InsufficientStockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The single conditional UPDATE never oversells a row, however many threads
+ * race for its last units.
+ */
+@SpringBootTest(properties = "ondc.inventory.atomic-reserve.enabled=true")
+class AtomicReserveTests extends OrderFixture {
+
+	private static final int THREADS = 8;
+	private static final int ATTEMPTS_PER_THREAD = 20;
+
+	@Test
+	void concurrentReservesStopAtTheAvailableStock() throws Exception {
+		AtomicInteger succeeded = new AtomicInteger();
+		AtomicInteger refused = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<?>> tasks = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				tasks.add(pool.submit(() -> {
+					start.await();
+					for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+						try {
+							inventoryService.reserveStock(product.getId(), outlet.getId(), 1);
+							succeeded.incrementAndGet();
+						} catch (InsufficientStockException ex) {
+							refused.incrementAndGet();
+						}
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertThat(THREADS * ATTEMPTS_PER_THREAD).isGreaterThan(STOCK);
+		assertThat(succeeded.get()).isEqualTo(STOCK);
+		assertThat(refused.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD - STOCK);
+		assertThat(row().getReservedStock()).isEqualTo(STOCK);
+	}
+}
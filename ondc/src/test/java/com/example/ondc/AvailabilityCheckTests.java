@@ -0,0 +1,91 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.AvailabilityLine;
+import com.example.ondc.dto.AvailabilityRequest;
+import com.example.ondc.dto.AvailabilityResponse;
+import com.example.ondc.dto.AvailabilityResult;
+import com.example.ondc.dto.CacheStats;
+import com.example.ondc.entity.Outlet;
+import com.example.ondc.entity.Product;
+import com.example.ondc.exception.InvalidOperationException;
+import com.example.ondc.service.AvailabilityCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A bulk availability check answers cached rows from the cache, reads every
+ * other row in one query, and refuses baskets over the line cap.
+ */
+@SpringBootTest(properties = "ondc.inventory.cache.enabled=true")
+class AvailabilityCheckTests extends OrderFixture {
+
+	private static final int MAX_LINES = 500;
+
+	@Autowired
+	private AvailabilityCache availabilityCache;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void basketOverTheLineCapIsRefused() {
+		List<AvailabilityLine> lines = Collections.nCopies(MAX_LINES + 1, line(product, outlet, 1));
+
+		assertThatThrownBy(() -> inventoryService.checkAvailability(new AvailabilityRequest(lines, null, null)))
+				.isInstanceOf(InvalidOperationException.class)
+				.hasMessageContaining("At most " + MAX_LINES + " lines");
+	}
+
+	@Test
+	void basketAtTheLineCapIsChecked() {
+		List<AvailabilityLine> lines = Collections.nCopies(MAX_LINES, line(product, outlet, 1));
+
+		AvailabilityResponse response = inventoryService.checkAvailability(new AvailabilityRequest(lines, null, null));
+
+		assertThat(response.getLines()).hasSize(MAX_LINES);
+		assertThat(response.getAllAvailable()).isTrue();
+	}
+
+	@Test
+	void cachedAndUncachedRowsAreAnsweredTogether() {
+		Product uncached = newProduct(3);
+		Outlet unstocked = newOutlet("560001");
+		inventoryService.getInventory(product.getId(), outlet.getId());
+
+		// Behind the cache's back: the cached row keeps its old figure, the uncached one is read fresh
+		setTotalStock(product, 60);
+		setTotalStock(uncached, 2);
+		CacheStats before = availabilityCache.stats();
+
+		List<AvailabilityLine> lines = new ArrayList<>();
+		lines.add(line(product, outlet, 80));
+		lines.add(line(uncached, outlet, 3));
+		lines.add(line(product, unstocked, 1));
+		AvailabilityResponse response = inventoryService.checkAvailability(new AvailabilityRequest(lines, null, null));
+
+		CacheStats after = availabilityCache.stats();
+		assertThat(after.getHits() - before.getHits()).isEqualTo(1);
+		assertThat(after.getMisses() - before.getMisses()).isEqualTo(2);
+		assertThat(response.getLines()).extracting(AvailabilityResult::getAvailable).containsExactly(STOCK, 2, 0);
+		assertThat(response.getLines()).extracting(AvailabilityResult::getOk).containsExactly(true, false, false);
+		assertThat(response.getAllAvailable()).isFalse();
+	}
+
+	private void setTotalStock(Product stocked, int totalStock) {
+		jdbcTemplate.update("UPDATE inventory SET total_stock = ? WHERE product_id = ? AND outlet_id = ?",
+				totalStock, stocked.getId(), outlet.getId());
+	}
+
+	private static AvailabilityLine line(Product wanted, Outlet at, int quantity) {
+		return new AvailabilityLine(wanted.getId(), at.getId(), quantity);
+	}
+}
@@ -0,0 +1,51 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.BatchDecisionRequest;
+import com.example.ondc.dto.BatchDecisionResponse;
+import com.example.ondc.dto.OrderDecision;
+import com.example.ondc.dto.OrderDecisionResult;
+import com.example.ondc.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * One batch accepts, rejects and fails orders independently, reports each
+ * once in request order, and reserves stock only for the accepted ones.
+ */
+@SpringBootTest
+class BatchDecisionTests extends OrderFixture {
+
+	@Test
+	void eachOrderIsDecidedOnItsOwn() {
+		Long accepted = pendingOrder(1);
+		Long rejected = pendingOrder(1);
+		// Fits on its own, but not once the first accept in the same outlet group has reserved
+		Long tooLarge = pendingOrder(STOCK);
+		Long missing = Long.MAX_VALUE;
+
+		BatchDecisionResponse response = orderService.decideBatch(new BatchDecisionRequest(List.of(
+				new OrderDecision(accepted, true, null),
+				new OrderDecision(rejected, false, "out of packaging"),
+				new OrderDecision(tooLarge, true, null),
+				new OrderDecision(accepted, true, null),
+				new OrderDecision(missing, true, null))));
+
+		assertThat(response.getAccepted()).isEqualTo(1);
+		assertThat(response.getRejected()).isEqualTo(1);
+		assertThat(response.getFailed()).isEqualTo(2);
+		assertThat(response.getResults()).extracting(OrderDecisionResult::getOrderId)
+				.containsExactly(accepted, rejected, tooLarge, missing);
+		assertThat(response.getResults()).extracting(OrderDecisionResult::getSuccess)
+				.containsExactly(true, true, false, false);
+
+		assertThat(orderService.getOrderById(accepted).getStatus()).isEqualTo(OrderStatus.ACCEPTED);
+		assertThat(orderService.getOrderById(rejected).getStatus()).isEqualTo(OrderStatus.REJECTED);
+		assertThat(orderService.getOrderById(tooLarge).getStatus()).isEqualTo(OrderStatus.PENDING);
+		assertThat(row().getReservedStock()).isEqualTo(1);
+		assertThat(outletRepository.findById(outlet.getId()).orElseThrow().getCurrentLoad()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,171 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.DecisionEngineStats;
+import com.example.ondc.entity.Order;
+import com.example.ondc.entity.OrderItem;
+import com.example.ondc.entity.Outlet;
+import com.example.ondc.entity.Product;
+import com.example.ondc.entity.Vendor;
+import com.example.ondc.enums.OrderPriority;
+import com.example.ondc.service.AvailabilityCache;
+import com.example.ondc.service.DecisionEngine;
+import com.example.ondc.service.DecisionEngine.Outcome;
+import com.example.ondc.service.InventoryLedger;
+import com.example.ondc.service.OutletStockIndex;
+import com.example.ondc.util.LatencyRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Each decision rule in order, and the latency figures the engine reports.
+ */
+class DecisionEngineTests {
+
+	private static final long OUTLET = 1L;
+	private static final long APPLE = 10L;
+	private static final long PEAR = 20L;
+
+	private OutletStockIndex outletStockIndex;
+	private AvailabilityCache availabilityCache;
+	private DecisionEngine engine;
+	private Vendor vendor;
+	private Outlet outlet;
+
+	@BeforeEach
+	void newEngine() {
+		outletStockIndex = mock(OutletStockIndex.class);
+		availabilityCache = mock(AvailabilityCache.class);
+		engine = newEngine(5.0);
+		vendor = Vendor.builder().id(1L).autoDecisionEnabled(true).build();
+		outlet = Outlet.builder().id(OUTLET).currentLoad(10).maxCapacity(100).build();
+		stock(APPLE, 10);
+		stock(PEAR, 10);
+	}
+
+	@Test
+	void vendorThatHasNotOptedInIsLeftManual() {
+		vendor.setAutoDecisionEnabled(false);
+
+		assertThat(engine.decide(order(OrderPriority.MEDIUM, APPLE, 1)).outcome()).isEqualTo(Outcome.MANUAL);
+	}
+
+	@Test
+	void outletAtCapacityRejectsUnlessCritical() {
+		outlet.setCurrentLoad(100);
+
+		assertThat(engine.decide(order(OrderPriority.HIGH, APPLE, 1)).outcome()).isEqualTo(Outcome.REJECT);
+		assertThat(engine.decide(order(OrderPriority.CRITICAL, APPLE, 1)).outcome()).isEqualTo(Outcome.ACCEPT);
+	}
+
+	@Test
+	void fullyStockedOrderIsAcceptedWhileTheOutletHasRoom() {
+		assertThat(engine.decide(order(OrderPriority.MEDIUM, APPLE, 10, PEAR, 3)).outcome()).isEqualTo(Outcome.ACCEPT);
+
+		outlet.setCurrentLoad(90);
+		assertThat(engine.decide(order(OrderPriority.MEDIUM, APPLE, 1)).outcome()).isEqualTo(Outcome.MANUAL);
+		assertThat(engine.decide(order(OrderPriority.HIGH, APPLE, 1)).outcome()).isEqualTo(Outcome.ACCEPT);
+	}
+
+	@Test
+	void partlyStockedOrderIsPartiallyFilledAboveTheRatio() {
+		stock(PEAR, 2);
+
+		DecisionEngine.Decision decision = engine.decide(order(OrderPriority.MEDIUM, APPLE, 6, PEAR, 4));
+
+		assertThat(decision.outcome()).isEqualTo(Outcome.PARTIAL);
+		assertThat(decision.quantities()).isEqualTo(Map.of(APPLE, 6, PEAR, 2));
+	}
+
+	@Test
+	void orderMostlyOutOfStockIsRejected() {
+		stock(APPLE, 1);
+		stock(PEAR, 0);
+
+		assertThat(engine.decide(order(OrderPriority.MEDIUM, APPLE, 5, PEAR, 5)).outcome()).isEqualTo(Outcome.REJECT);
+	}
+
+	@Test
+	void unknownStockIsLeftToTheVendor() {
+		when(outletStockIndex.available(PEAR, OUTLET)).thenReturn(null);
+		when(availabilityCache.cachedAvailable(PEAR, OUTLET)).thenReturn(null);
+
+		assertThat(engine.decide(order(OrderPriority.MEDIUM, APPLE, 1, PEAR, 1)).outcome()).isEqualTo(Outcome.MANUAL);
+	}
+
+	@Test
+	void statsCountOutcomesAndStayWithinTheBudget() {
+		int decisions = 2_000;
+		// Warm up on a throwaway engine so class loading and JIT stay out of the measured samples
+		for (int i = 0; i < decisions; i++) {
+			engine.decide(order(OrderPriority.MEDIUM, APPLE, 1 + i % 20));
+		}
+		engine = newEngine(5.0);
+		for (int i = 0; i < decisions; i++) {
+			engine.decide(order(OrderPriority.MEDIUM, APPLE, 1 + i % 20));
+		}
+
+		DecisionEngineStats stats = engine.stats();
+		assertThat(stats.getDecisions()).isEqualTo(decisions);
+		assertThat(stats.getAccepted() + stats.getPartial()).isEqualTo(decisions);
+		assertThat(stats.getP50Micros()).isPositive().isLessThanOrEqualTo(stats.getP99Micros());
+		assertThat(stats.getP99Micros()).isLessThanOrEqualTo(stats.getMaxMicros()).isLessThan(5_000.0);
+	}
+
+	@Test
+	void decisionsOverBudgetAreCounted() {
+		engine = newEngine(0.0);
+
+		engine.decide(order(OrderPriority.MEDIUM, APPLE, 1));
+
+		assertThat(engine.stats().getOverBudget()).isEqualTo(1);
+	}
+
+	@Test
+	void percentilesAreTakenOverTheRetainedSamples() {
+		LatencyRecorder recorder = new LatencyRecorder(100);
+		for (long nanos = 1; nanos <= 150; nanos++) {
+			recorder.record(nanos);
+		}
+
+		// The ring keeps the last 100 samples: 51..150
+		assertThat(recorder.count()).isEqualTo(150);
+		assertThat(recorder.percentileNanos(50)).isEqualTo(100);
+		assertThat(recorder.percentileNanos(99)).isEqualTo(149);
+		assertThat(recorder.maxNanos()).isEqualTo(150);
+	}
+
+	private DecisionEngine newEngine(double budgetMillis) {
+		DecisionEngine created = new DecisionEngine(mock(InventoryLedger.class), outletStockIndex, availabilityCache);
+		ReflectionTestUtils.setField(created, "enabled", true);
+		ReflectionTestUtils.setField(created, "budgetMillis", budgetMillis);
+		return created;
+	}
+
+	private void stock(long productId, int available) {
+		when(outletStockIndex.available(productId, OUTLET)).thenReturn(available);
+	}
+
+	private Order order(OrderPriority priority, Object... lines) {
+		Order order = Order.builder()
+				.ondcOrderId("DE-1")
+				.vendor(vendor)
+				.outlet(outlet)
+				.priority(priority)
+				.build();
+		for (int i = 0; i < lines.length; i += 2) {
+			order.getItems().add(OrderItem.builder()
+					.order(order)
+					.product(Product.builder().id((Long) lines[i]).build())
+					.requestedQty((Integer) lines[i + 1])
+					.build());
+		}
+		return order;
+	}
+}
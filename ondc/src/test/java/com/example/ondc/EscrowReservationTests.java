@@ -0,0 +1,146 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.BasketReservation;
+import com.example.ondc.dto.InventoryRequest;
+import com.example.ondc.dto.ReservationLine;
+import com.example.ondc.entity.Inventory;
+import com.example.ondc.entity.SellerApp;
+import com.example.ondc.entity.StockEscrow;
+import com.example.ondc.repository.InventoryRepository;
+import com.example.ondc.repository.OutletRepository;
+import com.example.ondc.repository.ProductRepository;
+import com.example.ondc.repository.SellerAppRepository;
+import com.example.ondc.repository.StockEscrowRepository;
+import com.example.ondc.service.InventoryImportService;
+import com.example.ondc.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A basket that fails partway through the escrow path gives back what it took,
+ * and a restock or bulk import pulls quotas back before rewriting a row's total.
+ */
+@SpringBootTest(properties = {
+		"ondc.inventory.escrow.enabled=true",
+		"ondc.inventory.escrow.grant-size=5"
+})
+@ActiveProfiles("h2")
+class EscrowReservationTests {
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private StockEscrowRepository stockEscrowRepository;
+
+	@Autowired
+	private SellerAppRepository sellerAppRepository;
+
+	@Autowired
+	private InventoryImportService inventoryImportService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OutletRepository outletRepository;
+
+	private Inventory first;
+	private Inventory second;
+	private Long sellerAppId;
+
+	@BeforeEach
+	void pickRows() {
+		Map<Long, List<Inventory>> byOutlet = inventoryRepository.findAll().stream()
+				.collect(Collectors.groupingBy(inv -> inv.getOutlet().getId()));
+		List<Inventory> rows = byOutlet.values().stream()
+				.filter(list -> list.size() >= 2)
+				.findFirst().orElseThrow();
+		first = rows.get(0);
+		second = rows.get(1);
+		sellerAppId = sellerAppRepository.save(SellerApp.builder()
+				.name("escrow-test")
+				.apiEndpoint("http://localhost/escrow-test")
+				.build()).getId();
+	}
+
+	@Test
+	void failedBasketReturnsConsumedLinesToTheQuota() {
+		int reservedBefore = reserved(first);
+		int quotaBefore = quota(first);
+
+		List<String> outcomes = inventoryService.reserveEach(List.of(new BasketReservation(sellerAppId, List.of(
+				new ReservationLine(first.getProduct().getId(), first.getOutlet().getId(), 1),
+				new ReservationLine(second.getProduct().getId(), second.getOutlet().getId(), 1_000_000)))));
+
+		assertThat(outcomes.get(0)).isNotNull();
+		// Whatever the first line took from the row now sits in escrow, not with the failed basket
+		assertThat(reserved(first) - reservedBefore).isEqualTo(quota(first) - quotaBefore);
+	}
+
+	@Test
+	void importReclaimsQuotasOfRewrittenRows() throws Exception {
+		List<String> outcomes = inventoryService.reserveEach(List.of(new BasketReservation(sellerAppId, List.of(
+				new ReservationLine(first.getProduct().getId(), first.getOutlet().getId(), 1)))));
+		assertThat(outcomes.get(0)).isNull();
+		int held = quota(first);
+		assertThat(held).isPositive();
+		int reservedBefore = reserved(first);
+
+		String sku = productRepository.findById(first.getProduct().getId()).orElseThrow().getSku();
+		Long vendorId = outletRepository.findById(first.getOutlet().getId()).orElseThrow().getVendor().getId();
+		String csv = "sku,outletId,totalStock\n" + sku + "," + first.getOutlet().getId() + ",500\n";
+		inventoryImportService.importStock(vendorId,
+				new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), false);
+
+		assertThat(quota(first)).isZero();
+		assertThat(reserved(first)).isEqualTo(reservedBefore - held);
+	}
+
+	@Test
+	void restockLocksTheRowAndReclaimsItsQuotas() {
+		List<String> outcomes = inventoryService.reserveEach(List.of(new BasketReservation(sellerAppId, List.of(
+				new ReservationLine(second.getProduct().getId(), second.getOutlet().getId(), 1)))));
+		assertThat(outcomes.get(0)).isNull();
+		int held = quota(second);
+		assertThat(held).isPositive();
+		int reservedBefore = reserved(second);
+
+		inventoryService.createOrUpdateInventory(InventoryRequest.builder()
+				.productId(second.getProduct().getId())
+				.outletId(second.getOutlet().getId())
+				.totalStock(400)
+				.build());
+
+		assertThat(quota(second)).isZero();
+		assertThat(reserved(second)).isEqualTo(reservedBefore - held);
+	}
+
+	private int reserved(Inventory row) {
+		return inventoryRepository.findByProductIdAndOutletId(row.getProduct().getId(), row.getOutlet().getId())
+				.orElseThrow().getReservedStock();
+	}
+
+	private int quota(Inventory row) {
+		return stockEscrowRepository.findAll().stream()
+				.filter(e -> e.getProductId().equals(row.getProduct().getId())
+						&& e.getOutletId().equals(row.getOutlet().getId()))
+				.mapToInt(StockEscrow::getQuota)
+				.sum();
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.example.ondc;
+
+import com.example.ondc.util.HashedTimerWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Expiry hands back exactly the timers that fell due, however many share a bucket.
+ */
+class HashedTimerWheelTests {
+
+	private static final long TICK_MS = 10;
+	private static final int SLOTS = 8;
+
+	@Test
+	void burstInOneTickExpiresTogether() {
+		HashedTimerWheel<Integer> wheel = new HashedTimerWheel<>(TICK_MS, SLOTS, 0);
+		int burst = 200_000;
+		for (int i = 0; i < burst; i++) {
+			wheel.schedule(i, 5 * TICK_MS);
+		}
+
+		assertThat(wheel.advance(4 * TICK_MS)).isEmpty();
+		List<Integer> expired = wheel.advance(5 * TICK_MS);
+
+		assertThat(expired).hasSize(burst);
+		assertThat(wheel.size()).isZero();
+	}
+
+	@Test
+	void timersOfLaterRotationsStayInTheirBucket() {
+		HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK_MS, SLOTS, 0);
+		wheel.schedule("now", 3 * TICK_MS);
+		wheel.schedule("next-rotation", (3 + SLOTS) * TICK_MS);
+
+		assertThat(wheel.advance(3 * TICK_MS)).containsExactly("now");
+		assertThat(wheel.size()).isEqualTo(1);
+		assertThat(wheel.advance((3 + SLOTS) * TICK_MS)).containsExactly("next-rotation");
+	}
+
+	@Test
+	void overdueTimerFiresOnTheNextTick() {
+		HashedTimerWheel<String> wheel = new HashedTimerWheel<>(TICK_MS, SLOTS, 100 * TICK_MS);
+		wheel.schedule("late", 0);
+
+		assertThat(wheel.advance(100 * TICK_MS)).isEmpty();
+		assertThat(wheel.advance(101 * TICK_MS)).containsExactly("late");
+	}
+
+}
@@ -0,0 +1,132 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.ImportRowError;
+import com.example.ondc.dto.InventoryImportResponse;
+import com.example.ondc.entity.Inventory;
+import com.example.ondc.entity.Outlet;
+import com.example.ondc.entity.Product;
+import com.example.ondc.service.InventoryImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CSV with or without a header in any column order, NDJSON, per-line errors
+ * capped in the report, and rows committed chunk by chunk.
+ */
+@SpringBootTest
+class InventoryImportTests extends OrderFixture {
+
+	@Autowired
+	private InventoryImportService inventoryImportService;
+
+	@AfterEach
+	void restoreBatchSize() {
+		ReflectionTestUtils.setField(inventoryImportService, "batchSize", 1000);
+	}
+
+	@Test
+	void csvHeaderIsFoundInAnyColumnOrder() throws IOException {
+		InventoryImportResponse response = importCsv(
+				"\uFEFFOutlet Id,total_stock,SKU,reorderLevel\n" + outlet.getId() + ",7," + product.getSku() + ",3\n");
+
+		assertThat(response.getUpdated()).isEqualTo(1);
+		assertThat(response.getFailed()).isZero();
+		assertThat(row().getTotalStock()).isEqualTo(7);
+		assertThat(row().getReorderLevel()).isEqualTo(3);
+
+		// No header: the fixed sku,outletId,totalStock order
+		response = importCsv(product.getSku() + "," + outlet.getId() + ",9\n");
+
+		assertThat(response.getRowsRead()).isEqualTo(1);
+		assertThat(response.getUpdated()).isEqualTo(1);
+		assertThat(row().getTotalStock()).isEqualTo(9);
+	}
+
+	@Test
+	void ndjsonRowsAreInsertedAndUpdated() throws IOException {
+		Outlet second = newOutlet("560002");
+		String body = "{\"sku\":\"" + product.getSku() + "\",\"outletId\":" + outlet.getId() + ",\"totalStock\":40}\n"
+				+ "\n"
+				+ "{\"sku\":\"" + product.getSku() + "\",\"outletId\":" + second.getId()
+				+ ",\"totalStock\":5,\"reorderLevel\":2}\n"
+				+ "{not json\n";
+
+		InventoryImportResponse response = inventoryImportService.importStock(vendor.getId(), stream(body), true);
+
+		assertThat(response.getRowsRead()).isEqualTo(3);
+		assertThat(response.getUpdated()).isEqualTo(1);
+		assertThat(response.getInserted()).isEqualTo(1);
+		assertThat(response.getErrors()).extracting(ImportRowError::getLine).containsExactly(4L);
+		assertThat(row().getTotalStock()).isEqualTo(40);
+		Inventory inserted = row(product, second);
+		assertThat(inserted.getTotalStock()).isEqualTo(5);
+		assertThat(inserted.getReorderLevel()).isEqualTo(2);
+	}
+
+	@Test
+	void errorsAreReportedPerLineUpToTheCap() throws IOException {
+		StringBuilder body = new StringBuilder("sku,outletId,totalStock\n");
+		body.append("NO-SUCH-SKU,").append(outlet.getId()).append(",1\n");
+		body.append(product.getSku()).append(",").append(Long.MAX_VALUE).append(",1\n");
+		for (int i = 0; i < 1000; i++) {
+			body.append(product.getSku()).append(",").append(outlet.getId()).append(",lots\n");
+		}
+
+		InventoryImportResponse response = importCsv(body.toString());
+
+		assertThat(response.getFailed()).isEqualTo(1002);
+		assertThat(response.getErrors()).hasSize(1000);
+		assertThat(response.getErrorsTruncated()).isTrue();
+		// Parse and ownership errors are reported as they are read, unknown SKUs when their chunk runs
+		assertThat(response.getErrors().get(0).getLine()).isEqualTo(3L);
+		assertThat(response.getErrors().get(0).getMessage()).contains("does not belong to vendor");
+		assertThat(response.getErrors().get(1).getMessage()).contains("Invalid totalStock");
+		assertThat(response.getErrors()).noneMatch(error -> error.getMessage().contains("Unknown SKU"));
+	}
+
+	@Test
+	void rowsAreCommittedChunkByChunk() throws IOException {
+		ReflectionTestUtils.setField(inventoryImportService, "batchSize", 2);
+		List<Product> products = new ArrayList<>();
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < 5; i++) {
+			Product stocked = newProduct(1);
+			products.add(stocked);
+			body.append(stocked.getSku()).append(",").append(outlet.getId()).append(",").append(20 + i).append("\n");
+		}
+		// Lands in the last, partial chunk on its own
+		body.append("NO-SUCH-SKU,").append(outlet.getId()).append(",1\n");
+
+		InventoryImportResponse response = importCsv(body.toString());
+
+		assertThat(response.getRowsRead()).isEqualTo(6);
+		assertThat(response.getUpdated()).isEqualTo(5);
+		assertThat(response.getFailed()).isEqualTo(1);
+		assertThat(response.getErrors()).singleElement().satisfies(error -> {
+			assertThat(error.getLine()).isEqualTo(6L);
+			assertThat(error.getMessage()).isEqualTo("Unknown SKU for vendor: NO-SUCH-SKU");
+		});
+		for (int i = 0; i < 5; i++) {
+			assertThat(row(products.get(i), outlet).getTotalStock()).isEqualTo(20 + i);
+		}
+	}
+
+	private InventoryImportResponse importCsv(String body) throws IOException {
+		return inventoryImportService.importStock(vendor.getId(), stream(body), false);
+	}
+
+	private static ByteArrayInputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,127 @@
+package com.example.ondc;
+
+import com.example.ondc.service.InventoryJournal;
+import com.example.ondc.service.InventoryJournal.Op;
+import com.example.ondc.service.InventoryJournal.RecoveredRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Restart recovery from snapshot plus journal tail, with concurrent appends
+ * across segment rollovers, and replay past a torn record.
+ */
+class InventoryJournalTests {
+
+	// seq(8) op(1) productId(8) outletId(8) totalDelta(4) ...
+	private static final int RECORD_SIZE = 45;
+	private static final int TOTAL_DELTA_OFFSET = 25;
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void snapshotAndJournalTailReplayAfterRestart() throws Exception {
+		InventoryJournal journal = open(1000);
+		int threads = 4;
+		int perThread = 10_000; // 40k records overflow a 1 MB segment (~23k slots)
+		for (long product = 1; product <= threads; product++) {
+			journal.append(Op.BASE, product, 1L, 100, 0);
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> tasks = new ArrayList<>();
+			for (long product = 1; product <= threads; product++) {
+				long id = product;
+				tasks.add(pool.submit(() -> {
+					for (int i = 0; i < perThread; i++) {
+						journal.append(Op.RESERVE, id, 1L, 0, 1);
+						if (i % 2 == 0) {
+							journal.append(Op.DEDUCT, id, 1L, -1, -1);
+						}
+					}
+				}));
+			}
+			// Snapshot while appends are still landing
+			for (int i = 0; i < 5; i++) {
+				Thread.sleep(5);
+				journal.snapshotIfDue();
+			}
+			for (Future<?> task : tasks) {
+				task.get();
+			}
+		} finally {
+			pool.shutdown();
+		}
+		journal.snapshotIfDue();
+		// Tail written after the last snapshot, replayed from the segment
+		journal.append(Op.SET_TOTAL, 1L, 1L, 7, 0);
+		journal.close();
+
+		try (Stream<Path> files = Files.list(dir)) {
+			assertThat(files.filter(p -> p.getFileName().toString().startsWith("snapshot-"))).hasSize(1);
+		}
+
+		List<RecoveredRow> rows = open(1000).takeRecoveredRows();
+
+		assertThat(rows).hasSize(threads);
+		for (RecoveredRow row : rows) {
+			int setTotal = row.productId() == 1L ? 7 : 0;
+			assertThat(row.totalStock()).isEqualTo(100 - perThread / 2 + setTotal);
+			assertThat(row.reservedStock()).isEqualTo(perThread - perThread / 2);
+		}
+	}
+
+	@Test
+	void tornRecordIsSkippedAndLaterRecordsStillReplay() throws Exception {
+		InventoryJournal journal = open(1_000_000);
+		journal.append(Op.BASE, 1L, 1L, 50, 0);
+		journal.append(Op.SET_TOTAL, 1L, 1L, 5, 0);
+		journal.append(Op.SET_TOTAL, 1L, 1L, 20, 0);
+		journal.append(Op.RESERVE, 1L, 1L, 0, 3);
+		journal.close();
+
+		// Tear the second delta: its body no longer matches its checksum
+		Path segment;
+		try (Stream<Path> files = Files.list(dir)) {
+			segment = files.filter(p -> p.getFileName().toString().startsWith("journal-")).findFirst().orElseThrow();
+		}
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(4).putInt(999).flip(), 2L * RECORD_SIZE + TOTAL_DELTA_OFFSET);
+		}
+
+		List<RecoveredRow> rows = open(1_000_000).takeRecoveredRows();
+
+		assertThat(rows).singleElement().satisfies(row -> {
+			assertThat(row.totalStock()).isEqualTo(55);
+			assertThat(row.reservedStock()).isEqualTo(3);
+		});
+	}
+
+	private InventoryJournal open(long snapshotEveryRecords) throws IOException {
+		InventoryJournal journal = new InventoryJournal();
+		ReflectionTestUtils.setField(journal, "journalEnabled", true);
+		ReflectionTestUtils.setField(journal, "ledgerEnabled", true);
+		ReflectionTestUtils.setField(journal, "dir", dir.toString());
+		ReflectionTestUtils.setField(journal, "segmentSizeMb", 1);
+		ReflectionTestUtils.setField(journal, "snapshotEveryRecords", snapshotEveryRecords);
+		ReflectionTestUtils.invokeMethod(journal, "open");
+		return journal;
+	}
+}
@@ -0,0 +1,121 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.ReservationLine;
+import com.example.ondc.entity.Inventory;
+import com.example.ondc.entity.Outlet;
+import com.example.ondc.entity.Product;
+import com.example.ondc.exception.InsufficientStockException;
+import com.example.ondc.repository.InventoryRepository;
+import com.example.ondc.service.InventoryChangeSequence;
+import com.example.ondc.service.InventoryJournal;
+import com.example.ondc.service.InventoryLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Ledger changes are undone when the surrounding transaction rolls back,
+ * kept when it commits, and a short basket leaves no line reserved.
+ */
+class InventoryLedgerTests {
+
+	private static final long OUTLET = 1L;
+
+	private InventoryLedger ledger;
+
+	@BeforeEach
+	void newLedger() {
+		InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+		when(inventoryRepository.findByProductIdAndOutletId(10L, OUTLET)).thenReturn(Optional.of(row(10)));
+		when(inventoryRepository.findByProductIdAndOutletId(20L, OUTLET)).thenReturn(Optional.of(row(2)));
+		ledger = new InventoryLedger(inventoryRepository, new InventoryJournal(), mock(InventoryChangeSequence.class),
+				mock(ApplicationEventPublisher.class), mock(TransactionTemplate.class));
+	}
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void rolledBackChangesAreUndone() {
+		TransactionSynchronizationManager.initSynchronization();
+		ledger.reserve(10L, OUTLET, 4);
+		ledger.deduct(10L, OUTLET, 1);
+		assertThat(ledger.peek(10L, OUTLET)).containsExactly(9, 3);
+
+		complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+		assertThat(ledger.peek(10L, OUTLET)).containsExactly(10, 0);
+	}
+
+	@Test
+	void rolledBackTotalsAreRestored() {
+		TransactionSynchronizationManager.initSynchronization();
+		ledger.reserve(10L, OUTLET, 4);
+		ledger.setTotal(row(10L, 10), 25);
+		ledger.setTotalIfLoaded(10L, OUTLET, 30);
+		// Not loaded: the table carries the value
+		ledger.setTotalIfLoaded(30L, OUTLET, 5);
+		assertThat(ledger.peek(10L, OUTLET)).containsExactly(30, 4);
+
+		complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+		assertThat(ledger.peek(10L, OUTLET)).containsExactly(10, 0);
+		assertThat(ledger.peek(30L, OUTLET)).isNull();
+	}
+
+	@Test
+	void committedChangesAreKept() {
+		TransactionSynchronizationManager.initSynchronization();
+		ledger.reserve(10L, OUTLET, 4);
+
+		complete(TransactionSynchronization.STATUS_COMMITTED);
+
+		assertThat(ledger.peek(10L, OUTLET)).containsExactly(10, 4);
+	}
+
+	@Test
+	void shortBasketReleasesLinesAlreadyReserved() {
+		assertThatThrownBy(() -> ledger.reserveAll(List.of(
+				new ReservationLine(10L, OUTLET, 4),
+				new ReservationLine(20L, OUTLET, 3))))
+				.isInstanceOf(InsufficientStockException.class);
+
+		assertThat(ledger.peek(10L, OUTLET)).containsExactly(10, 0);
+		assertThat(ledger.peek(20L, OUTLET)).containsExactly(2, 0);
+	}
+
+	private static void complete(int status) {
+		List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+		TransactionSynchronizationManager.clearSynchronization();
+		synchronizations.forEach(sync -> sync.afterCompletion(status));
+	}
+
+	private static Inventory row(int totalStock) {
+		return Inventory.builder().totalStock(totalStock).reservedStock(0).build();
+	}
+
+	private static Inventory row(Long productId, int totalStock) {
+		return Inventory.builder()
+				.product(Product.builder().id(productId).build())
+				.outlet(Outlet.builder().id(OUTLET).build())
+				.totalStock(totalStock)
+				.reservedStock(0)
+				.build();
+	}
+}
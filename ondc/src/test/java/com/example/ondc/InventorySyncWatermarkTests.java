@@ -0,0 +1,137 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.InventoryResponse;
+import com.example.ondc.dto.InventorySyncResponse;
+import com.example.ondc.entity.Inventory;
+import com.example.ondc.entity.SellerApp;
+import com.example.ondc.entity.Vendor;
+import com.example.ondc.repository.InventoryRepository;
+import com.example.ondc.repository.InventorySyncWatermarkRepository;
+import com.example.ondc.repository.SellerAppRepository;
+import com.example.ondc.repository.VendorRepository;
+import com.example.ondc.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Delta sync never steps past an uncommitted change and survives concurrent first syncs.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class InventorySyncWatermarkTests {
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private InventorySyncWatermarkRepository watermarkRepository;
+
+	@Autowired
+	private SellerAppRepository sellerAppRepository;
+
+	@Autowired
+	private VendorRepository vendorRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Vendor vendor;
+	private Long sellerAppId;
+
+	@BeforeEach
+	void newSellerApp() {
+		vendor = vendorRepository.findAll().get(0);
+		sellerAppId = sellerAppRepository.save(SellerApp.builder()
+				.name("sync-test")
+				.apiEndpoint("http://localhost/sync-test")
+				.build()).getId();
+	}
+
+	@Test
+	void watermarkStopsBelowAnUncommittedChange() throws Exception {
+		inventoryService.syncInventoryDelta(vendor.getId(), sellerAppId);
+		List<Inventory> rows = inventoryRepository.findByOutletVendorId(vendor.getId());
+		Long rowId = rows.get(0).getId();
+		Long laterRowId = rows.get(1).getId();
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Long stamped = transactionTemplate.execute(status -> {
+				Inventory row = inventoryRepository.findById(rowId).orElseThrow();
+				row.setTotalStock(row.getTotalStock() + 1);
+				long seq = inventoryRepository.saveAndFlush(row).getChangeSeq();
+
+				// A later sequence commits first
+				submit(executor, () -> transactionTemplate.execute(inner -> {
+					Inventory later = inventoryRepository.findById(laterRowId).orElseThrow();
+					later.setTotalStock(later.getTotalStock() + 1);
+					return inventoryRepository.saveAndFlush(later);
+				}));
+				InventorySyncResponse during = submit(executor,
+						() -> inventoryService.syncInventoryDelta(vendor.getId(), sellerAppId));
+				assertThat(during.getToSeq()).isLessThan(seq);
+				assertThat(ids(during)).doesNotContain(rowId);
+				return seq;
+			});
+
+			InventorySyncResponse after = inventoryService.syncInventoryDelta(vendor.getId(), sellerAppId);
+			assertThat(after.getToSeq()).isGreaterThanOrEqualTo(stamped);
+			assertThat(ids(after)).contains(rowId);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void concurrentFirstSyncsShareOneWatermark() throws Exception {
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<InventorySyncResponse>> syncs = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				syncs.add(executor.submit(() -> {
+					start.await();
+					return inventoryService.syncInventoryDelta(vendor.getId(), sellerAppId);
+				}));
+			}
+			start.countDown();
+			for (Future<InventorySyncResponse> sync : syncs) {
+				assertThat(sync.get()).isNotNull();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertThat(watermarkRepository.findBySellerAppIdAndVendorId(sellerAppId, vendor.getId())).isPresent();
+	}
+
+	private static <T> T submit(ExecutorService executor, Callable<T> task) {
+		try {
+			return executor.submit(task).get();
+		} catch (Exception ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	private static List<Long> ids(InventorySyncResponse response) {
+		return response.getItems().stream().map(InventoryResponse::getId).toList();
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.StockLevel;
+import com.example.ondc.event.InventoryChangedEvent;
+import com.example.ondc.repository.InventoryRepository;
+import com.example.ondc.service.InventoryChangeSequence;
+import com.example.ondc.service.InventoryLedger;
+import com.example.ondc.service.LowStockAlertPublisher;
+import com.example.ondc.service.LowStockIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Late events and stale rebuild snapshots never move a row back to older figures.
+ */
+class LowStockIndexTests {
+
+	private static final long VENDOR = 1L;
+	private static final long PRODUCT = 2L;
+	private static final long OUTLET = 3L;
+	private static final long INVENTORY = 4L;
+
+	private InventoryRepository inventoryRepository;
+	private LowStockIndex index;
+
+	@BeforeEach
+	void newIndex() {
+		inventoryRepository = mock(InventoryRepository.class);
+		InventoryChangeSequence sequence = mock(InventoryChangeSequence.class);
+		when(sequence.committedSeq()).thenReturn(10L);
+		index = new LowStockIndex(inventoryRepository, mock(InventoryLedger.class),
+				mock(LowStockAlertPublisher.class), sequence);
+		ReflectionTestUtils.setField(index, "enabled", true);
+
+		// 20 in stock, none reserved, reorder at 10
+		when(inventoryRepository.findAllStockLevels()).thenReturn(List.of(level(0, 10)));
+		index.load();
+	}
+
+	@Test
+	void lateAbsoluteEventRereadsInsteadOfRollingBack() {
+		index.onInventoryChanged(InventoryChangedEvent.of(PRODUCT, OUTLET, 20, 15, 10, 12));
+		assertThat(index.lowStockIds(VENDOR)).containsExactly(INVENTORY);
+
+		when(inventoryRepository.findStockLevel(PRODUCT, OUTLET)).thenReturn(Optional.of(level(15, 12)));
+		index.onInventoryChanged(InventoryChangedEvent.of(PRODUCT, OUTLET, 20, 2, 10, 11));
+
+		assertThat(index.lowStockIds(VENDOR)).containsExactly(INVENTORY);
+	}
+
+	@Test
+	void lateDeltaAlreadyInTheRowIsNotCountedTwice() {
+		index.onInventoryChanged(InventoryChangedEvent.of(PRODUCT, OUTLET, 20, 5, 10, 12));
+
+		when(inventoryRepository.findStockLevel(PRODUCT, OUTLET)).thenReturn(Optional.of(level(5, 12)));
+		index.onInventoryChanged(InventoryChangedEvent.reserved(PRODUCT, OUTLET, 5, 11));
+
+		assertThat(index.lowStockIds(VENDOR)).isEmpty();
+	}
+
+	@Test
+	void rebuildKeepsFiguresNewerThanItsSnapshot() {
+		index.onInventoryChanged(InventoryChangedEvent.reserved(PRODUCT, OUTLET, 15, 12));
+		assertThat(index.lowStockIds(VENDOR)).containsExactly(INVENTORY);
+
+		index.reconcile();
+
+		assertThat(index.lowStockIds(VENDOR)).containsExactly(INVENTORY);
+	}
+
+	private static StockLevel level(int reserved, long changeSeq) {
+		return new StockLevel(INVENTORY, PRODUCT, OUTLET, VENDOR, 20, reserved, 10, changeSeq);
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.InventoryRequest;
+import com.example.ondc.dto.ReservationLine;
+import com.example.ondc.entity.Inventory;
+import com.example.ondc.event.OrderAcceptedEvent;
+import com.example.ondc.repository.InventoryRepository;
+import com.example.ondc.repository.OutletRepository;
+import com.example.ondc.service.DemandForecaster;
+import com.example.ondc.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The demand forecaster leaves reorder levels set by hand alone until they are handed back.
+ */
+@SpringBootTest(properties = "ondc.inventory.forecast.enabled=true")
+@ActiveProfiles("h2")
+class ManualReorderLevelTests {
+
+	@Autowired
+	private DemandForecaster demandForecaster;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Autowired
+	private OutletRepository outletRepository;
+
+	@Test
+	void forecastSkipsPinnedLevelsUntilHandedBack() {
+		Map<Long, List<Inventory>> byOutlet = inventoryRepository.findAll().stream()
+				.collect(Collectors.groupingBy(inv -> inv.getOutlet().getId()));
+		List<Inventory> rows = byOutlet.values().stream()
+				.filter(list -> list.size() >= 2)
+				.findFirst().orElseThrow();
+		Inventory pinned = rows.get(0);
+		Inventory forecast = rows.get(1);
+		Long outletId = pinned.getOutlet().getId();
+		Long vendorId = outletRepository.findById(outletId).orElseThrow().getVendor().getId();
+
+		inventoryService.createOrUpdateInventory(request(pinned, 7, null));
+		demandForecaster.onOrderAccepted(new OrderAcceptedEvent(-1L, vendorId, outletId, List.of(
+				new ReservationLine(pinned.getProduct().getId(), outletId, 5_000),
+				new ReservationLine(forecast.getProduct().getId(), outletId, 5_000)), LocalDateTime.now()));
+
+		demandForecaster.recomputeReorderLevels();
+		assertThat(reorderLevel(pinned)).isEqualTo(7);
+		assertThat(reorderLevel(forecast)).isGreaterThan(forecast.getReorderLevel());
+
+		inventoryService.createOrUpdateInventory(request(pinned, null, true));
+		demandForecaster.recomputeReorderLevels();
+		assertThat(reorderLevel(pinned)).isGreaterThan(7);
+	}
+
+	private static InventoryRequest request(Inventory row, Integer reorderLevel, Boolean forecastReorderLevel) {
+		return new InventoryRequest(row.getProduct().getId(), row.getOutlet().getId(), row.getTotalStock(),
+				reorderLevel, forecastReorderLevel);
+	}
+
+	private int reorderLevel(Inventory row) {
+		return inventoryRepository.findById(row.getId()).orElseThrow().getReorderLevel();
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.OrderItemRequest;
+import com.example.ondc.dto.OrderRequest;
+import com.example.ondc.dto.OrderResponse;
+import com.example.ondc.entity.Outlet;
+import com.example.ondc.entity.Product;
+import com.example.ondc.entity.Vendor;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.repository.OrderRepository;
+import com.example.ondc.repository.OutletRepository;
+import com.example.ondc.repository.ProductRepository;
+import com.example.ondc.repository.VendorRepository;
+import com.example.ondc.service.DashboardService;
+import com.example.ondc.service.OrderArchiver;
+import com.example.ondc.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * An archived order is still readable by id, with its items and names, and
+ * its ONDC id still answers a retry instead of creating a new order; the
+ * vendor's dashboard totals do not drop.
+ */
+@SpringBootTest(properties = "ondc.orders.read-models.enabled=true")
+@ActiveProfiles("h2")
+class OrderArchiveTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderArchiver orderArchiver;
+
+	@Autowired
+	private DashboardService dashboardService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private VendorRepository vendorRepository;
+
+	@Autowired
+	private OutletRepository outletRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Test
+	void archivedOrderIsReadThroughAndStaysADuplicate() {
+		Vendor vendor = vendorRepository.findAll().get(0);
+		Outlet outlet = outletRepository.findByVendorId(vendor.getId()).get(0);
+		Product product = productRepository.findByVendorId(vendor.getId()).get(0);
+		OrderRequest request = OrderRequest.builder()
+				.ondcOrderId("ARC-" + UUID.randomUUID())
+				.vendorId(vendor.getId())
+				.outletId(outlet.getId())
+				.items(List.of(new OrderItemRequest(product.getId(), 2)))
+				.build();
+		Long id = orderService.createOrder(request).getId();
+		orderService.rejectOrder(id, "closed for the day");
+		// Past the retention window
+		LocalDateTime old = LocalDateTime.now().minusDays(60);
+		jdbcTemplate.update("UPDATE orders SET created_at = ?, updated_at = ? WHERE id = ?", old, old, id);
+		long totalOrders = dashboardService.getVendorDashboard(vendor.getId()).getTotalOrders();
+
+		assertThat(orderArchiver.archive()).isPositive();
+		assertThat(orderRepository.findById(id)).isEmpty();
+		assertThat(dashboardService.getVendorDashboard(vendor.getId()).getTotalOrders()).isEqualTo(totalOrders);
+
+		OrderResponse archived = orderService.getOrderById(id);
+		assertThat(archived.getStatus()).isEqualTo(OrderStatus.REJECTED);
+		assertThat(archived.getRejectionReason()).isEqualTo("closed for the day");
+		assertThat(archived.getVendorName()).isEqualTo(vendor.getName());
+		assertThat(archived.getOutletName()).isEqualTo(outlet.getName());
+		assertThat(archived.getItems()).singleElement().satisfies(item -> {
+			assertThat(item.getProductId()).isEqualTo(product.getId());
+			assertThat(item.getProductSku()).isEqualTo(product.getSku());
+			assertThat(item.getRequestedQty()).isEqualTo(2);
+		});
+
+		assertThat(orderService.createOrder(request).getId()).isEqualTo(id);
+		assertThat(orderRepository.findIdByOndcOrderId(request.getOndcOrderId())).isEmpty();
+	}
+}
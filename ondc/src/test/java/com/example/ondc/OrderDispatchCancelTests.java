@@ -0,0 +1,74 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.BatchCancellationResponse;
+import com.example.ondc.dto.CancellationRequest;
+import com.example.ondc.dto.DispatchResponse;
+import com.example.ondc.entity.Inventory;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.repository.ReservationHoldRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dispatch deducts and cancel releases exactly what each order still holds.
+ */
+@SpringBootTest(properties = "ondc.inventory.hold.enabled=true")
+class OrderDispatchCancelTests extends OrderFixture {
+
+	@Autowired
+	private ReservationHoldRepository reservationHoldRepository;
+
+	@Test
+	void dispatchDeductsAndCancelReleasesTheHeldQuantities() {
+		Long cancelled = acceptedOrder(2);
+		Long dispatched = acceptedOrder(3);
+		assertThat(row().getReservedStock()).isEqualTo(5);
+		assertThat(load()).isEqualTo(2);
+
+		BatchCancellationResponse cancellation = orderService.cancelOrders(
+				new CancellationRequest(List.of(cancelled), "customer changed mind"));
+		assertThat(cancellation.getCancelled()).isEqualTo(1);
+		assertThat(row().getReservedStock()).isEqualTo(3);
+		assertThat(row().getTotalStock()).isEqualTo(STOCK);
+
+		DispatchResponse dispatch = orderService.dispatchOutlet(outlet.getId());
+		assertThat(dispatch.getOrderIds()).containsExactly(dispatched);
+		assertThat(dispatch.getSkipped()).isZero();
+
+		Inventory after = row();
+		assertThat(after.getTotalStock()).isEqualTo(STOCK - 3);
+		assertThat(after.getReservedStock()).isZero();
+		assertThat(load()).isZero();
+		assertThat(reservationHoldRepository.findByOrderIdIn(List.of(cancelled, dispatched))).isEmpty();
+		assertThat(orderService.getOrderById(dispatched).getStatus()).isEqualTo(OrderStatus.FULFILLED);
+	}
+
+	@Test
+	void orderWhoseHoldLapsedIsNotConsumedTwice() {
+		Long lapsed = acceptedOrder(4);
+		// What expiry did before it cancelled the order: stock back, holds gone, order still ACCEPTED
+		reservationHoldRepository.deleteAllInBatch(reservationHoldRepository.findByOrderId(lapsed));
+		inventoryService.releaseReservation(product.getId(), outlet.getId(), 4);
+		Long other = acceptedOrder(1);
+
+		DispatchResponse dispatch = orderService.dispatchOutlet(outlet.getId());
+		assertThat(dispatch.getOrderIds()).containsExactly(other);
+		assertThat(dispatch.getSkippedOrderIds()).containsExactly(lapsed);
+		assertThat(row().getTotalStock()).isEqualTo(STOCK - 1);
+		assertThat(row().getReservedStock()).isZero();
+
+		orderService.cancelOrder(lapsed, "hold lapsed");
+		assertThat(row().getReservedStock()).isZero();
+		assertThat(row().getTotalStock()).isEqualTo(STOCK - 1);
+	}
+
+	private int load() {
+		return outletRepository.findById(outlet.getId()).orElseThrow().getCurrentLoad();
+	}
+
+}
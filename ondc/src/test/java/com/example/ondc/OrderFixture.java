@@ -0,0 +1,137 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.InventoryRequest;
+import com.example.ondc.dto.OrderItemRequest;
+import com.example.ondc.dto.OrderRequest;
+import com.example.ondc.entity.Inventory;
+import com.example.ondc.entity.Outlet;
+import com.example.ondc.entity.Product;
+import com.example.ondc.entity.Vendor;
+import com.example.ondc.enums.OutletType;
+import com.example.ondc.repository.InventoryRepository;
+import com.example.ondc.repository.OutletRepository;
+import com.example.ondc.repository.ProductRepository;
+import com.example.ondc.repository.VendorRepository;
+import com.example.ondc.service.InventoryService;
+import com.example.ondc.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Shared setup for tests that drive orders through {@link OrderService}.
+ * Each test gets its own vendor, outlet and stocked product, so the orders
+ * and reservations it leaves behind never reach another test's rows.
+ */
+@ActiveProfiles("h2")
+abstract class OrderFixture {
+
+	protected static final int STOCK = 100;
+
+	@Autowired
+	protected OrderService orderService;
+
+	@Autowired
+	protected InventoryService inventoryService;
+
+	@Autowired
+	protected InventoryRepository inventoryRepository;
+
+	@Autowired
+	protected VendorRepository vendorRepository;
+
+	@Autowired
+	protected OutletRepository outletRepository;
+
+	@Autowired
+	protected ProductRepository productRepository;
+
+	protected Vendor vendor;
+	protected Outlet outlet;
+	protected Product product;
+
+	@BeforeEach
+	void createRows() {
+		String key = key();
+		vendor = vendorRepository.save(Vendor.builder()
+				.name("Fixture " + key)
+				.email(key + "@fixture.test")
+				.phone("+91-9000000000")
+				.businessName("Fixture " + key)
+				.build());
+		outlet = newOutlet("560001");
+		product = newProduct(STOCK);
+	}
+
+	/**
+	 * Another outlet of the fixture vendor, with no stock yet.
+	 */
+	protected Outlet newOutlet(String pincode) {
+		return outletRepository.save(Outlet.builder()
+				.name("Fixture outlet " + key())
+				.type(OutletType.STORE)
+				.pincode(pincode)
+				.vendor(vendor)
+				.build());
+	}
+
+	/**
+	 * A product of the fixture vendor stocked at the fixture outlet.
+	 */
+	protected Product newProduct(int totalStock) {
+		Product created = productRepository.save(Product.builder()
+				.name("Fixture product")
+				.sku("FX-" + key())
+				.price(10.0)
+				.vendor(vendor)
+				.build());
+		stock(created, outlet, totalStock);
+		return created;
+	}
+
+	/**
+	 * Stock a row through {@link InventoryService}, so in-memory indexes hear about it.
+	 */
+	protected Inventory stock(Product stocked, Outlet at, int totalStock) {
+		inventoryService.createOrUpdateInventory(InventoryRequest.builder()
+				.productId(stocked.getId())
+				.outletId(at.getId())
+				.totalStock(totalStock)
+				.build());
+		return row(stocked, at);
+	}
+
+	protected OrderRequest orderRequest(int quantity) {
+		return OrderRequest.builder()
+				.ondcOrderId("FX-" + UUID.randomUUID())
+				.vendorId(vendor.getId())
+				.outletId(outlet.getId())
+				.items(List.of(new OrderItemRequest(product.getId(), quantity)))
+				.build();
+	}
+
+	protected Long pendingOrder(int quantity) {
+		return orderService.createOrder(orderRequest(quantity)).getId();
+	}
+
+	protected Long acceptedOrder(int quantity) {
+		Long id = pendingOrder(quantity);
+		orderService.acceptOrder(id);
+		return id;
+	}
+
+	protected Inventory row() {
+		return row(product, outlet);
+	}
+
+	protected Inventory row(Product stocked, Outlet at) {
+		return inventoryRepository.findByProductIdAndOutletId(stocked.getId(), at.getId()).orElseThrow();
+	}
+
+	private static String key() {
+		return UUID.randomUUID().toString().substring(0, 8);
+	}
+}
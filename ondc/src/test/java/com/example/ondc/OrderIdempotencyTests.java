@@ -0,0 +1,89 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.OrderItemRequest;
+import com.example.ondc.dto.OrderRequest;
+import com.example.ondc.entity.Outlet;
+import com.example.ondc.entity.Product;
+import com.example.ondc.entity.Vendor;
+import com.example.ondc.repository.OrderRepository;
+import com.example.ondc.repository.OutletRepository;
+import com.example.ondc.repository.ProductRepository;
+import com.example.ondc.repository.VendorRepository;
+import com.example.ondc.service.OrderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Concurrent retries of one ONDC order all get the same order back and only one row is written.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+class OrderIdempotencyTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private VendorRepository vendorRepository;
+
+	@Autowired
+	private OutletRepository outletRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Test
+	void concurrentRetriesCreateOneOrder() throws Exception {
+		Vendor vendor = vendorRepository.findAll().get(0);
+		Outlet outlet = outletRepository.findByVendorId(vendor.getId()).get(0);
+		Product product = productRepository.findByVendorId(vendor.getId()).get(0);
+		OrderRequest request = OrderRequest.builder()
+				.ondcOrderId("IDEM-" + UUID.randomUUID())
+				.vendorId(vendor.getId())
+				.outletId(outlet.getId())
+				.items(List.of(new OrderItemRequest(product.getId(), 1)))
+				.build();
+
+		int threads = 8;
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		Set<Long> ids = new HashSet<>();
+		try {
+			List<Future<Long>> calls = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				calls.add(pool.submit(() -> {
+					start.await();
+					return orderService.createOrder(request).getId();
+				}));
+			}
+			start.countDown();
+			for (Future<Long> call : calls) {
+				ids.add(call.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+
+		assertThat(ids).hasSize(1);
+		assertThat(orderRepository.findIdByOndcOrderId(request.getOndcOrderId())).contains(ids.iterator().next());
+		// A later retry is answered the same way
+		assertThat(orderService.createOrder(request).getId()).isEqualTo(ids.iterator().next());
+	}
+}
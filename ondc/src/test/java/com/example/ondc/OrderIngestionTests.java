@@ -0,0 +1,153 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.OrderIngestionStatus;
+import com.example.ondc.dto.OrderItemRequest;
+import com.example.ondc.dto.OrderRequest;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.exception.GlobalExceptionHandler;
+import com.example.ondc.exception.QueueFullException;
+import com.example.ondc.exception.ResourceNotFoundException;
+import com.example.ondc.service.OrderIdempotencyGuard;
+import com.example.ondc.service.OrderIngestionService;
+import com.example.ondc.service.OutletService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Orders queued for asynchronous ingestion end up persisted and, with
+ * auto-decision on, decided like orders created one at a time. A failed
+ * batch is retried order by order, a full queue answers 503 + Retry-After,
+ * and every order's outcome can be looked up by its ONDC id.
+ */
+@SpringBootTest(properties = {
+		"ondc.orders.ingest.enabled=true",
+		"ondc.orders.auto-decision.enabled=true",
+		"ondc.inventory.outlet-index.enabled=true"
+})
+class OrderIngestionTests extends OrderFixture {
+
+	@Autowired
+	private OrderIngestionService orderIngestionService;
+
+	@Autowired
+	private OutletService outletService;
+
+	@Autowired
+	private OrderIdempotencyGuard idempotencyGuard;
+
+	@Autowired
+	private NamedParameterJdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Test
+	void batchedOrdersGoThroughTheDecisionEngine() throws Exception {
+		vendor.setAutoDecisionEnabled(true);
+		vendorRepository.save(vendor);
+		OrderRequest request = orderRequest(2);
+
+		assertThat(orderIngestionService.submit(request).getState()).isEqualTo("QUEUED");
+		OrderIngestionStatus status = awaitPersisted(request.getOndcOrderId());
+
+		assertThat(awaitStatus(status.getOrderId(), OrderStatus.ACCEPTED)).isEqualTo(OrderStatus.ACCEPTED);
+		assertThat(row().getReservedStock()).isEqualTo(2);
+	}
+
+	@Test
+	void failedBatchIsRetriedOrderByOrder() {
+		OrderRequest good = orderRequest(1);
+		OrderRequest bad = orderRequest(1);
+		bad.setItems(List.of(new OrderItemRequest(Long.MAX_VALUE, 1)));
+
+		// One batch, as a consumer would drain it: the unknown product fails the batch insert
+		ReflectionTestUtils.invokeMethod(orderIngestionService, "persist", List.of(good, bad));
+
+		OrderIngestionStatus persisted = orderIngestionService.getStatus(good.getOndcOrderId());
+		assertThat(persisted.getState()).isEqualTo("PERSISTED");
+		assertThat(orderService.getOrderById(persisted.getOrderId()).getOndcOrderId()).isEqualTo(good.getOndcOrderId());
+		OrderIngestionStatus failed = orderIngestionService.getStatus(bad.getOndcOrderId());
+		assertThat(failed.getState()).isEqualTo("FAILED");
+		assertThat(failed.getMessage()).contains("Product not found");
+	}
+
+	@Test
+	void fullQueueIsRefusedWithRetryAfter() {
+		// A service of its own with a one-slot buffer and no consumer draining it
+		OrderIngestionService ingestion = new OrderIngestionService(orderService, outletService, idempotencyGuard,
+				jdbcTemplate, transactionTemplate, eventPublisher);
+		ReflectionTestUtils.setField(ingestion, "enabled", true);
+		ReflectionTestUtils.setField(ingestion, "running", true);
+		ReflectionTestUtils.setField(ingestion, "offerTimeoutMillis", 10L);
+		ReflectionTestUtils.setField(ingestion, "buffer", new ArrayBlockingQueue<OrderRequest>(1));
+		OrderRequest first = orderRequest(1);
+		OrderRequest second = orderRequest(1);
+
+		assertThat(ingestion.submit(first).getState()).isEqualTo("QUEUED");
+		assertThatThrownBy(() -> ingestion.submit(second)).isInstanceOf(QueueFullException.class);
+
+		assertThat(ingestion.getStatus(first.getOndcOrderId()).getState()).isEqualTo("QUEUED");
+		// Refused orders leave no record, so the caller's retry is queued afresh
+		assertThatThrownBy(() -> ingestion.getStatus(second.getOndcOrderId()))
+				.isInstanceOf(ResourceNotFoundException.class);
+
+		ResponseEntity<Map<String, Object>> response =
+				new GlobalExceptionHandler().handleQueueFull(new QueueFullException("full"));
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+		assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+	}
+
+	@Test
+	void statusIsLookedUpByOndcOrderId() throws Exception {
+		assertThatThrownBy(() -> orderIngestionService.getStatus("never-submitted"))
+				.isInstanceOf(ResourceNotFoundException.class);
+
+		OrderRequest request = orderRequest(1);
+		orderIngestionService.submit(request);
+		OrderIngestionStatus persisted = awaitPersisted(request.getOndcOrderId());
+
+		// A retry of a stored order is answered from the store, not queued again
+		OrderIngestionStatus retried = orderIngestionService.submit(request);
+		assertThat(retried.getState()).isEqualTo("PERSISTED");
+		assertThat(retried.getOrderId()).isEqualTo(persisted.getOrderId());
+	}
+
+	private OrderIngestionStatus awaitPersisted(String ondcOrderId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		OrderIngestionStatus status = orderIngestionService.getStatus(ondcOrderId);
+		while ("QUEUED".equals(status.getState()) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			status = orderIngestionService.getStatus(ondcOrderId);
+		}
+		assertThat(status.getState()).isEqualTo("PERSISTED");
+		return status;
+	}
+
+	private OrderStatus awaitStatus(Long orderId, OrderStatus expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		OrderStatus status = orderService.getOrderById(orderId).getStatus();
+		while (status != expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			status = orderService.getOrderById(orderId).getStatus();
+		}
+		return status;
+	}
+}
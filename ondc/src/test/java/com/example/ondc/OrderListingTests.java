@@ -0,0 +1,87 @@
+package com.example.ondc;
+
+import com.example.ondc.controller.OrderController;
+import com.example.ondc.dto.OrderPage;
+import com.example.ondc.dto.OrderResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cursor pages and the NDJSON stream each return every order once, newest
+ * first; the prioritized listing is bounded even without a limit.
+ */
+@SpringBootTest
+class OrderListingTests extends OrderFixture {
+
+	@Autowired
+	private OrderController orderController;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void cursorPagesWalkEveryOrderOnce() {
+		List<Long> newestFirst = createOrders(5);
+
+		List<Long> seen = new ArrayList<>();
+		List<Integer> pageSizes = new ArrayList<>();
+		String cursor = null;
+		do {
+			OrderPage page = orderService.getOrdersByVendor(vendor.getId(), cursor, 2);
+			page.getItems().forEach(order -> seen.add(order.getId()));
+			pageSizes.add(page.getItems().size());
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertThat(seen).containsExactlyElementsOf(newestFirst);
+		assertThat(pageSizes).containsExactly(2, 2, 1);
+	}
+
+	@Test
+	void streamWritesOneJsonLinePerOrder() throws Exception {
+		List<Long> newestFirst = createOrders(3);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		orderController.streamOrders(vendor.getId(), null).getBody().writeTo(out);
+
+		List<Long> streamed = new ArrayList<>();
+		for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+			OrderResponse order = objectMapper.readValue(line, OrderResponse.class);
+			assertThat(order.getItems()).hasSize(1);
+			streamed.add(order.getId());
+		}
+		assertThat(streamed).containsExactlyElementsOf(newestFirst);
+	}
+
+	@Test
+	void prioritizedListingIsBoundedWithoutALimit() {
+		createOrders(51);
+		Long rejected = pendingOrder(1);
+		orderService.rejectOrder(rejected, "closed");
+
+		List<OrderResponse> listed = orderService.getPrioritizedOrders(vendor.getId(), null);
+
+		assertThat(listed).hasSize(50);
+		assertThat(listed).extracting(OrderResponse::getId).doesNotContain(rejected);
+		assertThat(orderService.getPrioritizedOrders(vendor.getId(), 100_000)).hasSize(51);
+	}
+
+	private List<Long> createOrders(int count) {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			ids.add(pendingOrder(1));
+		}
+		Collections.reverse(ids);
+		return ids;
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.OpenOrder;
+import com.example.ondc.enums.OrderPriority;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.event.OrderStatusChangedEvent;
+import com.example.ondc.repository.OrderRepository;
+import com.example.ondc.service.OrderPriorityScheduler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Earliest SLA deadline first, so an old low-priority order overtakes a
+ * fresh critical one; open orders stay queued until they turn terminal.
+ */
+class OrderPrioritySchedulerTests {
+
+	private static final long VENDOR = 10L;
+
+	private OrderRepository orderRepository;
+	private OrderPriorityScheduler scheduler;
+	private LocalDateTime now;
+
+	@BeforeEach
+	void newScheduler() {
+		orderRepository = mock(OrderRepository.class);
+		scheduler = new OrderPriorityScheduler(orderRepository);
+		ReflectionTestUtils.setField(scheduler, "enabled", true);
+		ReflectionTestUtils.setField(scheduler, "criticalSlaMinutes", 5L);
+		ReflectionTestUtils.setField(scheduler, "highSlaMinutes", 15L);
+		ReflectionTestUtils.setField(scheduler, "mediumSlaMinutes", 60L);
+		ReflectionTestUtils.setField(scheduler, "lowSlaMinutes", 240L);
+		now = LocalDateTime.now();
+	}
+
+	@Test
+	void agedOrdersOvertakeFresherHigherPriorityOnes() {
+		when(orderRepository.findOpenOrders(any())).thenReturn(List.of(
+				open(4L, OrderPriority.MEDIUM, OrderStatus.PENDING, 0),     // due in 60 min
+				open(3L, OrderPriority.CRITICAL, OrderStatus.ACCEPTED, 0),  // due in 5 min
+				open(1L, OrderPriority.LOW, OrderStatus.PENDING, 300),      // overdue by 60 min
+				open(2L, OrderPriority.HIGH, OrderStatus.PENDING, 20)));    // overdue by 5 min
+		scheduler.load();
+
+		assertThat(scheduler.top(VENDOR, 10)).containsExactly(1L, 2L, 3L, 4L);
+		assertThat(scheduler.top(VENDOR, 2)).containsExactly(1L, 2L);
+		assertThat(scheduler.top(99L, 10)).isEmpty();
+	}
+
+	@Test
+	void openOrdersStayQueuedUntilTerminal() {
+		scheduler.onOrderStatusChanged(changed(1L, OrderPriority.LOW, null, OrderStatus.PENDING, 300));
+		scheduler.onOrderStatusChanged(changed(2L, OrderPriority.CRITICAL, null, OrderStatus.PENDING, 0));
+
+		scheduler.onOrderStatusChanged(changed(2L, OrderPriority.CRITICAL, OrderStatus.PENDING, OrderStatus.ACCEPTED, 0));
+		scheduler.onOrderStatusChanged(
+				changed(2L, OrderPriority.CRITICAL, OrderStatus.ACCEPTED, OrderStatus.PARTIALLY_FULFILLED, 0));
+		assertThat(scheduler.top(VENDOR, 10)).containsExactly(1L, 2L);
+
+		scheduler.onOrderStatusChanged(changed(1L, OrderPriority.LOW, OrderStatus.PENDING, OrderStatus.REJECTED, 300));
+		scheduler.onOrderStatusChanged(
+				changed(2L, OrderPriority.CRITICAL, OrderStatus.PARTIALLY_FULFILLED, OrderStatus.FULFILLED, 0));
+		assertThat(scheduler.top(VENDOR, 10)).isEmpty();
+	}
+
+	private OpenOrder open(Long orderId, OrderPriority priority, OrderStatus status, int ageMinutes) {
+		return new OpenOrder(orderId, VENDOR, 20L, priority, status, now.minusMinutes(ageMinutes));
+	}
+
+	private OrderStatusChangedEvent changed(Long orderId, OrderPriority priority, OrderStatus previous,
+	                                        OrderStatus status, int ageMinutes) {
+		return new OrderStatusChangedEvent(orderId, VENDOR, 20L, priority, previous, status, null,
+				now.minusMinutes(ageMinutes), now);
+	}
+}
@@ -0,0 +1,111 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.OpenOrder;
+import com.example.ondc.dto.StatusCount;
+import com.example.ondc.enums.OrderPriority;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.event.OrderStatusChangedEvent;
+import com.example.ondc.event.OrdersArchivedEvent;
+import com.example.ondc.repository.ArchivedOrderRepository;
+import com.example.ondc.repository.OrderRepository;
+import com.example.ondc.service.OrderReadModels;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Changes that land while a rebuild is loading are neither lost nor counted
+ * twice, whether or not the snapshot already saw them, and archived orders
+ * stay in the lifetime totals.
+ */
+class OrderReadModelsTests {
+
+	private static final long VENDOR = 10L;
+	private static final long OUTLET = 20L;
+
+	private OrderRepository orderRepository;
+	private ArchivedOrderRepository archivedOrderRepository;
+	private OrderReadModels readModels;
+
+	@BeforeEach
+	void newReadModels() {
+		orderRepository = mock(OrderRepository.class);
+		archivedOrderRepository = mock(ArchivedOrderRepository.class);
+		readModels = new OrderReadModels(orderRepository, archivedOrderRepository, mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(readModels, "enabled", true);
+		ReflectionTestUtils.invokeMethod(readModels, "initTransactionTemplate");
+	}
+
+	@Test
+	void changesDuringRebuildAreReplayedOncePerOrder() {
+		// Snapshot: order 1 already fulfilled, 2 accepted, 3 still pending
+		when(orderRepository.countByVendorAndStatus()).thenAnswer(invocation -> {
+			// Committed before the snapshot, delivered after buffering began
+			readModels.onOrderStatusChanged(changed(1L, OrderStatus.ACCEPTED, OrderStatus.FULFILLED));
+			// Committed after the snapshot
+			readModels.onOrderStatusChanged(changed(3L, OrderStatus.PENDING, OrderStatus.ACCEPTED));
+			readModels.onOrderStatusChanged(changed(4L, null, OrderStatus.PENDING));
+			return List.of(
+					new StatusCount(VENDOR, OrderStatus.FULFILLED, 1L),
+					new StatusCount(VENDOR, OrderStatus.ACCEPTED, 1L),
+					new StatusCount(VENDOR, OrderStatus.PENDING, 1L));
+		});
+		when(orderRepository.findOpenOrders(any())).thenReturn(List.of(open(2L, OrderStatus.ACCEPTED)));
+		when(orderRepository.findSchedulingFieldsByIdIn(any())).thenReturn(List.of(
+				open(1L, OrderStatus.FULFILLED), open(3L, OrderStatus.PENDING)));
+
+		readModels.load();
+
+		assertThat(readModels.statusCounts(VENDOR))
+				.containsEntry(OrderStatus.PENDING, 1L)
+				.containsEntry(OrderStatus.ACCEPTED, 2L)
+				.containsEntry(OrderStatus.FULFILLED, 1L);
+		assertThat(readModels.outletQueue(OUTLET).getOrderIds()).containsExactly(2L, 3L);
+
+		// Later changes go to the swapped-in views
+		readModels.onOrderStatusChanged(changed(2L, OrderStatus.ACCEPTED, OrderStatus.FULFILLED));
+
+		assertThat(readModels.statusCounts(VENDOR))
+				.containsEntry(OrderStatus.ACCEPTED, 1L)
+				.containsEntry(OrderStatus.FULFILLED, 2L);
+		assertThat(readModels.outletQueue(OUTLET).getOrderIds()).containsExactly(3L);
+	}
+
+	@Test
+	void archivedOrdersStayInLifetimeTotals() {
+		// Snapshot: order 1 fulfilled in the hot table, order 9 archived long ago
+		when(orderRepository.countByVendorAndStatus()).thenAnswer(invocation -> {
+			// Archived after the snapshot
+			readModels.onOrdersArchived(new OrdersArchivedEvent(List.of(open(1L, OrderStatus.FULFILLED))));
+			return List.of(new StatusCount(VENDOR, OrderStatus.FULFILLED, 1L));
+		});
+		when(archivedOrderRepository.countByVendorAndStatus())
+				.thenReturn(List.of(new StatusCount(VENDOR, OrderStatus.CANCELLED, 1L)));
+		when(orderRepository.findSchedulingFieldsByIdIn(any())).thenReturn(List.of(open(1L, OrderStatus.FULFILLED)));
+
+		readModels.load();
+
+		assertThat(readModels.statusCounts(VENDOR)).containsEntry(OrderStatus.FULFILLED, 0L);
+		assertThat(readModels.lifetimeStatusCounts(VENDOR))
+				.containsEntry(OrderStatus.FULFILLED, 1L)
+				.containsEntry(OrderStatus.CANCELLED, 1L);
+	}
+
+	private static OrderStatusChangedEvent changed(Long orderId, OrderStatus previous, OrderStatus status) {
+		return new OrderStatusChangedEvent(orderId, VENDOR, OUTLET, OrderPriority.MEDIUM, previous, status, null,
+				LocalDateTime.now(), LocalDateTime.now());
+	}
+
+	private static OpenOrder open(Long orderId, OrderStatus status) {
+		return new OpenOrder(orderId, VENDOR, OUTLET, OrderPriority.MEDIUM, status, LocalDateTime.now());
+	}
+}
@@ -0,0 +1,114 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.OrderItemRequest;
+import com.example.ondc.dto.OrderPage;
+import com.example.ondc.dto.OrderRequest;
+import com.example.ondc.entity.Outlet;
+import com.example.ondc.entity.Product;
+import com.example.ondc.entity.SellerApp;
+import com.example.ondc.entity.Vendor;
+import com.example.ondc.repository.OutletRepository;
+import com.example.ondc.repository.ProductRepository;
+import com.example.ondc.repository.SellerAppRepository;
+import com.example.ondc.repository.VendorRepository;
+import com.example.ondc.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Order reads must cost a fixed number of statements however many orders,
+ * items and distinct products a page holds.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("h2")
+class OrderReadQueryCountTests {
+
+	private static final int ORDERS = 30;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private VendorRepository vendorRepository;
+
+	@Autowired
+	private OutletRepository outletRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private SellerAppRepository sellerAppRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void createOrders() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		Vendor vendor = vendorRepository.findAll().get(0);
+		Outlet outlet = outletRepository.findByVendorId(vendor.getId()).get(0);
+		List<Product> products = productRepository.findByVendorId(vendor.getId());
+		SellerApp sellerApp = sellerAppRepository.findAll().get(0);
+		for (int i = 0; i < ORDERS; i++) {
+			orderService.createOrder(OrderRequest.builder()
+					.ondcOrderId("QC-" + UUID.randomUUID())
+					.vendorId(vendor.getId())
+					.outletId(outlet.getId())
+					.sellerAppId(sellerApp.getId())
+					.items(List.of(
+							new OrderItemRequest(products.get(i % products.size()).getId(), 1),
+							new OrderItemRequest(products.get((i + 1) % products.size()).getId(), 2)))
+					.build());
+		}
+	}
+
+	@Test
+	void pageQueryCountDoesNotGrowWithPageSize() {
+		long small = statementsFor(() -> orderService.getOrders(null, 2));
+		long large = statementsFor(() -> orderService.getOrders(null, ORDERS));
+
+		// Keyset ids, orders with their references, all items with products
+		assertThat(small).isEqualTo(3);
+		assertThat(large).isEqualTo(small);
+	}
+
+	@Test
+	void nextPageCostsTheSameAsTheFirst() {
+		OrderPage first = orderService.getOrders(null, 5);
+		assertThat(first.getNextCursor()).isNotNull();
+
+		long next = statementsFor(() -> orderService.getOrders(first.getNextCursor(), 5));
+
+		assertThat(next).isEqualTo(3);
+	}
+
+	@Test
+	void singleOrderIsTwoStatements() {
+		Long id = orderService.getOrders(null, 1).getItems().get(0).getId();
+
+		long count = statementsFor(() -> orderService.getOrderById(id));
+
+		assertThat(count).isEqualTo(2);
+	}
+
+	private long statementsFor(Runnable read) {
+		statistics.clear();
+		read.run();
+		return statistics.getPrepareStatementCount();
+	}
+
+}
@@ -0,0 +1,90 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.OrderSearchHit;
+import com.example.ondc.dto.OrderSearchRequest;
+import com.example.ondc.enums.OrderPriority;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.event.OrderCreatedEvent;
+import com.example.ondc.event.OrderStatusChangedEvent;
+import com.example.ondc.repository.OrderRepository;
+import com.example.ondc.service.OrderSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Prefix and AND matching, and no change lost to a rebuild that is loading.
+ */
+class OrderSearchIndexTests {
+
+	private OrderRepository orderRepository;
+	private OrderSearchIndex index;
+
+	@BeforeEach
+	void newIndex() {
+		orderRepository = mock(OrderRepository.class);
+		index = new OrderSearchIndex(orderRepository);
+		ReflectionTestUtils.setField(index, "enabled", true);
+		ReflectionTestUtils.setField(index, "recentDays", 7);
+	}
+
+	@Test
+	void fieldsMatchByPrefixAndAreAnded() {
+		when(orderRepository.findSearchable(any(), any())).thenReturn(List.of(
+				hit(1L, "Asha Rao", "+91 98450 12345", "560001"),
+				hit(2L, "Asha Menon", "9845012399", "560034"),
+				hit(3L, "Ravi Rao", "9845099999", "560001")));
+		index.load();
+
+		assertThat(ids(OrderSearchRequest.builder().customerPhone("98450").build())).containsExactly(3L, 2L, 1L);
+		assertThat(ids(OrderSearchRequest.builder().customerPhone("984501").customerName("ash").build()))
+				.containsExactly(2L, 1L);
+		assertThat(ids(OrderSearchRequest.builder().customerName("rao asha").deliveryPincode("5600").build()))
+				.containsExactly(1L);
+		assertThat(ids(OrderSearchRequest.builder().ondcOrderId("ONDC-3").build())).containsExactly(3L);
+		assertThat(ids(OrderSearchRequest.builder().customerName("asha").status(OrderStatus.ACCEPTED).build()))
+				.isEmpty();
+	}
+
+	@Test
+	void changesDuringRebuildAreReplayedIntoTheNewIndex() {
+		when(orderRepository.findSearchable(any(), any())).thenAnswer(invocation -> {
+			// Committed after the snapshot query read its rows
+			index.onOrderCreated(new OrderCreatedEvent(hit(4L, "Kiran Das", "9000000004", "110001")));
+			index.onOrderStatusChanged(new OrderStatusChangedEvent(1L, 10L, 20L, OrderPriority.MEDIUM,
+					OrderStatus.PENDING, OrderStatus.ACCEPTED, null, LocalDateTime.now(), LocalDateTime.now()));
+			return List.of(hit(1L, "Asha Rao", "9845012345", "560001"));
+		});
+		index.load();
+
+		assertThat(ids(OrderSearchRequest.builder().customerName("kiran").build())).containsExactly(4L);
+		assertThat(ids(OrderSearchRequest.builder().customerName("asha").status(OrderStatus.ACCEPTED).build()))
+				.containsExactly(1L);
+	}
+
+	private List<Long> ids(OrderSearchRequest request) {
+		return index.search(request).stream().map(OrderSearchHit::getOrderId).toList();
+	}
+
+	private static OrderSearchHit hit(Long id, String name, String phone, String pincode) {
+		return OrderSearchHit.builder()
+				.orderId(id)
+				.vendorId(10L)
+				.ondcOrderId("ONDC-" + id)
+				.customerName(name)
+				.customerPhone(phone)
+				.deliveryPincode(pincode)
+				.status(OrderStatus.PENDING)
+				.createdAt(LocalDateTime.now())
+				.build();
+	}
+
+}
@@ -0,0 +1,117 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.StockLevel;
+import com.example.ondc.entity.Outlet;
+import com.example.ondc.entity.Vendor;
+import com.example.ondc.event.InventoryChangedEvent;
+import com.example.ondc.repository.InventoryRepository;
+import com.example.ondc.repository.OutletRepository;
+import com.example.ondc.service.InventoryChangeSequence;
+import com.example.ondc.service.InventoryLedger;
+import com.example.ondc.service.OutletService;
+import com.example.ondc.service.OutletStockIndex;
+import com.example.ondc.service.VendorService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Basket routing over the per-product outlet bitsets, and no change lost to
+ * a rebuild whose query was already running.
+ */
+class OutletStockIndexTests {
+
+	private static final long A = 1L;
+	private static final long B = 2L;
+	private static final long C = 3L;
+
+	private InventoryRepository inventoryRepository;
+	private InventoryChangeSequence changeSequence;
+	private OutletStockIndex index;
+
+	@BeforeEach
+	void newIndex() {
+		inventoryRepository = mock(InventoryRepository.class);
+		changeSequence = mock(InventoryChangeSequence.class);
+		index = new OutletStockIndex(inventoryRepository, mock(InventoryLedger.class), changeSequence);
+		ReflectionTestUtils.setField(index, "enabled", true);
+	}
+
+	@Test
+	void basketGoesToTheOutletHoldingAllOfIt() {
+		when(inventoryRepository.findAllStockLevels()).thenReturn(List.of(
+				level(10L, A, 5, 1), level(10L, B, 1, 1),
+				level(20L, A, 0, 1), level(20L, B, 4, 1), level(20L, C, 9, 1)));
+		index.load();
+
+		assertThat(index.outletsFor(Map.of(10L, 1, 20L, 2))).containsExactly(B);
+		assertThat(index.outletsFor(Map.of(10L, 2))).containsExactly(A);
+		assertThat(index.outletsFor(Map.of(10L, 2, 20L, 2))).isEmpty();
+		assertThat(index.outletsFor(Map.of(30L, 1))).isEmpty();
+
+		// Same pincode and lighter load would pick C, but only B ships the whole basket
+		OutletRepository outletRepository = mock(OutletRepository.class);
+		when(outletRepository.findByVendorIdAndIsActiveTrue(7L)).thenReturn(List.of(
+				outlet(A, "560001", 5), outlet(B, "110001", 9), outlet(C, "560001", 0)));
+		OutletService outletService = new OutletService(outletRepository, mock(VendorService.class), index);
+
+		assertThat(outletService.findOptimalOutlet(7L, "560001", Map.of(10L, 1, 20L, 2)).getId()).isEqualTo(B);
+		assertThat(outletService.findOptimalOutlet(7L, "560001", Map.of()).getId()).isEqualTo(C);
+		// Nobody can ship it: every active outlet is ranked
+		assertThat(outletService.findOptimalOutlet(7L, "560001", Map.of(10L, 50)).getId()).isEqualTo(C);
+	}
+
+	@Test
+	void changesDuringRebuildAreNotOverwritten() {
+		when(inventoryRepository.findAllStockLevels()).thenReturn(List.of(level(10L, A, 10, 5), level(10L, B, 10, 5)));
+		index.load();
+
+		when(changeSequence.committedSeq()).thenReturn(5L);
+		when(inventoryRepository.findAllStockLevels()).thenAnswer(invocation -> {
+			// Committed after the query read A's row
+			index.onInventoryChanged(InventoryChangedEvent.reserved(10L, A, 7, 6));
+			index.onInventoryChanged(InventoryChangedEvent.of(10L, C, 4, 0, null, 7));
+			return List.of(level(10L, A, 10, 5));
+		});
+		index.reconcile();
+
+		assertThat(index.available(10L, A)).isEqualTo(3);
+		assertThat(index.available(10L, C)).isEqualTo(4);
+		// Gone from the table and untouched since the snapshot
+		assertThat(index.available(10L, B)).isNull();
+
+		// An event older than its slot re-reads the committed row
+		when(inventoryRepository.findStockLevel(10L, A)).thenReturn(Optional.of(level(10L, A, 2, 8)));
+		index.onInventoryChanged(InventoryChangedEvent.reserved(10L, A, 1, 4));
+
+		assertThat(index.available(10L, A)).isEqualTo(2);
+	}
+
+	private static StockLevel level(Long productId, Long outletId, int available, long changeSeq) {
+		return StockLevel.builder()
+				.productId(productId)
+				.outletId(outletId)
+				.totalStock(available)
+				.reservedStock(0)
+				.changeSeq(changeSeq)
+				.build();
+	}
+
+	private static Outlet outlet(Long id, String pincode, int load) {
+		return Outlet.builder()
+				.id(id)
+				.pincode(pincode)
+				.currentLoad(load)
+				.maxCapacity(10)
+				.vendor(Vendor.builder().id(7L).build())
+				.build();
+	}
+}
@@ -0,0 +1,107 @@
+package com.example.ondc;
+
+import com.example.ondc.entity.Inventory;
+import com.example.ondc.repository.InventoryRepository;
+import com.example.ondc.service.InventoryService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reservations per second on one hot row: read-check-save path vs the single
+ * conditional UPDATE path. Run with ./gradlew benchmark.
+ */
+@SpringBootTest
+@ActiveProfiles("h2")
+@Tag("benchmark")
+class ReservationBenchmarkTests {
+
+	private static final Logger log = LoggerFactory.getLogger(ReservationBenchmarkTests.class);
+
+	private static final int THREADS = 8;
+	private static final int RESERVATIONS_PER_THREAD = 500;
+
+	@Autowired
+	private InventoryService inventoryService;
+
+	@Autowired
+	private InventoryRepository inventoryRepository;
+
+	@Test
+	void entityPathVsAtomicPath() throws Exception {
+		Inventory row = inventoryRepository.findAll().get(0);
+		Long productId = row.getProduct().getId();
+		Long outletId = row.getOutlet().getId();
+		InventoryService target = AopTestUtils.getTargetObject(inventoryService);
+
+		ReflectionTestUtils.setField(target, "atomicReserve", false);
+		Result entity = run(row.getId(), productId, outletId);
+
+		ReflectionTestUtils.setField(target, "atomicReserve", true);
+		Result atomic = run(row.getId(), productId, outletId);
+		ReflectionTestUtils.setField(target, "atomicReserve", false);
+
+		log.info("entity path: {} reservations/s ({} ok, {} failed)",
+				Math.round(entity.perSecond), entity.succeeded, entity.failed);
+		log.info("atomic path: {} reservations/s ({} ok, {} failed)",
+				Math.round(atomic.perSecond), atomic.succeeded, atomic.failed);
+
+		assertThat(atomic.failed).isZero();
+	}
+
+	private Result run(Long inventoryId, Long productId, Long outletId) throws InterruptedException {
+		Inventory inventory = inventoryRepository.findById(inventoryId).orElseThrow();
+		inventory.setTotalStock(THREADS * RESERVATIONS_PER_THREAD);
+		inventory.setReservedStock(0);
+		inventoryRepository.save(inventory);
+
+		AtomicInteger succeeded = new AtomicInteger();
+		AtomicInteger failed = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		for (int t = 0; t < THREADS; t++) {
+			pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+					try {
+						inventoryService.reserveStock(productId, outletId, 1);
+						succeeded.incrementAndGet();
+					} catch (RuntimeException ex) {
+						failed.incrementAndGet();
+					}
+				}
+				return null;
+			});
+		}
+
+		long began = System.nanoTime();
+		start.countDown();
+		pool.shutdown();
+		pool.awaitTermination(5, TimeUnit.MINUTES);
+		double seconds = (System.nanoTime() - began) / 1_000_000_000.0;
+
+		// Whatever the path, the row must account for exactly the reservations that succeeded
+		int reserved = inventoryRepository.findById(inventoryId).orElseThrow().getReservedStock();
+		assertThat(reserved).isEqualTo(succeeded.get());
+
+		return new Result(succeeded.get() / seconds, succeeded.get(), failed.get());
+	}
+
+	private record Result(double perSecond, int succeeded, int failed) {
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.DispatchResponse;
+import com.example.ondc.dto.OrderResponse;
+import com.example.ondc.enums.OrderStatus;
+import com.example.ondc.exception.InvalidOperationException;
+import com.example.ondc.repository.ReservationHoldRepository;
+import com.example.ondc.service.ReservationHoldService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A lapsed hold gives its stock back exactly once and takes its order out of
+ * the ready states, so neither dispatch nor cancel touches that stock again.
+ */
+@SpringBootTest(properties = {
+		"ondc.inventory.hold.enabled=true",
+		"ondc.inventory.hold.ttl-minutes=0",
+		"ondc.inventory.hold.tick-ms=20"
+})
+class ReservationHoldExpiryTests extends OrderFixture {
+
+	@Autowired
+	private ReservationHoldService reservationHoldService;
+
+	@Autowired
+	private ReservationHoldRepository reservationHoldRepository;
+
+	@Test
+	void expiredHoldReleasesStockOnceAndCancelsTheOrder() throws Exception {
+		Long orderId = acceptedOrder(3);
+
+		OrderResponse expired = awaitStatus(orderId, OrderStatus.CANCELLED);
+
+		assertThat(expired.getRejectionReason()).isEqualTo("Reservation hold expired");
+		assertThat(reservationHoldRepository.findByOrderId(orderId)).isEmpty();
+		assertThat(row().getReservedStock()).isZero();
+
+		assertThatThrownBy(() -> orderService.cancelOrder(orderId, "too late"))
+				.isInstanceOf(InvalidOperationException.class);
+		DispatchResponse dispatch = orderService.dispatchOutlet(outlet.getId());
+		assertThat(dispatch.getOrderIds()).doesNotContain(orderId);
+		assertThat(row().getReservedStock()).isZero();
+		assertThat(row().getTotalStock()).isEqualTo(STOCK);
+	}
+
+	private OrderResponse awaitStatus(Long orderId, OrderStatus status) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5_000;
+		OrderResponse order = orderService.getOrderById(orderId);
+		while (order.getStatus() != status && System.currentTimeMillis() < deadline) {
+			Thread.sleep(25);
+			reservationHoldService.expireHolds();
+			order = orderService.getOrderById(orderId);
+		}
+		assertThat(order.getStatus()).isEqualTo(status);
+		return order;
+	}
+
+}
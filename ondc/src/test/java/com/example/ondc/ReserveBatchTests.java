@@ -0,0 +1,102 @@
+package com.example.ondc;
+
+import com.example.ondc.dto.ReservationLine;
+import com.example.ondc.entity.Inventory;
+import com.example.ondc.entity.Product;
+import com.example.ondc.exception.InsufficientStockException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A basket is reserved whole or not at all, and its rows are locked in id
+ * order, so baskets listing the same rows in opposite orders never deadlock.
+ */
+@SpringBootTest
+class ReserveBatchTests extends OrderFixture {
+
+	private static final int ROUNDS = 25;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void shortLineLeavesTheBasketUnreserved() {
+		Product scarce = newProduct(2);
+
+		assertThatThrownBy(() -> inventoryService.reserveBatch(List.of(
+				new ReservationLine(product.getId(), outlet.getId(), 5),
+				new ReservationLine(scarce.getId(), outlet.getId(), 3))))
+				.isInstanceOf(InsufficientStockException.class);
+
+		assertThat(row().getReservedStock()).isZero();
+		assertThat(row(scarce, outlet).getReservedStock()).isZero();
+	}
+
+	@Test
+	void duplicateLinesAreReservedTogether() {
+		inventoryService.reserveBatch(List.of(
+				new ReservationLine(product.getId(), outlet.getId(), 3),
+				new ReservationLine(product.getId(), outlet.getId(), 4)));
+
+		assertThat(row().getReservedStock()).isEqualTo(7);
+	}
+
+	@Test
+	void rowsAreLockedInIdOrder() {
+		Product second = newProduct(STOCK);
+
+		List<Long> locked = transactionTemplate.execute(status -> inventoryRepository
+				.findAllForUpdate(List.of(second.getId(), product.getId()), List.of(outlet.getId()))
+				.stream()
+				.map(Inventory::getId)
+				.toList());
+
+		assertThat(locked).containsExactly(row().getId(), row(second, outlet).getId());
+	}
+
+	@Test
+	void oppositelyOrderedBasketsDoNotDeadlock() throws Exception {
+		Product second = newProduct(STOCK);
+		List<ReservationLine> forward = List.of(
+				new ReservationLine(product.getId(), outlet.getId(), 1),
+				new ReservationLine(second.getId(), outlet.getId(), 1));
+		List<ReservationLine> backward = List.of(forward.get(1), forward.get(0));
+
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			List<Future<?>> tasks = new ArrayList<>();
+			for (List<ReservationLine> basket : List.of(forward, backward)) {
+				tasks.add(pool.submit(() -> {
+					start.await();
+					for (int i = 0; i < ROUNDS; i++) {
+						inventoryService.reserveBatch(basket);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> task : tasks) {
+				task.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertThat(row().getReservedStock()).isEqualTo(2 * ROUNDS);
+		assertThat(row(second, outlet).getReservedStock()).isEqualTo(2 * ROUNDS);
+	}
+}
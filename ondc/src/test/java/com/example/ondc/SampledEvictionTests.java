@@ -0,0 +1,60 @@
+package com.example.ondc;
+
+import com.example.ondc.util.SampledEviction;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Eviction keeps the bound, spares the entry just stored, prefers older
+ * entries and is spread over the whole table rather than its first bins.
+ */
+class SampledEvictionTests {
+
+	@Test
+	void evictsDownToTheBoundAcrossTheTable() {
+		Map<Integer, Long> map = new ConcurrentHashMap<>();
+		for (int key = 0; key < 1_000; key++) {
+			map.put(key, (long) key);
+		}
+		Set<Integer> before = new HashSet<>(map.keySet());
+
+		int evicted = SampledEviction.evict(map, 900, 0, Long::longValue);
+
+		assertThat(evicted).isEqualTo(100);
+		assertThat(map).hasSize(900).containsKey(0);
+		before.removeAll(map.keySet());
+		// Integer keys sit in bins by value; bin-order eviction would take exactly 1..100
+		assertThat(before).anyMatch(key -> key > 500);
+		assertThat(before).anyMatch(key -> key < 500);
+	}
+
+	@Test
+	void prefersTheOldestEntryOfTheSample() {
+		Map<Integer, Long> map = new ConcurrentHashMap<>();
+		for (int key = 0; key < 5; key++) {
+			map.put(key, 100L);
+		}
+		map.put(3, 1L);
+
+		SampledEviction.evict(map, 4, null, Long::longValue);
+
+		assertThat(map).hasSize(4).doesNotContainKey(3);
+	}
+
+	@Test
+	void neverEvictsTheEntryJustStored() {
+		Map<Integer, Long> map = new ConcurrentHashMap<>();
+		map.put(1, 1L);
+		map.put(2, 2L);
+
+		SampledEviction.evict(map, 1, 1, Long::longValue);
+
+		assertThat(map).containsOnlyKeys(1);
+	}
+}